@@ -0,0 +1,43 @@
+package org.poker.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+
+import org.poker.client.Card;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
+
+/**
+ * Card helpers shared by the benchmarks.
+ */
+final class Cards {
+
+  private Cards() {
+  }
+
+  static List<Card> randomCards(Random random, int count) {
+    boolean[] used = new boolean[Card.NUMBER_OF_CARDS];
+    List<Card> cards = Lists.newArrayList();
+    while (cards.size() < count) {
+      int index = random.nextInt(Card.NUMBER_OF_CARDS);
+      if (!used[index]) {
+        used[index] = true;
+        cards.add(Card.fromIndex(index));
+      }
+    }
+    return cards;
+  }
+
+  /**
+   * Returns cards for the given short names; "?" is an unknown card.
+   */
+  static List<Optional<Card>> cards(String... shortNames) {
+    List<Optional<Card>> cards = Lists.newArrayList();
+    for (String shortName : shortNames) {
+      cards.add(shortName.equals("?")
+          ? Optional.<Card>absent() : Optional.of(Card.fromShortName(shortName)));
+    }
+    return cards;
+  }
+}
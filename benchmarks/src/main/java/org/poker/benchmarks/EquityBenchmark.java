@@ -0,0 +1,61 @@
+package org.poker.benchmarks;
+
+import static org.poker.benchmarks.Cards.cards;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.poker.client.AIHelper;
+import org.poker.client.Card;
+
+import com.google.common.base.Optional;
+
+/**
+ * One heads-up AIHelper.simulate() call (a fixed number of random trials)
+ * with the AI's hole cards known and the opponent's unknown.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EquityBenchmark {
+
+  @Param({"preflop", "flop", "turn"})
+  public String round;
+
+  private final AIHelper aiHelper = new AIHelper();
+  private List<Optional<Card>> board;
+  private final List<Optional<Card>> holeCards = cards("As", "Kh");
+  private final List<Optional<Card>> opponentHoleCards = cards("?", "?");
+
+  @Setup
+  public void setUp() {
+    if (round.equals("preflop")) {
+      board = cards("?", "?", "?", "?", "?");
+    }
+    else if (round.equals("flop")) {
+      board = cards("2c", "7d", "Ks", "?", "?");
+    }
+    else {
+      board = cards("2c", "7d", "Ks", "Jh", "?");
+    }
+  }
+
+  @Benchmark
+  public double simulate() {
+    return aiHelper.simulate(board, holeCards, opponentHoleCards);
+  }
+}
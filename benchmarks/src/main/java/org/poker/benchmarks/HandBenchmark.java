@@ -0,0 +1,88 @@
+package org.poker.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.poker.client.Card;
+import org.poker.client.util.BestHandFinder;
+import org.poker.client.util.PokerHand;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Hand construction, ranking and best-hand search over a fixed set of
+ * random hands, one hand per invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandBenchmark {
+
+  private static final int HANDS = 1024;
+
+  private List<List<Card>> fiveCards;
+  private List<List<Card>> boards;
+  private List<List<Card>> holeCards;
+  private PokerHand[] hands;
+  private final BestHandFinder finder = new BestHandFinder();
+  private int next = 0;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    fiveCards = Lists.newArrayList();
+    boards = Lists.newArrayList();
+    holeCards = Lists.newArrayList();
+    hands = new PokerHand[HANDS];
+    for (int i = 0; i < HANDS; i++) {
+      List<Card> cards = Cards.randomCards(random, 7);
+      fiveCards.add(cards.subList(0, 5));
+      boards.add(cards.subList(0, 5));
+      holeCards.add(cards.subList(5, 7));
+      hands[i] = new PokerHand(cards.subList(0, 5));
+    }
+  }
+
+  private int nextIndex() {
+    next = (next + 1) & (HANDS - 1);
+    return next;
+  }
+
+  @Benchmark
+  public PokerHand constructPokerHand() {
+    return new PokerHand(fiveCards.get(nextIndex()));
+  }
+
+  @Benchmark
+  public List<Integer> getRanking() {
+    // A new hand each time, getRanking() is cached per instance
+    return PokerHand.fromCardMask(hands[nextIndex()].getCardMask()).getRanking();
+  }
+
+  @Benchmark
+  public int compareRanking() {
+    int i = nextIndex();
+    return hands[i].compareRanking(hands[(i + 1) & (HANDS - 1)]);
+  }
+
+  @Benchmark
+  public PokerHand bestHandFinderFind() {
+    int i = nextIndex();
+    finder.reset(boards.get(i), holeCards.get(i));
+    return finder.find();
+  }
+}
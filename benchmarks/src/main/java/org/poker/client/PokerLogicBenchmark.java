@@ -0,0 +1,263 @@
+package org.poker.client;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.game_api.GameApi.GameState;
+import org.game_api.GameApi.Message;
+import org.game_api.GameApi.Operation;
+import org.game_api.GameApi.Set;
+import org.game_api.GameApi.UpdateUI;
+import org.game_api.JavaJsonTree;
+import org.game_api.BinaryMessageCodec;
+import org.game_api.JsonTreeCodec;
+import org.game_api.JsonWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.poker.server.MutablePokerState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * State decoding, move generation and move application on the flop for 2, 6
+ * and 9 players.
+ * Lives in org.poker.client because the move generators are package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PokerLogicBenchmark extends AbstractPokerLogicBase {
+
+  @Param({"2", "6", "9"})
+  public int players;
+
+  private final PokerLogic pokerLogic = new PokerLogic();
+  private final PokerLogicHelper helper = PokerLogicHelper.getInstance();
+  private List<String> playerIds;
+  private Map<String, Integer> startingChips;
+  private Map<String, Object> unopenedState;
+  /** No bets yet, first player to act. */
+  private PokerState unopened;
+  /** First player bet 400, second player to act. */
+  private PokerState facingBet;
+  /** The operations of a check by the first player in the unopened state. */
+  private List<Operation> check;
+  private GameState gameState;
+  private MutablePokerState mutableState;
+  private final PokerStateDecoder decoder = new PokerStateDecoder();
+  /** The unopened state and the state after the check, decoded in turn. */
+  private List<Map<String, Object>> alternatingStates;
+  private int next = 0;
+  /** The operations of a call by the second player facing the bet. */
+  private List<Operation> call;
+  private final StreamingMoveVerifier streamingVerifier = new StreamingMoveVerifier(pokerLogic);
+  /** The update sent to the second player after the check. */
+  private UpdateUI updateUI;
+  private final JsonTreeCodec<Object> codec = new JsonTreeCodec<Object>(new JavaJsonTree());
+  private Object encodedUpdateUI;
+  private final JsonWriter jsonWriter = new JsonWriter();
+  private final BinaryMessageCodec binaryCodec = PokerMessageCodecs.newBinaryCodec();
+  private byte[] binaryUpdateUI;
+
+  @Setup
+  public void setUp() {
+    playerIds = Lists.newArrayList();
+    startingChips = Maps.newHashMap();
+    for (int i = 0; i < players; i++) {
+      playerIds.add(String.valueOf(42 + i));
+      startingChips.put(playerIds.get(i), 5000);
+    }
+    unopenedState = flopState(0);
+    unopened = helper.gameApiStateToPokerState(unopenedState);
+    facingBet = helper.gameApiStateToPokerState(flopState(400));
+    check = pokerLogic.doCheckMove(unopened, playerIds);
+    call = pokerLogic.doCallMove(facingBet, playerIds, 400);
+    gameState = new GameState();
+    mutableState = new MutablePokerState(playerIds, new Random(0));
+    for (Map.Entry<String, Object> entry : unopenedState.entrySet()) {
+      gameState.makeMove(new Set(entry.getKey(), entry.getValue()));
+      mutableState.makeMove(new Set(entry.getKey(), entry.getValue()));
+    }
+    GameState afterCheck = gameState.copy();
+    afterCheck.makeMove(check);
+    alternatingStates = ImmutableList.of(
+        gameState.getStateForPlayerId(playerIds.get(1)),
+        afterCheck.getStateForPlayerId(playerIds.get(1)));
+    List<Map<String, Object>> playersInfo = Lists.newArrayList();
+    Map<String, Integer> tokens = Maps.newHashMap();
+    for (String playerId : playerIds) {
+      playersInfo.add(ImmutableMap.<String, Object>of("playerId", playerId));
+      tokens.put(playerId, 0);
+    }
+    updateUI = new UpdateUI(playerIds.get(1), playersInfo, alternatingStates.get(1),
+        alternatingStates.get(0), check, playerIds.get(0), tokens);
+    encodedUpdateUI = codec.encode(updateUI);
+    binaryUpdateUI = binaryCodec.encode(updateUI);
+  }
+
+  /**
+   * Returns a flop state with 600 chips in the pot where P0 has bet the given
+   * amount (0 for no bet) and the next player is to act. Every card is visible.
+   */
+  private Map<String, Object> flopState(int bet) {
+    List<String> playersInHand = Lists.newArrayList();
+    List<List<Integer>> holeCards = Lists.newArrayList();
+    List<Integer> bets = Lists.newArrayList();
+    List<Integer> chips = Lists.newArrayList();
+    for (int i = 0; i < players; i++) {
+      playersInHand.add(P[i]);
+      holeCards.add(ImmutableList.of(2 * i, 2 * i + 1));
+      bets.add(i == 0 ? bet : 0);
+      chips.add(i == 0 ? 5000 - bet : 5000);
+    }
+    List<Integer> board = Lists.newArrayList();
+    for (int i = 0; i < 5; i++) {
+      board.add(2 * players + i);
+    }
+    ImmutableMap.Builder<String, Object> state = ImmutableMap.<String, Object>builder()
+        .put(PREVIOUS_MOVE, bet == 0 ? PokerMove.CHECK.name() : PokerMove.BET.name())
+        .put(PREVIOUS_MOVE_ALL_IN, Boolean.FALSE)
+        .put(NUMBER_OF_PLAYERS, players)
+        .put(WHOSE_MOVE, bet == 0 ? P[0] : P[1])
+        .put(CURRENT_BETTER, P[0])
+        .put(CURRENT_ROUND, BettingRound.FLOP.name())
+        .put(PLAYERS_IN_HAND, playersInHand)
+        .put(HOLE_CARDS, holeCards)
+        .put(BOARD, board)
+        .put(PLAYER_BETS, bets)
+        .put(PLAYER_CHIPS, chips)
+        .put(POTS, ImmutableList.of(ImmutableMap.<String, Object>of(
+            CHIPS, 600 + bet,
+            CURRENT_POT_BET, bet,
+            PLAYERS_IN_POT, playersInHand,
+            PLAYER_BETS, bets)));
+    for (int i = 0; i < Card.NUMBER_OF_CARDS; i++) {
+      state.put(C + i, Card.fromIndex(i).getShortName());
+    }
+    return state.build();
+  }
+
+  @Benchmark
+  public PokerState gameApiStateToPokerState() {
+    return helper.gameApiStateToPokerState(unopenedState);
+  }
+
+  @Benchmark
+  public List<Operation> getInitialMove() {
+    return pokerLogic.getInitialMove(playerIds, startingChips);
+  }
+
+  @Benchmark
+  public List<Operation> doFoldMove() {
+    return pokerLogic.doFoldMove(facingBet, playerIds);
+  }
+
+  @Benchmark
+  public List<Operation> doCheckMove() {
+    return pokerLogic.doCheckMove(unopened, playerIds);
+  }
+
+  @Benchmark
+  public List<Operation> doCallMove() {
+    return pokerLogic.doCallMove(facingBet, playerIds, 400);
+  }
+
+  @Benchmark
+  public List<Operation> doBetMove() {
+    return pokerLogic.doBetMove(unopened, playerIds, 400);
+  }
+
+  @Benchmark
+  public List<Operation> doRaiseMove() {
+    return pokerLogic.doRaiseMove(facingBet, playerIds, 1200);
+  }
+
+  /**
+   * Applies a check and decodes the next player's view the way the
+   * container and presenter do.
+   */
+  @Benchmark
+  public PokerState makeMoveAndDecode() {
+    gameState.makeMove(check);
+    return helper.gameApiStateToPokerState(gameState.getStateForPlayerId(playerIds.get(1)));
+  }
+
+  @Benchmark
+  public PokerState makeMoveInPlace() {
+    mutableState.makeMove(check);
+    return mutableState.toPokerState(1);
+  }
+
+  /**
+   * Decodes a state that differs from the last one by a check, reusing
+   * everything the check did not change.
+   */
+  @Benchmark
+  public PokerState decodeIncrementally() {
+    next = 1 - next;
+    return decoder.decode(alternatingStates.get(next), check);
+  }
+
+  /**
+   * Verifies a call by building the expected operations and comparing.
+   */
+  @Benchmark
+  public boolean verifyCallByExpectedOperations() {
+    return pokerLogic.doCallMove(facingBet, playerIds, 400).equals(call);
+  }
+
+  /**
+   * Verifies a call operation by operation. With 2 players the call ends
+   * the round, so this measures the fallback decision only.
+   */
+  @Benchmark
+  public StreamingMoveVerifier.Result verifyCallStreaming() {
+    return streamingVerifier.verify(facingBet, call, playerIds);
+  }
+
+  /**
+   * Encodes an update into the tree the container bridge posts. The old
+   * bridge's JSON.stringify and JSON.parse only exist in the browser.
+   */
+  @Benchmark
+  public Object encodeUpdateUI() {
+    return codec.encode(updateUI);
+  }
+
+  @Benchmark
+  public Message decodeUpdateUI() {
+    return codec.decode(encodedUpdateUI);
+  }
+
+  @Benchmark
+  public String writeUpdateUIJson() {
+    return jsonWriter.write(updateUI);
+  }
+
+  @Benchmark
+  public byte[] encodeUpdateUIBinary() {
+    return binaryCodec.encode(updateUI);
+  }
+
+  @Benchmark
+  public Message decodeUpdateUIBinary() {
+    return binaryCodec.decode(binaryUpdateUI);
+  }
+}
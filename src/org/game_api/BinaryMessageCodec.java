@@ -0,0 +1,281 @@
+package org.game_api;
+
+import java.util.List;
+import java.util.Map;
+
+import org.game_api.GameApi.Message;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * A compact byte encoding of messages for server-to-server and bot traffic.
+ * Every value starts with a tag byte:
+ * <pre>
+ * 0 null, 1 false, 2 true
+ * 3 integer: zigzag varint
+ * 4 new string: varint length, then each char as a varint
+ * 5 dictionary string: varint index
+ * 6 list: varint size, then the elements
+ * 7 map: varint size, then each key (a string value) and value
+ * 8-255 dictionary string with index tag - 8
+ * </pre>
+ * Messages are maps whose first key is "type". The dictionary starts with the
+ * GameApi message and field names followed by the game's own strings (state
+ * keys, cards, players, enum names), so those take a single byte. Every new
+ * string is appended to the dictionary for the rest of its message, so a
+ * repeated key or value is only spelled out once.
+ * A codec reuses its buffers and is not thread-safe.
+ */
+public class BinaryMessageCodec implements MessageCodec<byte[]> {
+
+  private static final int NULL = 0;
+  private static final int FALSE = 1;
+  private static final int TRUE = 2;
+  private static final int INTEGER = 3;
+  private static final int NEW_STRING = 4;
+  private static final int DICTIONARY_STRING = 5;
+  private static final int LIST = 6;
+  private static final int MAP = 7;
+  private static final int FIRST_SHORT_DICTIONARY_STRING = 8;
+  private static final int NUMBER_OF_SHORT_DICTIONARY_STRINGS = 256 - FIRST_SHORT_DICTIONARY_STRING;
+
+  private static final List<String> GAME_API_STRINGS = ImmutableList.of(
+      "type",
+      "VerifyMove", "UpdateUI", "UpdateUIDelta", "RequestResync", "EndGame", "Set",
+      "SetRandomInteger", "SetVisibility", "SetTurn", "Delete", "AttemptChangeTokens",
+      "Shuffle", "GameReady", "MakeMove", "VerifyMoveDone", "RequestManipulator",
+      "ManipulateState", "ManipulationDone",
+      "yourPlayerId", "playersInfo", "playerId", "state", "lastState", "lastMove",
+      "lastMovePlayerId", "playerIdToNumberOfTokensInPot", "version", "baseVersion",
+      "changedState", "deletedKeys", "changedLastState", "deletedLastKeys",
+      "playerIdToScore", "key", "value", "visibleToPlayerIds", "from", "to",
+      "numberOfSecondsForTurn", "playerIdToTokenChange", "keys", "operations",
+      "hackerPlayerId", "message", "ALL");
+
+  private final List<String> staticStrings;
+  private final Map<String, Integer> staticIndices = Maps.newHashMap();
+  /** Strings added while encoding or decoding the current message. */
+  private final Map<String, Integer> addedIndices = Maps.newHashMap();
+  private final List<String> strings;
+
+  private byte[] buffer = new byte[256];
+  private int position;
+  private byte[] input;
+  private int inputPosition;
+
+  /**
+   * @param gameStrings strings the game sends often, most frequent first.
+   */
+  public BinaryMessageCodec(List<String> gameStrings) {
+    staticStrings = ImmutableList.<String>builder()
+        .addAll(GAME_API_STRINGS).addAll(gameStrings).build();
+    for (int i = 0; i < staticStrings.size(); i++) {
+      if (staticIndices.containsKey(staticStrings.get(i))) {
+        throw new IllegalArgumentException(
+            "Duplicate dictionary string " + staticStrings.get(i));
+      }
+      staticIndices.put(staticStrings.get(i), i);
+    }
+    strings = Lists.newArrayList(staticStrings);
+  }
+
+  @Override
+  public byte[] encode(Message message) {
+    position = 0;
+    addedIndices.clear();
+    writeMessage(message);
+    byte[] encoded = new byte[position];
+    System.arraycopy(buffer, 0, encoded, 0, position);
+    return encoded;
+  }
+
+  @Override
+  public Message decode(byte[] encoded) {
+    input = encoded;
+    inputPosition = 0;
+    strings.subList(staticStrings.size(), strings.size()).clear();
+    try {
+      Object value = readValue();
+      if (!(value instanceof Map) || inputPosition != encoded.length) {
+        throw new IllegalArgumentException("Not an encoded message");
+      }
+      @SuppressWarnings("unchecked")
+      Map<String, Object> map = (Map<String, Object>) value;
+      return Message.messageToHasEquality(map);
+    } catch (ArrayIndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Truncated message", e);
+    } finally {
+      input = null;
+    }
+  }
+
+  private void writeMessage(Message message) {
+    List<Object> fieldsNameAndValue = message.getFieldsNameAndValue();
+    writeByte(MAP);
+    writeVarint(fieldsNameAndValue.size() / 2 + 1);
+    writeString("type");
+    writeString(message.getMessageName());
+    for (int i = 0; i < fieldsNameAndValue.size(); i += 2) {
+      writeString((String) fieldsNameAndValue.get(i));
+      writeValue(fieldsNameAndValue.get(i + 1));
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void writeValue(Object value) {
+    if (value == null) {
+      writeByte(NULL);
+    } else if (value instanceof Boolean) {
+      writeByte((Boolean) value ? TRUE : FALSE);
+    } else if (value instanceof Integer) {
+      int i = (Integer) value;
+      writeByte(INTEGER);
+      writeVarint((i << 1) ^ (i >> 31));
+    } else if (value instanceof String) {
+      writeString((String) value);
+    } else if (value instanceof Message) {
+      // Operations inside lastMove and operations
+      writeMessage((Message) value);
+    } else if (value instanceof List) {
+      List<Object> list = (List<Object>) value;
+      writeByte(LIST);
+      writeVarint(list.size());
+      for (int i = 0; i < list.size(); i++) {
+        writeValue(list.get(i));
+      }
+    } else if (value instanceof Map) {
+      Map<String, Object> map = (Map<String, Object>) value;
+      writeByte(MAP);
+      writeVarint(map.size());
+      for (Map.Entry<String, Object> entry : map.entrySet()) {
+        writeString(entry.getKey());
+        writeValue(entry.getValue());
+      }
+    } else {
+      throw new IllegalStateException("Invalid object encountered");
+    }
+  }
+
+  private void writeString(String value) {
+    Integer index = staticIndices.get(value);
+    if (index == null) {
+      index = addedIndices.get(value);
+    }
+    if (index == null) {
+      addedIndices.put(value, staticStrings.size() + addedIndices.size());
+      writeByte(NEW_STRING);
+      writeVarint(value.length());
+      for (int i = 0; i < value.length(); i++) {
+        writeVarint(value.charAt(i));
+      }
+    } else if (index < NUMBER_OF_SHORT_DICTIONARY_STRINGS) {
+      writeByte(FIRST_SHORT_DICTIONARY_STRING + index);
+    } else {
+      writeByte(DICTIONARY_STRING);
+      writeVarint(index);
+    }
+  }
+
+  private void writeVarint(int value) {
+    while ((value & ~0x7f) != 0) {
+      writeByte((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    writeByte(value);
+  }
+
+  private void writeByte(int value) {
+    if (position == buffer.length) {
+      byte[] larger = new byte[buffer.length * 2];
+      System.arraycopy(buffer, 0, larger, 0, position);
+      buffer = larger;
+    }
+    buffer[position++] = (byte) value;
+  }
+
+  private Object readValue() {
+    int tag = input[inputPosition++] & 0xff;
+    switch (tag) {
+      case NULL:
+        return null;
+      case FALSE:
+        return Boolean.FALSE;
+      case TRUE:
+        return Boolean.TRUE;
+      case INTEGER:
+        int zigzag = readVarint();
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+      case NEW_STRING:
+      case DICTIONARY_STRING:
+        return readString(tag);
+      case LIST:
+        int size = readSize();
+        List<Object> list = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+          list.add(readValue());
+        }
+        return list;
+      case MAP:
+        int entries = readSize();
+        Map<String, Object> map = Maps.newHashMapWithExpectedSize(entries);
+        for (int i = 0; i < entries; i++) {
+          String key = readString(input[inputPosition++] & 0xff);
+          map.put(key, readValue());
+        }
+        return map;
+      default:
+        return readString(tag);
+    }
+  }
+
+  private String readString(int tag) {
+    if (tag == NEW_STRING) {
+      int length = readSize();
+      StringBuilder sb = new StringBuilder(length);
+      for (int i = 0; i < length; i++) {
+        sb.append((char) readVarint());
+      }
+      String value = sb.toString();
+      strings.add(value);
+      return value;
+    } else if (tag == DICTIONARY_STRING) {
+      return getString(readVarint());
+    } else if (tag >= FIRST_SHORT_DICTIONARY_STRING) {
+      return getString(tag - FIRST_SHORT_DICTIONARY_STRING);
+    }
+    throw new IllegalArgumentException("String expected, found tag " + tag);
+  }
+
+  private String getString(int index) {
+    if (index >= strings.size()) {
+      throw new IllegalArgumentException("Unknown dictionary string " + index);
+    }
+    return strings.get(index);
+  }
+
+  /**
+   * Reads the number of elements, entries or characters that follow. Each
+   * takes at least one byte, so a larger number than there are bytes left
+   * is rejected before anything is allocated for it.
+   */
+  private int readSize() {
+    int size = readVarint();
+    if (size < 0 || size > input.length - inputPosition) {
+      throw new IllegalArgumentException("Invalid size " + size);
+    }
+    return size;
+  }
+
+  private int readVarint() {
+    int value = 0;
+    for (int shift = 0; ; shift += 7) {
+      int b = input[inputPosition++];
+      value |= (b & 0x7f) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+  }
+}
@@ -1,8 +1,13 @@
 package org.game_api;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -12,6 +17,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.json.client.JSONArray;
 import com.google.gwt.json.client.JSONBoolean;
 import com.google.gwt.json.client.JSONNull;
@@ -47,6 +53,10 @@ public final class GameApi {
   public static class ContainerConnector implements Container {
 
     private final Game game;
+    private final UpdateUIDeltaCache updateUIDeltaCache = new UpdateUIDeltaCache();
+    /** Converts messages to and from the JavaScript objects exchanged with the container. */
+    private final JsonTreeCodec<JavaScriptObject> codec =
+        new JsonTreeCodec<JavaScriptObject>(new JavaScriptObjectTree());
 
     public ContainerConnector(Game game) {
       this.game = game;
@@ -56,18 +66,18 @@ public final class GameApi {
     @Override
     public void sendGameReady() {
       GameReady gameReady = new GameReady();
-      postMessageToParent(GameApiJsonHelper.getJsonString(gameReady));
+      postMessageToParent(codec.encode(gameReady));
     }
 
     @Override
     public void sendVerifyMoveDone(VerifyMoveDone verifyMoveDone) {
-      postMessageToParent(GameApiJsonHelper.getJsonString(verifyMoveDone));
+      postMessageToParent(codec.encode(verifyMoveDone));
     }
 
     @Override
     public void sendMakeMove(List<Operation> operations) {
       MakeMove makeMove = new MakeMove(operations);
-      postMessageToParent(GameApiJsonHelper.getJsonString(makeMove));
+      postMessageToParent(codec.encode(makeMove));
     }
 
     public static native void postMessageToParent(String message) /*-{
@@ -76,10 +86,29 @@ public final class GameApi {
       $wnd.platform.gotMessage(msg);
     }-*/;
 
+    public static native void postMessageToParent(JavaScriptObject message) /*-{
+      console.log('Message to container', message);
+      $wnd.platform.gotMessage(message);
+    }-*/;
+
     public void eventListner(String message) {
-      Message messageObj = GameApiJsonHelper.getMessageObject(message);
+      handleMessage(GameApiJsonHelper.getMessageObject(message));
+    }
+
+    public void eventListner(JavaScriptObject message) {
+      handleMessage(codec.decode(message));
+    }
+
+    private void handleMessage(Message messageObj) {
       if (messageObj instanceof UpdateUI) {
         game.sendUpdateUI((UpdateUI) messageObj);
+      } else if (messageObj instanceof UpdateUIDelta) {
+        UpdateUI updateUI = updateUIDeltaCache.apply((UpdateUIDelta) messageObj);
+        if (updateUI == null) {
+          postMessageToParent(codec.encode(new RequestResync()));
+        } else {
+          game.sendUpdateUI(updateUI);
+        }
       } else if (messageObj instanceof VerifyMove) {
         game.sendVerifyMove((VerifyMove) messageObj);
       }
@@ -91,9 +120,8 @@ public final class GameApi {
       }
       function passMessage(message) {
         console.log('Message from container', message);
-        var str = JSON.stringify(message);
         var c = containerConnector;
-        c.@org.game_api.GameApi.ContainerConnector::eventListner(Ljava/lang/String;)(str);
+        c.@org.game_api.GameApi.ContainerConnector::eventListner(Lcom/google/gwt/core/client/JavaScriptObject;)(message);
       }
       $wnd.passMessage = passMessage;
       console.log('Setting passMessage');
@@ -114,6 +142,15 @@ public final class GameApi {
     private GameState lastGameState = null;
     private List<Operation> lastMove = null;
     private String lastMovePlayerId;
+    private boolean verifyOncePerView = false;
+    private boolean sendDeltas = false;
+    /** Incremented by every move; the version of the current state. */
+    private int version = 0;
+    /** The state and version of the last update sent to each player in delta mode. */
+    private final Map<String, GameState> sentStates = Maps.newHashMap();
+    private final Map<String, Integer> sentVersions = Maps.newHashMap();
+    /** Each player's end of the delta protocol. */
+    private final Map<String, UpdateUIDeltaCache> deltaCaches = Maps.newHashMap();
 
     public IteratingPlayerContainer(Game game, int numberOfPlayers) {
       this.game = game;
@@ -134,22 +171,57 @@ public final class GameApi {
     public void sendGameReady() {
     }
 
+    /**
+     * When set, updates go through the {@link UpdateUIDelta} protocol: each
+     * player gets the keys that changed since their last update, which
+     * their {@link UpdateUIDeltaCache} turns back into the full UpdateUI.
+     * The game sees the same updates either way.
+     */
+    public void setSendDeltas(boolean sendDeltas) {
+      this.sendDeltas = sendDeltas;
+    }
+
     public void updateUi(String yourPlayerId) {
       updateUiPlayerId = yourPlayerId;
+      if (sendDeltas) {
+        UpdateUIDeltaCache deltaCache = deltaCaches.get(yourPlayerId);
+        if (deltaCache == null) {
+          deltaCache = new UpdateUIDeltaCache();
+          deltaCaches.put(yourPlayerId, deltaCache);
+        }
+        UpdateUI updateUI = deltaCache.apply(getUpdateUIDelta(yourPlayerId));
+        if (updateUI == null) {
+          // The player asks for a resync
+          sentStates.remove(yourPlayerId);
+          updateUI = deltaCache.apply(getUpdateUIDelta(yourPlayerId));
+        }
+        game.sendUpdateUI(updateUI);
+        return;
+      }
       game.sendUpdateUI(new UpdateUI(yourPlayerId, playersInfo,
           gameState.getStateForPlayerId(yourPlayerId),
           lastGameState == null ? null : lastGameState.getStateForPlayerId(yourPlayerId),
           lastMove, lastMovePlayerId, gameState.getPlayerIdToNumberOfTokensInPot()));
     }
 
+    /**
+     * When set, players who see the same state and last state get one shared
+     * VerifyMove instead of one each, since their VerifyMove messages would
+     * be identical. Off by default, so every player verifies every move.
+     */
+    public void setVerifyOncePerView(boolean verifyOncePerView) {
+      this.verifyOncePerView = verifyOncePerView;
+    }
+
     @Override
     public void sendMakeMove(List<Operation> operations) {
       lastMovePlayerId = updateUiPlayerId;
       lastMove = ImmutableList.copyOf(operations);
       lastGameState = gameState.copy();
       gameState.makeMove(operations);
+      version++;
       // Verify the move on all players
-      for (String playerId : playerIds) {
+      for (String playerId : verifyOncePerView ? getOnePlayerPerView() : playerIds) {
         game.sendVerifyMove(new VerifyMove(playersInfo,
             gameState.getStateForPlayerId(playerId),
             lastGameState.getStateForPlayerId(playerId), lastMove, lastMovePlayerId,
@@ -158,6 +230,68 @@ public final class GameApi {
       updateUi(updateUiPlayerId);
     }
 
+    /**
+     * Returns the changes since the last update sent to the player, or a full
+     * snapshot if there was none, and records this update as sent.
+     */
+    private UpdateUIDelta getUpdateUIDelta(String playerId) {
+      GameState sentState = sentStates.get(playerId);
+      Map<String, Object> changedState = Maps.newHashMap();
+      List<String> deletedKeys = Lists.newArrayList();
+      Map<String, Object> changedLastState = null;
+      List<String> deletedLastKeys = null;
+      addChanges(gameState, sentState, playerId, changedState, deletedKeys);
+      if (lastGameState != null) {
+        changedLastState = Maps.newHashMap();
+        deletedLastKeys = Lists.newArrayList();
+        addChanges(lastGameState, sentState, playerId, changedLastState, deletedLastKeys);
+      }
+      UpdateUIDelta delta = new UpdateUIDelta(playerId, playersInfo, version,
+          sentState == null ? UpdateUIDelta.NO_BASE_VERSION : sentVersions.get(playerId),
+          changedState, deletedKeys, changedLastState, deletedLastKeys,
+          lastMove, lastMovePlayerId, gameState.getPlayerIdToNumberOfTokensInPot());
+      sentStates.put(playerId, gameState.copy());
+      sentVersions.put(playerId, version);
+      return delta;
+    }
+
+    /**
+     * Adds the keys of the player's view of the state that differ from the
+     * base state, or all of them if there is no base.
+     */
+    private static void addChanges(GameState state, GameState base, String playerId,
+        Map<String, Object> changed, List<String> deleted) {
+      Map<String, Object> view = state.getStateForPlayerId(playerId);
+      if (base == null) {
+        changed.putAll(view);
+        return;
+      }
+      for (String key : state.getChangedKeysForPlayerId(playerId, base)) {
+        if (view.containsKey(key)) {
+          changed.put(key, view.get(key));
+        } else {
+          deleted.add(key);
+        }
+      }
+    }
+
+    /**
+     * Returns the first player of every group of players that can see the
+     * same restricted keys, now and before the last move.
+     */
+    private List<String> getOnePlayerPerView() {
+      Map<List<List<String>>, String> playerPerView = Maps.newLinkedHashMap();
+      for (String playerId : playerIds) {
+        List<List<String>> view = ImmutableList.of(
+            gameState.getRestrictedKeysVisibleTo(playerId),
+            lastGameState.getRestrictedKeysVisibleTo(playerId));
+        if (!playerPerView.containsKey(view)) {
+          playerPerView.put(view, playerId);
+        }
+      }
+      return ImmutableList.copyOf(playerPerView.values());
+    }
+
     @Override
     public void sendVerifyMoveDone(VerifyMoveDone verifyMoveDone) {
       if (verifyMoveDone.getHackerPlayerId() != null) {
@@ -166,15 +300,23 @@ public final class GameApi {
     }
   }
 
+  /**
+   * The state of a match. The keys are held in persistent maps, so a copy
+   * shares everything with the original and each operation only copies the
+   * path to the key it changes. A {@link VisibilityIndex} kept up to date by
+   * every operation answers which keys a player can see.
+   */
   public static class GameState {
-    private final Map<String, Object> state = Maps.newHashMap();
-    private final Map<String, Object> visibleTo = Maps.newHashMap();
+    private PersistentMap<String, Object> state = PersistentMap.empty();
+    private PersistentMap<String, Object> visibleTo = PersistentMap.empty();
+    private VisibilityIndex visibility = VisibilityIndex.empty();
     private Map<String, Integer> playerIdToNumberOfTokensInPot = Maps.newHashMap();
 
     public GameState copy() {
       GameState result = new GameState();
-      result.state.putAll(state);
-      result.visibleTo.putAll(visibleTo);
+      result.state = state;
+      result.visibleTo = visibleTo;
+      result.visibility = visibility;
       return result;
     }
 
@@ -182,21 +324,64 @@ public final class GameApi {
       return playerIdToNumberOfTokensInPot;
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Returns every key of the current state, with null values for the keys
+     * the player cannot see. The result is an unmodifiable view of the
+     * current state that later moves do not change.
+     */
     public Map<String, Object> getStateForPlayerId(String playerId) {
-      Map<String, Object> result = Maps.newHashMap();
-      for (String key : state.keySet()) {
-        Object visibleToPlayers = visibleTo.get(key);
-        Object value = null;
-        if (visibleToPlayers.equals(ALL)
-            || ((List<String>) visibleToPlayers).contains(playerId)) {
-          value = state.get(key);
+      return new PlayerView(state, visibility, playerId);
+    }
+
+    /**
+     * Returns the keys the player can see that are not visible to all.
+     * Players with the same restricted keys get equal states from
+     * {@link #getStateForPlayerId}.
+     */
+    public List<String> getRestrictedKeysVisibleTo(String playerId) {
+      return visibility.getRestrictedKeys(playerId);
+    }
+
+    /**
+     * Returns the keys whose value in {@link #getStateForPlayerId} differs
+     * between the given state and this one, including keys only one of them
+     * has. Either state may be the older one.
+     */
+    public List<String> getChangedKeysForPlayerId(String playerId, GameState since) {
+      List<String> result = Lists.newArrayList();
+      int numberOfKeys = visibility.getNumberOfKeys();
+      int numberOfSinceKeys = since.visibility.getNumberOfKeys();
+      // Copies of one state number its keys alike; states that diverged after
+      // it may give one number to different keys, so a key can come up twice.
+      boolean diverged = false;
+      for (int id = 0; id < Math.max(numberOfKeys, numberOfSinceKeys); id++) {
+        String key = id < numberOfKeys ? visibility.getKey(id) : null;
+        String sinceKey = id < numberOfSinceKeys ? since.visibility.getKey(id) : null;
+        if (key != null && sinceKey != null && !key.equals(sinceKey)) {
+          diverged = true;
+        }
+        if (key != null && isChangedForPlayerId(key, playerId, since)
+            && !(diverged && result.contains(key))) {
+          result.add(key);
+        }
+        if (sinceKey != null && !sinceKey.equals(key)
+            && isChangedForPlayerId(sinceKey, playerId, since)
+            && !(diverged && result.contains(sinceKey))) {
+          result.add(sinceKey);
         }
-        result.put(key, value);
       }
       return result;
     }
 
+    private boolean isChangedForPlayerId(String key, String playerId, GameState since) {
+      if (state.containsKey(key) != since.state.containsKey(key)) {
+        return true;
+      }
+      Object value = visibility.isVisible(key, playerId) ? state.get(key) : null;
+      Object oldValue = since.visibility.isVisible(key, playerId) ? since.state.get(key) : null;
+      return value != oldValue && (value == null || !value.equals(oldValue));
+    }
+
     public void makeMove(List<Operation> operations) {
       for (Operation operation : operations) {
         makeMove(operation);
@@ -207,36 +392,36 @@ public final class GameApi {
       if (operation instanceof Set) {
         Set set = (Set) operation;
         String key = set.getKey();
-        state.put(key, set.getValue());
-        visibleTo.put(key, set.getVisibleToPlayerIds());
+        state = state.plus(key, set.getValue());
+        setVisibleTo(key, set.getVisibleToPlayerIds());
       } else if (operation instanceof SetRandomInteger) {
         SetRandomInteger setRandomInteger = (SetRandomInteger) operation;
         String key = setRandomInteger.getKey();
         int from = setRandomInteger.getFrom();
         int to = setRandomInteger.getTo();
         int value = new Random().nextInt(to - from) + from;
-        state.put(key, value);
-        visibleTo.put(key, ALL);
+        state = state.plus(key, value);
+        setVisibleTo(key, ALL);
       } else if (operation instanceof SetVisibility) {
         SetVisibility setVisibility = (SetVisibility) operation;
         String key = setVisibility.getKey();
-        visibleTo.put(key, setVisibility.getVisibleToPlayerIds());
+        setVisibleTo(key, setVisibility.getVisibleToPlayerIds());
       } else if (operation instanceof Delete) {
         Delete delete = (Delete) operation;
         String key = delete.getKey();
-        state.remove(key);
-        visibleTo.remove(key);
+        state = state.minus(key);
+        setVisibleTo(key, null);
       } else if (operation instanceof Shuffle) {
         Shuffle shuffle = (Shuffle) operation;
         List<String> keys = shuffle.getKeys();
         List<String> shuffledKeys = shuffle(Lists.newArrayList(keys));
-        Map<String, Object> oldState = ImmutableMap.copyOf(state);
-        Map<String, Object> oldVisibleTo = ImmutableMap.copyOf(visibleTo);
+        PersistentMap<String, Object> oldState = state;
+        PersistentMap<String, Object> oldVisibleTo = visibleTo;
         for (int i = 0; i < keys.size(); i++) {
           String fromKey = keys.get(i);
           String toKey = shuffledKeys.get(i);
-          state.put(toKey, oldState.get(fromKey));
-          visibleTo.put(toKey, oldVisibleTo.get(fromKey));
+          state = state.plus(toKey, oldState.get(fromKey));
+          setVisibleTo(toKey, oldVisibleTo.get(fromKey));
         }
       } else if (operation instanceof AttemptChangeTokens) {
         playerIdToNumberOfTokensInPot =
@@ -244,6 +429,15 @@ public final class GameApi {
       }
     }
 
+    /**
+     * Sets who can see the key, or removes its visibility for null.
+     */
+    private void setVisibleTo(String key, Object visibleToPlayers) {
+      visibility = visibility.change(key, visibleTo.get(key), visibleToPlayers);
+      visibleTo = visibleToPlayers == null
+          ? visibleTo.minus(key) : visibleTo.plus(key, visibleToPlayers);
+    }
+
     private List<String> shuffle(List<String> list) {
       List<String> listCopy = Lists.newArrayList(list);
       Random rnd = new Random();
@@ -254,6 +448,71 @@ public final class GameApi {
       }
       return res;
     }
+
+    /**
+     * One player's state, filtered on access.
+     */
+    private static class PlayerView extends AbstractMap<String, Object> {
+      private final PersistentMap<String, Object> state;
+      private final VisibilityIndex visibility;
+      private final String playerId;
+
+      PlayerView(PersistentMap<String, Object> state, VisibilityIndex visibility,
+          String playerId) {
+        this.state = state;
+        this.visibility = visibility;
+        this.playerId = playerId;
+      }
+
+      @Override
+      public Object get(Object key) {
+        Object value = state.get(key);
+        return value == null || visibility.isVisible(key, playerId) ? value : null;
+      }
+
+      @Override
+      public boolean containsKey(Object key) {
+        return state.containsKey(key);
+      }
+
+      @Override
+      public int size() {
+        return state.size();
+      }
+
+      @Override
+      public java.util.Set<Map.Entry<String, Object>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Object>>() {
+          @Override
+          public Iterator<Map.Entry<String, Object>> iterator() {
+            final Iterator<Map.Entry<String, Object>> entries = state.entrySet().iterator();
+            return new Iterator<Map.Entry<String, Object>>() {
+              @Override
+              public boolean hasNext() {
+                return entries.hasNext();
+              }
+
+              @Override
+              public Map.Entry<String, Object> next() {
+                Map.Entry<String, Object> entry = entries.next();
+                return visibility.isVisible(entry.getKey(), playerId)
+                    ? entry : Maps.<String, Object>immutableEntry(entry.getKey(), null);
+              }
+
+              @Override
+              public void remove() {
+                throw new UnsupportedOperationException();
+              }
+            };
+          }
+
+          @Override
+          public int size() {
+            return state.size();
+          }
+        };
+      }
+    }
   }
 
   public static class VerifyMove extends Message {
@@ -417,7 +676,152 @@ public final class GameApi {
     }
   }
 
-  public abstract static class Operation extends Message { }
+  /**
+   * An {@link UpdateUI} sent as changes to the state of an earlier update the
+   * player received, identified by its version. Changed keys map to their
+   * new value as the player sees it (null if hidden); deleted keys are listed
+   * separately. A delta whose baseVersion is {@link #NO_BASE_VERSION} is a
+   * full snapshot. See {@link UpdateUIDeltaCache} for applying deltas.
+   */
+  public static class UpdateUIDelta extends Message {
+    /** The baseVersion of a full snapshot. */
+    public static final int NO_BASE_VERSION = -1;
+
+    protected final String yourPlayerId;
+    protected final List<Map<String, Object>> playersInfo;
+    protected final int version;
+    protected final int baseVersion;
+    protected final Map<String, Object> changedState;
+    protected final List<String> deletedKeys;
+    /** The changes from the base state to the last state, or null if there is no last state. */
+    protected final Map<String, Object> changedLastState;
+    protected final List<String> deletedLastKeys;
+    protected final List<Operation> lastMove;
+    protected final String lastMovePlayerId;
+    protected final Map<String, Integer> playerIdToNumberOfTokensInPot;
+
+    public UpdateUIDelta(String yourPlayerId, List<Map<String, Object>> playersInfo,
+        int version, int baseVersion,
+        Map<String, Object> changedState, List<String> deletedKeys,
+        Map<String, Object> changedLastState, List<String> deletedLastKeys,
+        List<Operation> lastMove,
+        String lastMovePlayerId,
+        Map<String, Integer> playerIdToNumberOfTokensInPot) {
+      this.yourPlayerId = yourPlayerId;
+      this.playersInfo = checkHasJsonSupportedType(playersInfo);
+      this.version = version;
+      this.baseVersion = baseVersion;
+      this.changedState = checkHasJsonSupportedType(changedState);
+      this.deletedKeys = checkHasJsonSupportedType(deletedKeys);
+      this.changedLastState = checkHasJsonSupportedType(changedLastState);
+      this.deletedLastKeys = checkHasJsonSupportedType(deletedLastKeys);
+      this.lastMove = lastMove;
+      this.lastMovePlayerId = checkHasJsonSupportedType(lastMovePlayerId);
+      this.playerIdToNumberOfTokensInPot = playerIdToNumberOfTokensInPot;
+    }
+
+    @Override
+    public String getMessageName() {
+      return "UpdateUIDelta";
+    }
+
+    @Override
+    public List<Object> getFieldsNameAndValue() {
+      return Arrays.<Object>asList(
+          "yourPlayerId", yourPlayerId, "playersInfo", playersInfo,
+          "version", version, "baseVersion", baseVersion,
+          "changedState", changedState, "deletedKeys", deletedKeys,
+          "changedLastState", changedLastState, "deletedLastKeys", deletedLastKeys,
+          "lastMove", lastMove, "lastMovePlayerId", lastMovePlayerId,
+          "playerIdToNumberOfTokensInPot", playerIdToNumberOfTokensInPot);
+    }
+
+    public String getYourPlayerId() {
+      return yourPlayerId;
+    }
+
+    public List<Map<String, Object>> getPlayersInfo() {
+      return playersInfo;
+    }
+
+    public int getVersion() {
+      return version;
+    }
+
+    public int getBaseVersion() {
+      return baseVersion;
+    }
+
+    public Map<String, Object> getChangedState() {
+      return changedState;
+    }
+
+    public List<String> getDeletedKeys() {
+      return deletedKeys;
+    }
+
+    public Map<String, Object> getChangedLastState() {
+      return changedLastState;
+    }
+
+    public List<String> getDeletedLastKeys() {
+      return deletedLastKeys;
+    }
+
+    public List<Operation> getLastMove() {
+      return lastMove;
+    }
+
+    public String getLastMovePlayerId() {
+      return lastMovePlayerId;
+    }
+
+    public Map<String, Integer> getPlayerIdToNumberOfTokensInPot() {
+      return playerIdToNumberOfTokensInPot;
+    }
+  }
+
+  /**
+   * Sent by a game that got an {@link UpdateUIDelta} for a version it does
+   * not have; the container answers with a full snapshot.
+   */
+  public static class RequestResync extends Message {
+    @Override
+    public String getMessageName() {
+      return "RequestResync";
+    }
+  }
+
+  /**
+   * Operations copy the lists and maps they are given into immutable ones,
+   * so they never change after construction and their hash is computed once.
+   */
+  public abstract static class Operation extends Message {
+    /** The structural hash, 0 until computed. */
+    private int hash;
+
+    @Override
+    public final int hashCode() {
+      int h = hash;
+      if (h == 0) {
+        h = computeHashCode();
+        hash = h;
+      }
+      return h;
+    }
+
+    @Override
+    public final boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (obj == null || obj.getClass() != getClass()) {
+        return false;
+      }
+      Operation other = (Operation) obj;
+      return hashCode() == other.hashCode() && hasEqualFields(other);
+    }
+  }
 
   public static class EndGame extends Operation {
     private final Map<String, Integer> playerIdToScore;
@@ -442,6 +846,16 @@ public final class GameApi {
       return Arrays.<Object>asList("playerIdToScore", playerIdToScore);
     }
 
+    @Override
+    int computeHashCode() {
+      return playerIdToScore.hashCode();
+    }
+
+    @Override
+    boolean hasEqualFields(Message other) {
+      return playerIdToScore.equals(((EndGame) other).playerIdToScore);
+    }
+
     public Map<String, Integer> getPlayerIdToScore() {
       return playerIdToScore;
     }
@@ -462,8 +876,8 @@ public final class GameApi {
 
     private Set(String key, Object value, Object visibleToPlayerIds) {
       this.key = key;
-      this.value = checkHasJsonSupportedType(value);
-      this.visibleToPlayerIds = checkHasJsonSupportedType(visibleToPlayerIds);
+      this.value = toImmutable(checkHasJsonSupportedType(value));
+      this.visibleToPlayerIds = toImmutable(checkHasJsonSupportedType(visibleToPlayerIds));
     }
 
     @Override
@@ -477,6 +891,19 @@ public final class GameApi {
           "key", key, "value", value, "visibleToPlayerIds", visibleToPlayerIds);
     }
 
+    @Override
+    int computeHashCode() {
+      return (Objects.hashCode(key) * 31 + Objects.hashCode(value)) * 31
+          + Objects.hashCode(visibleToPlayerIds);
+    }
+
+    @Override
+    boolean hasEqualFields(Message other) {
+      Set set = (Set) other;
+      return Objects.equals(key, set.key) && Objects.equals(value, set.value)
+          && Objects.equals(visibleToPlayerIds, set.visibleToPlayerIds);
+    }
+
     public String getKey() {
       return key;
     }
@@ -515,6 +942,18 @@ public final class GameApi {
       return Arrays.<Object>asList("key", key, "from", from, "to", to);
     }
 
+    @Override
+    int computeHashCode() {
+      return (Objects.hashCode(key) * 31 + from) * 31 + to;
+    }
+
+    @Override
+    boolean hasEqualFields(Message other) {
+      SetRandomInteger setRandomInteger = (SetRandomInteger) other;
+      return Objects.equals(key, setRandomInteger.key)
+          && from == setRandomInteger.from && to == setRandomInteger.to;
+    }
+
     public String getKey() {
       return key;
     }
@@ -542,7 +981,7 @@ public final class GameApi {
 
     private SetVisibility(String key, Object visibleToPlayerIds) {
       this.key = key;
-      this.visibleToPlayerIds = checkHasJsonSupportedType(visibleToPlayerIds);
+      this.visibleToPlayerIds = toImmutable(checkHasJsonSupportedType(visibleToPlayerIds));
     }
 
     @Override
@@ -555,6 +994,18 @@ public final class GameApi {
       return Arrays.<Object>asList("key", key, "visibleToPlayerIds", visibleToPlayerIds);
     }
 
+    @Override
+    int computeHashCode() {
+      return Objects.hashCode(key) * 31 + Objects.hashCode(visibleToPlayerIds);
+    }
+
+    @Override
+    boolean hasEqualFields(Message other) {
+      SetVisibility setVisibility = (SetVisibility) other;
+      return Objects.equals(key, setVisibility.key)
+          && Objects.equals(visibleToPlayerIds, setVisibility.visibleToPlayerIds);
+    }
+
     public String getKey() {
       return key;
     }
@@ -592,6 +1043,18 @@ public final class GameApi {
           "numberOfSecondsForTurn", numberOfSecondsForTurn);
     }
 
+    @Override
+    int computeHashCode() {
+      return Objects.hashCode(playerId) * 31 + numberOfSecondsForTurn;
+    }
+
+    @Override
+    boolean hasEqualFields(Message other) {
+      SetTurn setTurn = (SetTurn) other;
+      return Objects.equals(playerId, setTurn.playerId)
+          && numberOfSecondsForTurn == setTurn.numberOfSecondsForTurn;
+    }
+
     public String getPlayerId() {
       return playerId;
     }
@@ -618,6 +1081,16 @@ public final class GameApi {
       return Arrays.<Object>asList("key", key);
     }
 
+    @Override
+    int computeHashCode() {
+      return Objects.hashCode(key);
+    }
+
+    @Override
+    boolean hasEqualFields(Message other) {
+      return Objects.equals(key, ((Delete) other).key);
+    }
+
     public String getKey() {
       return key;
     }
@@ -677,6 +1150,19 @@ public final class GameApi {
           "playerIdToNumberOfTokensInPot", playerIdToNumberOfTokensInPot);
     }
 
+    @Override
+    int computeHashCode() {
+      return playerIdToTokenChange.hashCode() * 31 + playerIdToNumberOfTokensInPot.hashCode();
+    }
+
+    @Override
+    boolean hasEqualFields(Message other) {
+      AttemptChangeTokens attemptChangeTokens = (AttemptChangeTokens) other;
+      return playerIdToTokenChange.equals(attemptChangeTokens.playerIdToTokenChange)
+          && playerIdToNumberOfTokensInPot.equals(
+              attemptChangeTokens.playerIdToNumberOfTokensInPot);
+    }
+
     public Map<String, Integer> getPlayerIdToTokenChange() {
       return playerIdToTokenChange;
     }
@@ -690,7 +1176,7 @@ public final class GameApi {
     private final List<String> keys;
 
     public Shuffle(List<String> keys) {
-      this.keys = checkHasJsonSupportedType(keys);
+      this.keys = toImmutable(checkHasJsonSupportedType(keys));
     }
 
     @Override
@@ -703,6 +1189,16 @@ public final class GameApi {
       return Arrays.<Object>asList("keys", keys);
     }
 
+    @Override
+    int computeHashCode() {
+      return Objects.hashCode(keys);
+    }
+
+    @Override
+    boolean hasEqualFields(Message other) {
+      return Objects.equals(keys, ((Shuffle) other).keys);
+    }
+
     public List<String> getKeys() {
       return keys;
     }
@@ -829,19 +1325,36 @@ public final class GameApi {
       return Arrays.asList();
     }
 
+    /**
+     * Computed on every call: messages other than operations keep the lists
+     * and maps they are given, which the caller may still change.
+     */
     @Override
     public int hashCode() {
+      return computeHashCode();
+    }
+
+    int computeHashCode() {
       return getFieldsNameAndValue().hashCode() ^ getMessageName().hashCode();
     }
 
     @Override
     public boolean equals(Object obj) {
-      if (!(obj instanceof Message)) {
+      if (obj == this) {
+        return true;
+      }
+      if (obj == null || obj.getClass() != getClass()) {
         return false;
       }
-      Message other = (Message) obj;
-      return Objects.equals(other.getFieldsNameAndValue(), getFieldsNameAndValue())
-          && Objects.equals(other.getMessageName(), getMessageName());
+      return hasEqualFields((Message) obj);
+    }
+
+    /**
+     * Returns true if the fields of this message equal those of other, a
+     * message of the same class.
+     */
+    boolean hasEqualFields(Message other) {
+      return getFieldsNameAndValue().equals(other.getFieldsNameAndValue());
     }
 
     @Override
@@ -910,6 +1423,20 @@ public final class GameApi {
               (String) message.get("lastMovePlayerId"),
               toIntegerMap(message.get("playerIdToNumberOfTokensInPot")));
 
+        case "UpdateUIDelta":
+          return new UpdateUIDelta(
+              (String) message.get("yourPlayerId"),
+              (List<Map<String, Object>>) message.get("playersInfo"),
+              (Integer) message.get("version"),
+              (Integer) message.get("baseVersion"),
+              (Map<String, Object>) message.get("changedState"),
+              (List<String>) message.get("deletedKeys"),
+              (Map<String, Object>) message.get("changedLastState"),
+              (List<String>) message.get("deletedLastKeys"),
+              messageToOperationList(message.get("lastMove")),
+              (String) message.get("lastMovePlayerId"),
+              toIntegerMap(message.get("playerIdToNumberOfTokensInPot")));
+
         case "EndGame":
           return new EndGame(toIntegerMap(message.get("playerIdToScore")));
 
@@ -957,6 +1484,9 @@ public final class GameApi {
         case "RequestManipulator":
           return new RequestManipulator();
 
+        case "RequestResync":
+          return new RequestResync();
+
         case "ManipulateState":
           return new ManipulateState((Map<String, Object>) message.get("state"));
 
@@ -1020,16 +1550,69 @@ public final class GameApi {
         "The object doesn't have a JSON-supported data type! object=" + object);
   }
 
+  /**
+   * Returns the JSON value with every list and map in it replaced by an
+   * unmodifiable copy. Values that are already immutable all the way down are
+   * returned as they are.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> T toImmutable(T object) {
+    if (isImmutable(object)) {
+      return object;
+    }
+    if (object instanceof List) {
+      List<Object> copy = Lists.newArrayListWithCapacity(((List<?>) object).size());
+      boolean hasNull = false;
+      for (Object element : (List<?>) object) {
+        hasNull |= element == null;
+        copy.add(toImmutable(element));
+      }
+      // Guava's immutable collections do not allow null
+      return (T) (hasNull ? Collections.unmodifiableList(copy) : ImmutableList.copyOf(copy));
+    }
+    Map<String, Object> copy = new LinkedHashMap<>();
+    boolean hasNull = false;
+    for (Map.Entry<String, ?> entry : ((Map<String, ?>) object).entrySet()) {
+      hasNull |= entry.getValue() == null;
+      copy.put(entry.getKey(), toImmutable(entry.getValue()));
+    }
+    return (T) (hasNull ? Collections.unmodifiableMap(copy) : ImmutableMap.copyOf(copy));
+  }
+
+  private static boolean isImmutable(Object object) {
+    if (object instanceof ImmutableList) {
+      for (Object element : (ImmutableList<?>) object) {
+        if (!isImmutable(element)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (object instanceof ImmutableMap) {
+      for (Object value : ((ImmutableMap<?, ?>) object).values()) {
+        if (!isImmutable(value)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return !(object instanceof List || object instanceof Map);
+  }
+
   public static final class GameApiJsonHelper {
     private GameApiJsonHelper() { }
 
+    /**
+     * Safe to call from any thread. Callers that write many messages and want
+     * to reuse the buffer can keep their own {@link JsonWriter}, as
+     * {@link JsonMessageCodec} does.
+     */
     public static String getJsonString(Message messageObject) {
-      Map<String, Object> messageMap = messageObject.toMessage();
-      return getJsonStringFromMap(messageMap);
+      return new JsonWriter().write(messageObject);
     }
 
     public static String getJsonStringFromMap(Map<String, Object> map) {
-      return getJsonObject(map).toString();
+      return new JsonWriter().write(map);
     }
 
     @SuppressWarnings("unchecked")
@@ -0,0 +1,160 @@
+package org.game_api;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link JsonTree} of plain Java collections, shaped like the JavaScript
+ * objects a browser would hold: objects are maps, arrays are lists and every
+ * number is a Double. Lets {@link JsonTreeCodec} be tested and benchmarked
+ * on the JVM.
+ */
+public class JavaJsonTree implements JsonTree<Object> {
+
+  @Override
+  public Object newObject() {
+    return new LinkedHashMap<String, Object>();
+  }
+
+  @Override
+  public Object newArray() {
+    return new ArrayList<Object>();
+  }
+
+  @Override
+  public void putNull(Object object, String key) {
+    asMap(object).put(key, null);
+  }
+
+  @Override
+  public void putBoolean(Object object, String key, boolean value) {
+    asMap(object).put(key, value);
+  }
+
+  @Override
+  public void putNumber(Object object, String key, double value) {
+    asMap(object).put(key, value);
+  }
+
+  @Override
+  public void putString(Object object, String key, String value) {
+    asMap(object).put(key, value);
+  }
+
+  @Override
+  public void putNode(Object object, String key, Object value) {
+    asMap(object).put(key, value);
+  }
+
+  @Override
+  public void pushNull(Object array) {
+    asList(array).add(null);
+  }
+
+  @Override
+  public void pushBoolean(Object array, boolean value) {
+    asList(array).add(value);
+  }
+
+  @Override
+  public void pushNumber(Object array, double value) {
+    asList(array).add(value);
+  }
+
+  @Override
+  public void pushString(Object array, String value) {
+    asList(array).add(value);
+  }
+
+  @Override
+  public void pushNode(Object array, Object value) {
+    asList(array).add(value);
+  }
+
+  @Override
+  public Object getKeys(Object object) {
+    return new ArrayList<Object>(asMap(object).keySet());
+  }
+
+  @Override
+  public Type getType(Object object, String key) {
+    return getType(asMap(object).get(key));
+  }
+
+  @Override
+  public boolean getBoolean(Object object, String key) {
+    return (Boolean) asMap(object).get(key);
+  }
+
+  @Override
+  public double getNumber(Object object, String key) {
+    return (Double) asMap(object).get(key);
+  }
+
+  @Override
+  public String getString(Object object, String key) {
+    return (String) asMap(object).get(key);
+  }
+
+  @Override
+  public Object getNode(Object object, String key) {
+    return asMap(object).get(key);
+  }
+
+  @Override
+  public int getLength(Object array) {
+    return asList(array).size();
+  }
+
+  @Override
+  public Type getType(Object array, int index) {
+    return getType(asList(array).get(index));
+  }
+
+  @Override
+  public boolean getBoolean(Object array, int index) {
+    return (Boolean) asList(array).get(index);
+  }
+
+  @Override
+  public double getNumber(Object array, int index) {
+    return (Double) asList(array).get(index);
+  }
+
+  @Override
+  public String getString(Object array, int index) {
+    return (String) asList(array).get(index);
+  }
+
+  @Override
+  public Object getNode(Object array, int index) {
+    return asList(array).get(index);
+  }
+
+  private static Type getType(Object value) {
+    if (value == null) {
+      return Type.NULL;
+    } else if (value instanceof Boolean) {
+      return Type.BOOLEAN;
+    } else if (value instanceof Double) {
+      return Type.NUMBER;
+    } else if (value instanceof String) {
+      return Type.STRING;
+    } else if (value instanceof List) {
+      return Type.ARRAY;
+    }
+    return Type.OBJECT;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> asMap(Object object) {
+    return (Map<String, Object>) object;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Object> asList(Object array) {
+    return (List<Object>) array;
+  }
+}
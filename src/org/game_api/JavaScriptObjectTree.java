@@ -0,0 +1,162 @@
+package org.game_api;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * A {@link JsonTree} of native JavaScript objects and arrays, such as the
+ * data of a postMessage event. Only usable in compiled GWT code.
+ */
+public class JavaScriptObjectTree implements JsonTree<JavaScriptObject> {
+
+  private static final Type[] TYPES = Type.values();
+
+  @Override
+  public native JavaScriptObject newObject() /*-{
+    return {};
+  }-*/;
+
+  @Override
+  public native JavaScriptObject newArray() /*-{
+    return [];
+  }-*/;
+
+  @Override
+  public native void putNull(JavaScriptObject object, String key) /*-{
+    object[key] = null;
+  }-*/;
+
+  @Override
+  public native void putBoolean(JavaScriptObject object, String key, boolean value) /*-{
+    object[key] = value;
+  }-*/;
+
+  @Override
+  public native void putNumber(JavaScriptObject object, String key, double value) /*-{
+    object[key] = value;
+  }-*/;
+
+  @Override
+  public native void putString(JavaScriptObject object, String key, String value) /*-{
+    object[key] = value;
+  }-*/;
+
+  @Override
+  public native void putNode(JavaScriptObject object, String key, JavaScriptObject value) /*-{
+    object[key] = value;
+  }-*/;
+
+  @Override
+  public native void pushNull(JavaScriptObject array) /*-{
+    array.push(null);
+  }-*/;
+
+  @Override
+  public native void pushBoolean(JavaScriptObject array, boolean value) /*-{
+    array.push(value);
+  }-*/;
+
+  @Override
+  public native void pushNumber(JavaScriptObject array, double value) /*-{
+    array.push(value);
+  }-*/;
+
+  @Override
+  public native void pushString(JavaScriptObject array, String value) /*-{
+    array.push(value);
+  }-*/;
+
+  @Override
+  public native void pushNode(JavaScriptObject array, JavaScriptObject value) /*-{
+    array.push(value);
+  }-*/;
+
+  @Override
+  public native JavaScriptObject getKeys(JavaScriptObject object) /*-{
+    return Object.keys(object);
+  }-*/;
+
+  @Override
+  public Type getType(JavaScriptObject object, String key) {
+    return TYPES[getTypeOrdinal(object, key)];
+  }
+
+  @Override
+  public native boolean getBoolean(JavaScriptObject object, String key) /*-{
+    return object[key];
+  }-*/;
+
+  @Override
+  public native double getNumber(JavaScriptObject object, String key) /*-{
+    return object[key];
+  }-*/;
+
+  @Override
+  public native String getString(JavaScriptObject object, String key) /*-{
+    return object[key];
+  }-*/;
+
+  @Override
+  public native JavaScriptObject getNode(JavaScriptObject object, String key) /*-{
+    return object[key];
+  }-*/;
+
+  @Override
+  public native int getLength(JavaScriptObject array) /*-{
+    return array.length;
+  }-*/;
+
+  @Override
+  public Type getType(JavaScriptObject array, int index) {
+    return TYPES[getTypeOrdinal(array, index)];
+  }
+
+  @Override
+  public native boolean getBoolean(JavaScriptObject array, int index) /*-{
+    return array[index];
+  }-*/;
+
+  @Override
+  public native double getNumber(JavaScriptObject array, int index) /*-{
+    return array[index];
+  }-*/;
+
+  @Override
+  public native String getString(JavaScriptObject array, int index) /*-{
+    return array[index];
+  }-*/;
+
+  @Override
+  public native JavaScriptObject getNode(JavaScriptObject array, int index) /*-{
+    return array[index];
+  }-*/;
+
+  /**
+   * Returns the ordinal of the value's {@link JsonTree.Type}; undefined
+   * counts as null.
+   */
+  private static native int getTypeOrdinal(JavaScriptObject object, String key) /*-{
+    var value = object[key];
+    if (value === null || value === undefined) {
+      return 0;
+    }
+    switch (typeof value) {
+      case 'boolean': return 1;
+      case 'number': return 2;
+      case 'string': return 3;
+    }
+    return Array.isArray(value) ? 4 : 5;
+  }-*/;
+
+  private static native int getTypeOrdinal(JavaScriptObject array, int index) /*-{
+    var value = array[index];
+    if (value === null || value === undefined) {
+      return 0;
+    }
+    switch (typeof value) {
+      case 'boolean': return 1;
+      case 'number': return 2;
+      case 'string': return 3;
+    }
+    return Array.isArray(value) ? 4 : 5;
+  }-*/;
+}
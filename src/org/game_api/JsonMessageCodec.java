@@ -0,0 +1,23 @@
+package org.game_api;
+
+import org.game_api.GameApi.GameApiJsonHelper;
+import org.game_api.GameApi.Message;
+
+/**
+ * The JSON text the container protocol uses. Decoding relies on GWT's
+ * JSONParser, so it only works in the browser.
+ */
+public class JsonMessageCodec implements MessageCodec<String> {
+
+  private final JsonWriter writer = new JsonWriter();
+
+  @Override
+  public String encode(Message message) {
+    return writer.write(message);
+  }
+
+  @Override
+  public Message decode(String encoded) {
+    return GameApiJsonHelper.getMessageObject(encoded);
+  }
+}
@@ -0,0 +1,65 @@
+package org.game_api;
+
+/**
+ * Builds and reads trees of JSON values whose objects and arrays are nodes
+ * of type N, so {@link JsonTreeCodec} can convert messages to and from
+ * native JavaScript objects in the browser ({@link JavaScriptObjectTree})
+ * and to and from plain Java collections on the JVM ({@link JavaJsonTree}).
+ * Leaf values are written and read through the node that holds them, since
+ * they are not nodes themselves.
+ */
+public interface JsonTree<N> {
+
+  enum Type {
+    NULL, BOOLEAN, NUMBER, STRING, ARRAY, OBJECT
+  }
+
+  N newObject();
+
+  N newArray();
+
+  void putNull(N object, String key);
+
+  void putBoolean(N object, String key, boolean value);
+
+  void putNumber(N object, String key, double value);
+
+  void putString(N object, String key, String value);
+
+  void putNode(N object, String key, N value);
+
+  void pushNull(N array);
+
+  void pushBoolean(N array, boolean value);
+
+  void pushNumber(N array, double value);
+
+  void pushString(N array, String value);
+
+  void pushNode(N array, N value);
+
+  /** Returns an array of the object's keys, to be read with {@link #getString(Object, int)}. */
+  N getKeys(N object);
+
+  Type getType(N object, String key);
+
+  boolean getBoolean(N object, String key);
+
+  double getNumber(N object, String key);
+
+  String getString(N object, String key);
+
+  N getNode(N object, String key);
+
+  int getLength(N array);
+
+  Type getType(N array, int index);
+
+  boolean getBoolean(N array, int index);
+
+  double getNumber(N array, int index);
+
+  String getString(N array, int index);
+
+  N getNode(N array, int index);
+}
@@ -0,0 +1,148 @@
+package org.game_api;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.game_api.GameApi.Message;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Converts messages to and from a {@link JsonTree} in a single walk each way.
+ * Encoding reads the message fields directly rather than going through
+ * {@link Message#toMessage()}; decoding builds the same maps and lists as
+ * {@link GameApi.GameApiJsonHelper#getMapObject} (numbers become Integers)
+ * and hands them to {@link Message#messageToHasEquality}.
+ */
+public class JsonTreeCodec<N> implements MessageCodec<N> {
+
+  private final JsonTree<N> tree;
+
+  public JsonTreeCodec(JsonTree<N> tree) {
+    this.tree = tree;
+  }
+
+  @Override
+  public N encode(Message message) {
+    N object = tree.newObject();
+    tree.putString(object, "type", message.getMessageName());
+    List<Object> fieldsNameAndValue = message.getFieldsNameAndValue();
+    for (int i = 0; i < fieldsNameAndValue.size(); i += 2) {
+      put(object, (String) fieldsNameAndValue.get(i), fieldsNameAndValue.get(i + 1));
+    }
+    return object;
+  }
+
+  @Override
+  public Message decode(N object) {
+    return Message.messageToHasEquality(toMap(object));
+  }
+
+  private void put(N object, String key, Object value) {
+    if (value == null) {
+      tree.putNull(object, key);
+    } else if (value instanceof Boolean) {
+      tree.putBoolean(object, key, (Boolean) value);
+    } else if (value instanceof Integer) {
+      tree.putNumber(object, key, (Integer) value);
+    } else if (value instanceof String) {
+      tree.putString(object, key, (String) value);
+    } else {
+      tree.putNode(object, key, toNode(value));
+    }
+  }
+
+  private void push(N array, Object value) {
+    if (value == null) {
+      tree.pushNull(array);
+    } else if (value instanceof Boolean) {
+      tree.pushBoolean(array, (Boolean) value);
+    } else if (value instanceof Integer) {
+      tree.pushNumber(array, (Integer) value);
+    } else if (value instanceof String) {
+      tree.pushString(array, (String) value);
+    } else {
+      tree.pushNode(array, toNode(value));
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private N toNode(Object value) {
+    if (value instanceof Message) {
+      // Operations inside lastMove and operations
+      return encode((Message) value);
+    } else if (value instanceof List) {
+      N array = tree.newArray();
+      for (Object element : (List<Object>) value) {
+        push(array, element);
+      }
+      return array;
+    } else if (value instanceof Map) {
+      N object = tree.newObject();
+      for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+        put(object, entry.getKey(), entry.getValue());
+      }
+      return object;
+    }
+    throw new IllegalStateException("Invalid object encountered");
+  }
+
+  private Map<String, Object> toMap(N object) {
+    N keys = tree.getKeys(object);
+    int size = tree.getLength(keys);
+    Map<String, Object> map = new HashMap<String, Object>();
+    for (int i = 0; i < size; i++) {
+      String key = tree.getString(keys, i);
+      Object value;
+      switch (tree.getType(object, key)) {
+        case NULL:
+          value = null;
+          break;
+        case BOOLEAN:
+          value = tree.getBoolean(object, key);
+          break;
+        case NUMBER:
+          value = (int) tree.getNumber(object, key);
+          break;
+        case STRING:
+          value = tree.getString(object, key);
+          break;
+        case ARRAY:
+          value = toList(tree.getNode(object, key));
+          break;
+        default:
+          value = toMap(tree.getNode(object, key));
+      }
+      map.put(key, value);
+    }
+    return map;
+  }
+
+  private List<Object> toList(N array) {
+    int size = tree.getLength(array);
+    List<Object> list = Lists.newArrayListWithCapacity(size);
+    for (int i = 0; i < size; i++) {
+      switch (tree.getType(array, i)) {
+        case NULL:
+          list.add(null);
+          break;
+        case BOOLEAN:
+          list.add(tree.getBoolean(array, i));
+          break;
+        case NUMBER:
+          list.add((int) tree.getNumber(array, i));
+          break;
+        case STRING:
+          list.add(tree.getString(array, i));
+          break;
+        case ARRAY:
+          list.add(toList(tree.getNode(array, i)));
+          break;
+        default:
+          list.add(toMap(tree.getNode(array, i)));
+      }
+    }
+    return list;
+  }
+}
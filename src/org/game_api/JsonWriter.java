@@ -0,0 +1,199 @@
+package org.game_api;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.game_api.GameApi.Message;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Writes messages as JSON text into one reusable StringBuilder, walking the
+ * message fields directly instead of building {@link Message#toMessage()}
+ * and a JSONObject tree.
+ * The output is the same as GWT's JSONObject.toString() in the browser:
+ * object members are separated by ", " and array elements by ",", keys
+ * that are array indices come first in numeric order (the order a
+ * JavaScript object enumerates them in), and strings are escaped like
+ * JsonUtils.escapeValue.
+ * A writer is not thread-safe.
+ */
+public final class JsonWriter {
+
+  private static final String[] CONTROL_CHARACTER_ESCAPES = {
+    "\\u0000", "\\u0001", "\\u0002", "\\u0003", "\\u0004", "\\u0005",
+    "\\u0006", "\\u0007", "\\b", "\\t", "\\n", "\\u000B",
+    "\\f", "\\r", "\\u000E", "\\u000F", "\\u0010", "\\u0011",
+    "\\u0012", "\\u0013", "\\u0014", "\\u0015", "\\u0016", "\\u0017",
+    "\\u0018", "\\u0019", "\\u001A", "\\u001B", "\\u001C", "\\u001D",
+    "\\u001E", "\\u001F"};
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private static final Comparator<String> ARRAY_INDEX_ORDER = new Comparator<String>() {
+    @Override
+    public int compare(String first, String second) {
+      return Long.valueOf(first).compareTo(Long.valueOf(second));
+    }
+  };
+
+  private final StringBuilder sb = new StringBuilder();
+
+  public String write(Message message) {
+    sb.setLength(0);
+    appendMessage(message);
+    return sb.toString();
+  }
+
+  public String write(Map<String, Object> map) {
+    sb.setLength(0);
+    appendMap(map);
+    return sb.toString();
+  }
+
+  private void appendMessage(Message message) {
+    // Field names are never array indices, so they keep their order.
+    sb.append("{\"type\":");
+    appendString(message.getMessageName());
+    List<Object> fieldsNameAndValue = message.getFieldsNameAndValue();
+    for (int i = 0; i < fieldsNameAndValue.size(); i += 2) {
+      sb.append(", ");
+      appendString((String) fieldsNameAndValue.get(i));
+      sb.append(':');
+      appendValue(fieldsNameAndValue.get(i + 1));
+    }
+    sb.append('}');
+  }
+
+  private void appendMap(Map<String, ?> map) {
+    List<String> arrayIndices = null;
+    for (String key : map.keySet()) {
+      if (isArrayIndex(key)) {
+        if (arrayIndices == null) {
+          arrayIndices = Lists.newArrayList();
+        }
+        arrayIndices.add(key);
+      }
+    }
+    sb.append('{');
+    boolean first = true;
+    if (arrayIndices != null) {
+      Collections.sort(arrayIndices, ARRAY_INDEX_ORDER);
+      for (String key : arrayIndices) {
+        first = appendMember(first, key, map.get(key));
+      }
+    }
+    for (Map.Entry<String, ?> entry : map.entrySet()) {
+      if (arrayIndices == null || !isArrayIndex(entry.getKey())) {
+        first = appendMember(first, entry.getKey(), entry.getValue());
+      }
+    }
+    sb.append('}');
+  }
+
+  private boolean appendMember(boolean first, String key, Object value) {
+    if (!first) {
+      sb.append(", ");
+    }
+    appendString(key);
+    sb.append(':');
+    appendValue(value);
+    return false;
+  }
+
+  private void appendList(List<?> list) {
+    sb.append('[');
+    for (int i = 0; i < list.size(); i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      appendValue(list.get(i));
+    }
+    sb.append(']');
+  }
+
+  @SuppressWarnings("unchecked")
+  private void appendValue(Object value) {
+    if (value == null) {
+      sb.append("null");
+    } else if (value instanceof Boolean) {
+      sb.append(((Boolean) value).booleanValue());
+    } else if (value instanceof Integer) {
+      sb.append(((Integer) value).intValue());
+    } else if (value instanceof String) {
+      appendString((String) value);
+    } else if (value instanceof Message) {
+      // Operations inside lastMove and operations
+      appendMessage((Message) value);
+    } else if (value instanceof List) {
+      appendList((List<?>) value);
+    } else if (value instanceof Map) {
+      appendMap((Map<String, ?>) value);
+    } else {
+      throw new IllegalStateException("Invalid object encountered");
+    }
+  }
+
+  private void appendString(String value) {
+    sb.append('"');
+    int start = 0;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (needsEscape(c)) {
+        sb.append(value, start, i);
+        if (c < CONTROL_CHARACTER_ESCAPES.length) {
+          sb.append(CONTROL_CHARACTER_ESCAPES[c]);
+        } else if (c == '"' || c == '\\') {
+          sb.append('\\').append(c);
+        } else {
+          sb.append("\\u")
+              .append(HEX_DIGITS[c >> 12])
+              .append(HEX_DIGITS[(c >> 8) & 0xf])
+              .append(HEX_DIGITS[(c >> 4) & 0xf])
+              .append(HEX_DIGITS[c & 0xf]);
+        }
+        start = i + 1;
+      }
+    }
+    sb.append(value, start, value.length());
+    sb.append('"');
+  }
+
+  /**
+   * Returns true for the characters JsonUtils.escapeValue escapes: control
+   * characters, quotes, backslashes and invisible formatting characters.
+   */
+  private static boolean needsEscape(char c) {
+    if (c < 0x20 || c == '"' || c == '\\') {
+      return true;
+    } else if (c < 0xad) {
+      return false;
+    }
+    return c == 0xad
+        || (c >= 0x600 && c <= 0x603) || c == 0x6dd || c == 0x70f
+        || c == 0x17b4 || c == 0x17b5
+        || (c >= 0x200b && c <= 0x200f) || (c >= 0x2028 && c <= 0x202e)
+        || (c >= 0x2060 && c <= 0x2064) || (c >= 0x206a && c <= 0x206f)
+        || c == 0xfeff || (c >= 0xfff9 && c <= 0xfffb);
+  }
+
+  /**
+   * Returns true if a JavaScript object would treat the key as an array
+   * index, that is a canonical integer below 2^32 - 1.
+   */
+  private static boolean isArrayIndex(String key) {
+    int length = key.length();
+    if (length == 0 || length > 10 || (length > 1 && key.charAt(0) == '0')) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      char c = key.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return length < 10 || Long.parseLong(key) < 0xffffffffL;
+  }
+}
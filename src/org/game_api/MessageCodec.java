@@ -0,0 +1,15 @@
+package org.game_api;
+
+import org.game_api.GameApi.Message;
+
+/**
+ * Converts messages to and from a wire representation W, such as JSON text
+ * ({@link JsonMessageCodec}), native JavaScript objects ({@link JsonTreeCodec})
+ * or bytes ({@link BinaryMessageCodec}).
+ */
+public interface MessageCodec<W> {
+
+  W encode(Message message);
+
+  Message decode(W encoded);
+}
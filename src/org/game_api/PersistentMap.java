@@ -0,0 +1,420 @@
+package org.game_api;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable hash array mapped trie. {@link #plus} and {@link #minus}
+ * return a new map that shares every node off the path to the changed key
+ * with this one, so keeping old versions around is cheap.<P>
+ * Null keys cannot be added, and are never found. The {@code Map}
+ * mutators throw {@link UnsupportedOperationException}.
+ */
+public final class PersistentMap<K, V> extends AbstractMap<K, V> {
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  private static final PersistentMap<Object, Object> EMPTY =
+      new PersistentMap<Object, Object>(null, 0);
+
+  private final Node<K, V> root;
+  private final int size;
+
+  private PersistentMap(Node<K, V> root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <K, V> PersistentMap<K, V> empty() {
+    return (PersistentMap<K, V>) EMPTY;
+  }
+
+  /**
+   * Returns this map with the key mapped to the value.
+   */
+  public PersistentMap<K, V> plus(K key, V value) {
+    int hash = hash(key);
+    Leaf<K, V> leaf = new Leaf<K, V>(hash, key, value);
+    if (root == null) {
+      return new PersistentMap<K, V>(leaf, 1);
+    }
+    Leaf<K, V> existing = root.find(hash, 0, key);
+    if (existing != null && existing.value == value) {
+      return this;
+    }
+    return new PersistentMap<K, V>(root.plus(0, leaf), existing == null ? size + 1 : size);
+  }
+
+  /**
+   * Returns this map without the key.
+   */
+  public PersistentMap<K, V> minus(Object key) {
+    if (find(key) == null) {
+      return this;
+    }
+    return new PersistentMap<K, V>(root.minus(hash(key), 0, key), size - 1);
+  }
+
+  @Override
+  public V get(Object key) {
+    Leaf<K, V> leaf = find(key);
+    return leaf == null ? null : leaf.value;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return find(key) != null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return new AbstractSet<Map.Entry<K, V>>() {
+      @Override
+      public Iterator<Map.Entry<K, V>> iterator() {
+        return new LeafIterator<K, V>(root);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  private Leaf<K, V> find(Object key) {
+    return root == null || key == null ? null : root.find(hash(key), 0, key);
+  }
+
+  private static int hash(Object key) {
+    int hash = key.hashCode();
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * A trie node: a leaf, a list of leaves sharing one hash, or a bitmap
+   * indexed array of children.
+   */
+  private abstract static class Node<K, V> {
+    /** Returns the leaf for the key in this subtree, or null. */
+    abstract Leaf<K, V> find(int hash, int shift, Object key);
+
+    /** Returns this subtree with the leaf added or replacing the leaf of its key. */
+    abstract Node<K, V> plus(int shift, Leaf<K, V> leaf);
+
+    /** Returns this subtree without the key, which must be present; null if empty. */
+    abstract Node<K, V> minus(int hash, int shift, Object key);
+
+    abstract Node<K, V>[] children();
+  }
+
+  private static final class Leaf<K, V> extends Node<K, V> implements Map.Entry<K, V> {
+    final int hash;
+    final K key;
+    final V value;
+
+    Leaf(int hash, K key, V value) {
+      this.hash = hash;
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    Leaf<K, V> find(int hash, int shift, Object key) {
+      return hash == this.hash && this.key.equals(key) ? this : null;
+    }
+
+    @Override
+    Node<K, V> plus(int shift, Leaf<K, V> leaf) {
+      if (leaf.hash != hash) {
+        return BitmapNode.of(shift, this, hash, leaf);
+      }
+      if (key.equals(leaf.key)) {
+        return leaf;
+      }
+      Leaf<K, V>[] leaves = CollisionNode.newArray(2);
+      leaves[0] = this;
+      leaves[1] = leaf;
+      return new CollisionNode<K, V>(hash, leaves);
+    }
+
+    @Override
+    Node<K, V> minus(int hash, int shift, Object key) {
+      return null;
+    }
+
+    @Override
+    Node<K, V>[] children() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<?, ?> entry = (Map.Entry<?, ?>) other;
+      return key.equals(entry.getKey()) && Objects.equals(value, entry.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + value;
+    }
+  }
+
+  private static final class CollisionNode<K, V> extends Node<K, V> {
+    final int hash;
+    final Leaf<K, V>[] leaves;
+
+    CollisionNode(int hash, Leaf<K, V>[] leaves) {
+      this.hash = hash;
+      this.leaves = leaves;
+    }
+
+    @Override
+    Leaf<K, V> find(int hash, int shift, Object key) {
+      if (hash == this.hash) {
+        for (Leaf<K, V> leaf : leaves) {
+          if (leaf.key.equals(key)) {
+            return leaf;
+          }
+        }
+      }
+      return null;
+    }
+
+    @Override
+    Node<K, V> plus(int shift, Leaf<K, V> leaf) {
+      if (leaf.hash != hash) {
+        return BitmapNode.of(shift, this, hash, leaf);
+      }
+      for (int i = 0; i < leaves.length; i++) {
+        if (leaves[i].key.equals(leaf.key)) {
+          Leaf<K, V>[] newLeaves = leaves.clone();
+          newLeaves[i] = leaf;
+          return new CollisionNode<K, V>(hash, newLeaves);
+        }
+      }
+      Leaf<K, V>[] newLeaves = newArray(leaves.length + 1);
+      System.arraycopy(leaves, 0, newLeaves, 0, leaves.length);
+      newLeaves[leaves.length] = leaf;
+      return new CollisionNode<K, V>(hash, newLeaves);
+    }
+
+    @Override
+    Node<K, V> minus(int hash, int shift, Object key) {
+      if (leaves.length == 2) {
+        return leaves[0].key.equals(key) ? leaves[1] : leaves[0];
+      }
+      Leaf<K, V>[] newLeaves = newArray(leaves.length - 1);
+      int position = 0;
+      for (Leaf<K, V> leaf : leaves) {
+        if (!leaf.key.equals(key)) {
+          newLeaves[position++] = leaf;
+        }
+      }
+      return new CollisionNode<K, V>(hash, newLeaves);
+    }
+
+    @Override
+    Node<K, V>[] children() {
+      return leaves;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <K, V> Leaf<K, V>[] newArray(int length) {
+      return new Leaf[length];
+    }
+  }
+
+  private static final class BitmapNode<K, V> extends Node<K, V> {
+    final int bitmap;
+    final Node<K, V>[] children;
+
+    BitmapNode(int bitmap, Node<K, V>[] children) {
+      this.bitmap = bitmap;
+      this.children = children;
+    }
+
+    /**
+     * Returns a node holding a leaf or collision node and a leaf of a
+     * different hash.
+     */
+    static <K, V> Node<K, V> of(int shift, Node<K, V> node, int hash, Leaf<K, V> leaf) {
+      int index = (hash >>> shift) & MASK;
+      int leafIndex = (leaf.hash >>> shift) & MASK;
+      if (index == leafIndex) {
+        return new BitmapNode<K, V>(1 << index,
+            newArray(of(shift + BITS, node, hash, leaf)));
+      }
+      return new BitmapNode<K, V>((1 << index) | (1 << leafIndex),
+          index < leafIndex ? newArray(node, leaf) : newArray(leaf, node));
+    }
+
+    private int position(int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    @Override
+    Leaf<K, V> find(int hash, int shift, Object key) {
+      int bit = 1 << ((hash >>> shift) & MASK);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+      return children[position(bit)].find(hash, shift + BITS, key);
+    }
+
+    @Override
+    Node<K, V> plus(int shift, Leaf<K, V> leaf) {
+      int bit = 1 << ((leaf.hash >>> shift) & MASK);
+      int position = position(bit);
+      if ((bitmap & bit) == 0) {
+        Node<K, V>[] newChildren = newArray(children.length + 1);
+        System.arraycopy(children, 0, newChildren, 0, position);
+        newChildren[position] = leaf;
+        System.arraycopy(children, position, newChildren, position + 1,
+            children.length - position);
+        return new BitmapNode<K, V>(bitmap | bit, newChildren);
+      }
+      Node<K, V>[] newChildren = children.clone();
+      newChildren[position] = children[position].plus(shift + BITS, leaf);
+      return new BitmapNode<K, V>(bitmap, newChildren);
+    }
+
+    @Override
+    Node<K, V> minus(int hash, int shift, Object key) {
+      int bit = 1 << ((hash >>> shift) & MASK);
+      int position = position(bit);
+      Node<K, V> child = children[position].minus(hash, shift + BITS, key);
+      if (child != null) {
+        if (children.length == 1 && !(child instanceof BitmapNode)) {
+          // Leaves and collision nodes can be found at any depth
+          return child;
+        }
+        Node<K, V>[] newChildren = children.clone();
+        newChildren[position] = child;
+        return new BitmapNode<K, V>(bitmap, newChildren);
+      }
+      if (children.length == 1) {
+        return null;
+      }
+      if (children.length == 2 && !(children[1 - position] instanceof BitmapNode)) {
+        return children[1 - position];
+      }
+      Node<K, V>[] newChildren = newArray(children.length - 1);
+      System.arraycopy(children, 0, newChildren, 0, position);
+      System.arraycopy(children, position + 1, newChildren, position,
+          children.length - position - 1);
+      return new BitmapNode<K, V>(bitmap & ~bit, newChildren);
+    }
+
+    @Override
+    Node<K, V>[] children() {
+      return children;
+    }
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static <K, V> Node<K, V>[] newArray(int length) {
+    return new Node[length];
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static <K, V> Node<K, V>[] newArray(Node<K, V> node) {
+    return new Node[] {node};
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static <K, V> Node<K, V>[] newArray(Node<K, V> first, Node<K, V> second) {
+    return new Node[] {first, second};
+  }
+
+  /**
+   * Walks the trie depth first with an explicit stack.
+   */
+  private static final class LeafIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+    /** Enough for 32 bits of hash at 5 bits per level, plus a collision node. */
+    private static final int MAX_DEPTH = 9;
+
+    private final Object[][] stack = new Object[MAX_DEPTH][];
+    private final int[] positions = new int[MAX_DEPTH];
+    private int depth = 0;
+    private Leaf<K, V> next;
+
+    LeafIterator(Node<K, V> root) {
+      stack[0] = root == null ? new Object[0] : new Object[] {root};
+      advance();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void advance() {
+      while (depth >= 0) {
+        Object[] level = stack[depth];
+        if (positions[depth] == level.length) {
+          depth--;
+          continue;
+        }
+        Node<K, V> node = (Node<K, V>) level[positions[depth]++];
+        if (node instanceof Leaf) {
+          next = (Leaf<K, V>) node;
+          return;
+        }
+        depth++;
+        stack[depth] = node.children();
+        positions[depth] = 0;
+      }
+      next = null;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Leaf<K, V> result = next;
+      advance();
+      return result;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package org.game_api;
+
+import java.util.List;
+import java.util.Map;
+
+import org.game_api.GameApi.UpdateUI;
+import org.game_api.GameApi.UpdateUIDelta;
+
+/**
+ * The game side of the {@link UpdateUIDelta} protocol: keeps the state of
+ * the last update and turns each delta into the full {@link UpdateUI} it
+ * stands for.<P>
+ * The states handed out are unmodifiable and keep sharing unchanged keys
+ * with the cached state, so applying a delta costs about as much as the
+ * delta itself.
+ */
+public class UpdateUIDeltaCache {
+
+  private PersistentMap<String, Object> state;
+  private int version = UpdateUIDelta.NO_BASE_VERSION;
+
+  /**
+   * Returns the update the delta stands for, or null if the delta is based on
+   * a version this cache does not have, in which case the cache is unchanged
+   * and the game should request a resync.
+   */
+  public UpdateUI apply(UpdateUIDelta delta) {
+    PersistentMap<String, Object> base;
+    if (delta.getBaseVersion() == UpdateUIDelta.NO_BASE_VERSION) {
+      base = PersistentMap.empty();
+    }
+    else if (state != null && delta.getBaseVersion() == version) {
+      base = state;
+    }
+    else {
+      return null;
+    }
+    PersistentMap<String, Object> lastState = delta.getChangedLastState() == null ? null
+        : applyChanges(base, delta.getChangedLastState(), delta.getDeletedLastKeys());
+    state = applyChanges(base, delta.getChangedState(), delta.getDeletedKeys());
+    version = delta.getVersion();
+    return new UpdateUI(delta.getYourPlayerId(), delta.getPlayersInfo(), state, lastState,
+        delta.getLastMove(), delta.getLastMovePlayerId(),
+        delta.getPlayerIdToNumberOfTokensInPot());
+  }
+
+  /**
+   * Returns the version of the last update, or
+   * {@link UpdateUIDelta#NO_BASE_VERSION} before the first one.
+   */
+  public int getVersion() {
+    return version;
+  }
+
+  private static PersistentMap<String, Object> applyChanges(PersistentMap<String, Object> base,
+      Map<String, Object> changed, List<String> deleted) {
+    PersistentMap<String, Object> result = base;
+    for (String key : deleted) {
+      result = result.minus(key);
+    }
+    for (Map.Entry<String, Object> entry : changed.entrySet()) {
+      result = result.plus(entry.getKey(), entry.getValue());
+    }
+    return result;
+  }
+}
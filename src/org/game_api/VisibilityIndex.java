@@ -0,0 +1,145 @@
+package org.game_api;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Which keys of a {@link GameApi.GameState} every player can see, as bit
+ * sets over key numbers: one set for the keys visible to all and one per
+ * player for the keys visible to a list of players that includes them.<P>
+ * An index is immutable; {@link #change} returns a new one sharing all
+ * unchanged sets. Keys are numbered in the order an index first sees them,
+ * and an index carries its numbering with it, so every index derived from
+ * another numbers the other's keys the same way. A key keeps its number
+ * after it is deleted.
+ */
+final class VisibilityIndex {
+
+  private static final int[] NO_KEYS = new int[0];
+
+  private static final VisibilityIndex EMPTY = new VisibilityIndex(
+      PersistentMap.<String, Integer>empty(), PersistentMap.<Integer, String>empty(),
+      NO_KEYS, PersistentMap.<String, int[]>empty());
+
+  private final PersistentMap<String, Integer> ids;
+  private final PersistentMap<Integer, String> keys;
+  private final int[] visibleToAll;
+  private final PersistentMap<String, int[]> visibleToPlayer;
+
+  private VisibilityIndex(PersistentMap<String, Integer> ids, PersistentMap<Integer, String> keys,
+      int[] visibleToAll, PersistentMap<String, int[]> visibleToPlayer) {
+    this.ids = ids;
+    this.keys = keys;
+    this.visibleToAll = visibleToAll;
+    this.visibleToPlayer = visibleToPlayer;
+  }
+
+  static VisibilityIndex empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Returns the index after the key's visibility changed.
+   *
+   * @param oldVisibleTo {@link GameApi#ALL}, a list of player ids, or null if
+   *     the key had no visibility
+   * @param newVisibleTo the same for the new visibility
+   */
+  VisibilityIndex change(String key, Object oldVisibleTo, Object newVisibleTo) {
+    Integer knownId = ids.get(key);
+    int id = knownId == null ? ids.size() : knownId;
+    PersistentMap<String, Integer> newIds = knownId == null ? ids.plus(key, id) : ids;
+    PersistentMap<Integer, String> newKeys = knownId == null ? keys.plus(id, key) : keys;
+    if (oldVisibleTo == null ? newVisibleTo == null : oldVisibleTo.equals(newVisibleTo)) {
+      return newIds == ids
+          ? this : new VisibilityIndex(newIds, newKeys, visibleToAll, visibleToPlayer);
+    }
+    int[] all = visibleToAll;
+    PersistentMap<String, int[]> players = visibleToPlayer;
+    for (int pass = 0; pass < 2; pass++) {
+      Object visibleTo = pass == 0 ? oldVisibleTo : newVisibleTo;
+      boolean visible = pass == 1;
+      if (visibleTo == null) {
+        continue;
+      }
+      if (GameApi.ALL.equals(visibleTo)) {
+        all = withBit(all, id, visible);
+        continue;
+      }
+      for (Object playerId : (List<?>) visibleTo) {
+        int[] bits = players.get(playerId);
+        int[] newBits = withBit(bits == null ? NO_KEYS : bits, id, visible);
+        if (newBits != bits) {
+          players = players.plus((String) playerId, newBits);
+        }
+      }
+    }
+    return all == visibleToAll && players == visibleToPlayer && newIds == ids
+        ? this : new VisibilityIndex(newIds, newKeys, all, players);
+  }
+
+  boolean isVisible(Object key, String playerId) {
+    Integer id = ids.get(key);
+    return id != null && (hasBit(visibleToAll, id) || hasBit(getBits(playerId), id));
+  }
+
+  /**
+   * Returns the keys visible to the player but not to all, in key number
+   * order, so two players with the same such keys get equal lists.
+   */
+  List<String> getRestrictedKeys(String playerId) {
+    List<String> result = Lists.newArrayList();
+    int[] bits = getBits(playerId);
+    for (int word = 0; word < bits.length; word++) {
+      int restricted = bits[word] & ~(word < visibleToAll.length ? visibleToAll[word] : 0);
+      while (restricted != 0) {
+        int bit = Integer.numberOfTrailingZeros(restricted);
+        result.add(keys.get(word * 32 + bit));
+        restricted &= restricted - 1;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of keys the index has seen; key numbers are below it.
+   */
+  int getNumberOfKeys() {
+    return ids.size();
+  }
+
+  String getKey(int id) {
+    return keys.get(id);
+  }
+
+  private int[] getBits(String playerId) {
+    int[] bits = visibleToPlayer.get(playerId);
+    return bits == null ? NO_KEYS : bits;
+  }
+
+  private static boolean hasBit(int[] bits, int id) {
+    int word = id >>> 5;
+    return word < bits.length && (bits[word] & (1 << id)) != 0;
+  }
+
+  /**
+   * Returns the bits with the given one set or cleared, or the same array if
+   * it already was.
+   */
+  private static int[] withBit(int[] bits, int id, boolean value) {
+    if (hasBit(bits, id) == value) {
+      return bits;
+    }
+    int word = id >>> 5;
+    int[] result = new int[Math.max(bits.length, word + 1)];
+    System.arraycopy(bits, 0, result, 0, bits.length);
+    if (value) {
+      result[word] |= 1 << id;
+    }
+    else {
+      result[word] &= ~(1 << id);
+    }
+    return result;
+  }
+}
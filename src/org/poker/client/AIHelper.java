@@ -1,179 +1,209 @@
 package org.poker.client;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
-import org.poker.client.Card.Rank;
-import org.poker.client.Card.Suit;
-import org.poker.client.util.BestHandFinder;
-import org.poker.client.util.PokerHand;
+import org.poker.client.util.DeckSampler;
 
 import com.google.common.base.Optional;
-//import com.google.common.collect.Lists;
+import com.google.common.collect.ImmutableList;
 
 
 public class AIHelper {
   
   static final int trials = 200;
-  private final BestHandFinder bestHandFinder = new BestHandFinder();
+  
+  /**
+   * Default upper bound on the number of runouts that are enumerated exactly.
+   * Covers every river and turn spot heads-up (at most 46 * 990 runouts).
+   */
+  public static final long DEFAULT_EXACT_THRESHOLD = 50000;
+  
+  /** Trials sampled between two checks of the confidence interval. */
+  public static final int BATCH_TRIALS = 100;
+  
+  public static final int DEFAULT_MAX_TRIALS = 5000;
+  
+  public static final long DEFAULT_MAX_MILLIS = 100;
+  
+  /** Half-width of the confidence interval in standard errors (95%). */
+  static final double CONFIDENCE_Z = 1.96;
+  
+  private final long exactThreshold;
+  
+  private final EquityCache cache;
  
-  private static RandomCardProvider cardProvider = new AIHelper.RandomCardProvider();
-  
-  public static void main(String args[]) {
-    Card n = null;
-    List<Optional<Card>> board = new ArrayList<Optional<Card>>();
-    List<Optional<Card>> holeCards = new ArrayList<Optional<Card>>();
-    List<Optional<Card>> opponentHoleCards = new ArrayList<Optional<Card>>();
-    
-    holeCards.add(Optional.of(new Card( Suit.fromFirstLetterLowerCase("s"), Rank.fromFirstLetter("14"))));
-    holeCards.add(Optional.of(new Card( Suit.fromFirstLetterLowerCase("c"), Rank.fromFirstLetter("13"))));
-    
-    opponentHoleCards.add(Optional.of(new Card( Suit.fromFirstLetterLowerCase("d"), Rank.fromFirstLetter("2"))));
-    opponentHoleCards.add(Optional.of(new Card( Suit.fromFirstLetterLowerCase("h"), Rank.fromFirstLetter("3"))));
-    
-    //board.add(Optional.of(new Card( Suit.fromFirstLetterLowerCase("s"), Rank.fromFirstLetter("13"))));
-    //board.add(Optional.of(new Card( Suit.fromFirstLetterLowerCase("h"), Rank.fromFirstLetter("2"))));
-    //board.add(Optional.of(new Card( Suit.fromFirstLetterLowerCase("h"), Rank.fromFirstLetter("3"))));
-    //board.add(Optional.of(new Card( Suit.fromFirstLetterLowerCase("s"), Rank.fromFirstLetter("13"))));
-    board.add(Optional.fromNullable(n));
-    board.add(Optional.fromNullable(n));
-    board.add(Optional.fromNullable(n));
-    board.add(Optional.fromNullable(n));
-    board.add(Optional.fromNullable(n));
-    
-    AIHelper ai = new AIHelper();
-    System.out.println(ai.getWinningChance(board,holeCards, opponentHoleCards));
-    
+  private final DeckSampler deckSampler;
+  
+  public AIHelper() {
+    this(DEFAULT_EXACT_THRESHOLD);
   }
-   
   
-  public double getWinningChance(List<Optional<Card>> board, List<Optional<Card>> holeCards, List<Optional<Card>> opponentHoleCards  ) {
-    // Remove present cards from the random card select pool
-    
-    return simulate(board, holeCards, opponentHoleCards);
+  /**
+   * @param exactThreshold spots with at most this many possible runouts are
+   * enumerated exactly; larger ones are sampled. 0 always samples.
+   */
+  public AIHelper(long exactThreshold) {
+    this(exactThreshold, new EquityCache());
   }
   
-  public double simulate(List<Optional<Card>> board, List<Optional<Card>> holeCards, List<Optional<Card>> opponentHoleCards) {
-    int winOrTies = 0;
-    //BestHandFinder aIfinder, opponentFinder;
-    PokerHand aiHand, opponentHand;
-    List<Optional<Card>> boardCopy;
-    List<Optional<Card>> holeCardsCopy;
-    List<Optional<Card>> opponentHoleCardsCopy;
-    
-    for(int i = 0 ; i < trials; i++) {
-      cardProvider.removeCards(board);
-      cardProvider.removeCards(holeCards);
-      cardProvider.removeCards(opponentHoleCards);
-      
-      boardCopy = copy(board);
-      holeCardsCopy = copy(holeCards);
-      opponentHoleCardsCopy = copy(opponentHoleCards);
-      assignCards(boardCopy, holeCardsCopy, opponentHoleCardsCopy);
-      
-      bestHandFinder.reset(fromOptionalToList(boardCopy), fromOptionalToList(holeCardsCopy));
-      aiHand = bestHandFinder.find();
-      bestHandFinder.reset(fromOptionalToList(boardCopy), fromOptionalToList(opponentHoleCardsCopy));
-      opponentHand = bestHandFinder.find();
-      if (aiHand.compareRanking(opponentHand) >= 0 ) {
-        winOrTies ++;
-      }
-      
-      // refresh the card pool for second trial
-      cardProvider.refreshCardPool();
-      
-    }
-    return (winOrTies * 1.0 / trials);
-    
+  /**
+   * @param cache remembers flop and turn winning chances across calls
+   */
+  public AIHelper(long exactThreshold, EquityCache cache) {
+    this(exactThreshold, cache, new Random());
   }
   
-  private List<Card> fromOptionalToList(List<Optional<Card>> source) {
-    ArrayList<Card> cards = new ArrayList<Card>();
-    for ( Optional<Card> card : source){
-      cards.add(card.get());
-    }
-    return cards;
+  /**
+   * @param random deals the sampled runouts, seed it for repeatable estimates
+   */
+  public AIHelper(long exactThreshold, EquityCache cache, Random random) {
+    this.exactThreshold = exactThreshold;
+    this.cache = cache;
+    this.deckSampler = new DeckSampler(random);
   }
   
-  public List<Optional<Card>> copy(List<Optional<Card>> source) {
-    List<Optional<Card>> c = new ArrayList<Optional<Card>>();
-    for (Optional<Card> card : source ) {
-      c.add(card);
-    }
-    return c;
+  public EquityCache getCache() {
+    return cache;
   }
   
-  private void assignCards(List<Optional<Card>> board, List<Optional<Card>> holeCards, List<Optional<Card>> opponentHoleCards) {
-    assignCardsHelper(board);
-    assignCardsHelper(holeCards);
-    assignCardsHelper(opponentHoleCards);
-    
+  public double getWinningChance(List<Optional<Card>> board, List<Optional<Card>> holeCards, List<Optional<Card>> opponentHoleCards  ) {
+    List<List<Optional<Card>>> hands = ImmutableList.of(holeCards, opponentHoleCards);
+    long key = EquityCache.key(board, hands);
+    EquityEstimate cached = cache.get(key, null, trials);
+    if (cached != null) {
+      return cached.getEstimate();
+    }
+    EquityCalculator calculator = new EquityCalculator(board, hands);
+    boolean exact = calculator.countRunouts() <= exactThreshold;
+    if (exact) {
+      calculator.enumerate();
+    }
+    else {
+      sample(calculator, trials);
+    }
+    double winningChance = calculator.getEquities().get(0).getWinOrTieShare();
+    cache.put(key, new EquityEstimate(winningChance,
+        exact ? 0 : standardError(winningChance, calculator.getRunouts()), calculator.getRunouts(), exact));
+    return winningChance;
   }
   
-  private void assignCardsHelper(List<Optional<Card>> cards) {
-    Optional<Card> card;
-    for (int i = 0; i < cards.size(); i++) {
-      card = cards.get(i);
-      if (!card.isPresent()) {
-        cards.remove(i);
-        cards.add(i, cardProvider.getRandomCard());
-      }
+  /**
+   * Returns the win/tie/loss shares of every seat, in the order of the given hands.
+   * Spots with at most exactThreshold runouts are enumerated exactly, others sampled.
+   * 
+   * @param board the board cards, absent for cards not dealt yet
+   * @param hands hole cards of each player still in the hand, absent for unknown cards
+   */
+  public List<Equity> getEquities(List<Optional<Card>> board, List<List<Optional<Card>>> hands) {
+    EquityCalculator calculator = new EquityCalculator(board, hands);
+    if (calculator.countRunouts() <= exactThreshold) {
+      calculator.enumerate();
     }
+    else {
+      sample(calculator, trials);
+    }
+    return calculator.getEquities();
+  }
+  
+  public EquityEstimate estimateWinningChance(List<Optional<Card>> board, List<List<Optional<Card>>> hands,
+      double[] thresholds) {
+    return estimateWinningChance(board, hands, thresholds, DEFAULT_MAX_TRIALS, DEFAULT_MAX_MILLIS);
   }
   
-  private static class RandomCardProvider {
-    private List<Optional<Card>> cardPool = new ArrayList<Optional<Card>>();
-    private List<Optional<Card>> removedCards = new ArrayList<Optional<Card>>();
-    private ArrayList<String> suits= new ArrayList<String>();
-    
-    Random r;
-    
-    public RandomCardProvider() {
-      r = new Random();
-      generateCards();
+  /**
+   * Estimates the chance that the first hand wins or ties, sampling only as
+   * much as needed to tell on which side of each threshold it lies.<P>
+   * Spots with at most exactThreshold runouts are enumerated exactly. Other
+   * spots are sampled in batches until the confidence interval around the
+   * estimate contains none of the thresholds, or until maxTrials trials or
+   * maxMillis milliseconds have been used. At least one batch is sampled.
+   * Flop and turn results are cached, see {@link EquityCache#key(List, List)},
+   * and a cached sample is only reused if it settles the given thresholds.
+   * 
+   * @param thresholds the win chances the caller's decision depends on
+   */
+  public EquityEstimate estimateWinningChance(List<Optional<Card>> board, List<List<Optional<Card>>> hands,
+      double[] thresholds, int maxTrials, long maxMillis) {
+    if (maxTrials <= 0) {
+      throw new IllegalArgumentException("Expected a positive trial budget: " + maxTrials);
     }
-    
-    public void removeCards(List<Optional<Card>> cards) {
-      for(int i = 0; i < cards.size(); i++) {
-        if(cards.get(i).isPresent()){
-          cardPool.remove(cards.get(i));
-          removedCards.add(cards.get(i));
-        }
-      }
-      return;
+    long key = EquityCache.key(board, hands);
+    EquityEstimate cached = cache.get(key, thresholds, maxTrials);
+    if (cached != null) {
+      return cached;
     }
-    
-    public void generateCards() {
-      Optional<Card> card;
-      suits.add("s");
-      suits.add("c");
-      suits.add("d");
-      suits.add("h");
-      for(String s : suits){
-      for(int i = 2 ; i < 15; i++) {
-        card = Optional.of(new Card(Suit.fromFirstLetterLowerCase(s), Rank.fromFirstLetter(Integer.toString(i))));
-        cardPool.add(card);
-      }
-    } 
-   }
-    
-  private Optional<Card> getRandomCard() {
-      Optional<Card> card;
-      int i = -1;
-      i = r.nextInt(cardPool.size());
-      card = cardPool.get(i);
-      cardPool.remove(i);
-      removedCards.add(card);
-      return card;
+    EquityEstimate estimate = estimate(board, hands, thresholds, maxTrials, maxMillis);
+    cache.put(key, estimate);
+    return estimate;
+  }
+  
+  private EquityEstimate estimate(List<Optional<Card>> board, List<List<Optional<Card>>> hands,
+      double[] thresholds, int maxTrials, long maxMillis) {
+    EquityCalculator calculator = new EquityCalculator(board, hands);
+    if (calculator.countRunouts() <= exactThreshold) {
+      calculator.enumerate();
+      return new EquityEstimate(calculator.getEquities().get(0).getWinOrTieShare(), 0,
+          calculator.getRunouts(), true);
     }
+    long deadline = System.currentTimeMillis() + maxMillis;
+    double estimate;
+    double standardError;
+    do {
+      sample(calculator, (int) Math.min(BATCH_TRIALS, maxTrials - calculator.getRunouts()));
+      estimate = calculator.getEquities().get(0).getWinOrTieShare();
+      standardError = standardError(estimate, calculator.getRunouts());
+    } while (calculator.getRunouts() < maxTrials
+        && EquityEstimate.isUndecided(estimate, standardError, thresholds)
+        && System.currentTimeMillis() < deadline);
+    return new EquityEstimate(estimate, standardError, calculator.getRunouts(), false);
+  }
   
-  public void refreshCardPool() {
-    cardPool.addAll(removedCards);
-    removedCards.clear();
+  /**
+   * Returns the standard error of a sampled estimate, with the variance taken
+   * at (wins + 1) / (trials + 2) so it stays above 0 when every sampled
+   * runout was won or every one was lost.
+   */
+  static double standardError(double estimate, long trials) {
+    double smoothed = (estimate * trials + 1) / (trials + 2);
+    return Math.sqrt(smoothed * (1 - smoothed) / trials);
   }
-
+  
+  /**
+   * Returns the number of distinct ways to deal the unknown board, hole
+   * and opponent hole cards, saturating at Long.MAX_VALUE.
+   */
+  public long countRunouts(List<Optional<Card>> board, List<Optional<Card>> holeCards, List<Optional<Card>> opponentHoleCards) {
+    return new EquityCalculator(board, ImmutableList.of(holeCards, opponentHoleCards)).countRunouts();
+  }
+  
+  /**
+   * Computes the exact probability that the AI wins or ties by dealing every
+   * remaining combination of unknown cards once.
+   */
+  public double enumerate(List<Optional<Card>> board, List<Optional<Card>> holeCards, List<Optional<Card>> opponentHoleCards) {
+    List<List<Optional<Card>>> hands = ImmutableList.of(holeCards, opponentHoleCards);
+    EquityCalculator calculator = new EquityCalculator(board, hands);
+    calculator.enumerate();
+    return calculator.getEquities().get(0).getWinOrTieShare();
+  }
+  
+  public double simulate(List<Optional<Card>> board, List<Optional<Card>> holeCards, List<Optional<Card>> opponentHoleCards) {
+    List<List<Optional<Card>>> hands = ImmutableList.of(holeCards, opponentHoleCards);
+    EquityCalculator calculator = new EquityCalculator(board, hands);
+    sample(calculator, trials);
+    return calculator.getEquities().get(0).getWinOrTieShare();
+  }
+  
+  private void sample(EquityCalculator calculator, int trials) {
+    deckSampler.setDeadCards(calculator.getKnownCardMask());
+    for(int i = 0 ; i < trials; i++) {
+      for (int slot = 0; slot < calculator.getUnknownCount(); slot++) {
+        calculator.deal(slot, deckSampler.draw());
+      }
+      calculator.score();
+      deckSampler.reset();
+    }
   }
   
-   
-}
\ No newline at end of file
+}
@@ -11,15 +11,23 @@ import com.google.common.collect.Lists;
 
 public class AILogic extends AbstractPokerLogicBase {
   
+  static final double FAIR_CHANCE = 0.5;
+  static final double GOOD_CHANCE = 0.75;
+  
+  /** Win chances at which decideMove changes its mind. */
+  private static final double[] DECISION_THRESHOLDS = {FAIR_CHANCE, GOOD_CHANCE};
+  
   private PokerLogic pokerLogic = new PokerLogic();
   
+  /** Kept across decisions so its equity cache is reused. */
+  private final AIHelper ai = new AIHelper();
+  
   public List<Operation> decideMove(PokerState state, PokerState lastState, List<String> playerIds) {
     
      // lastState cannot be null because AI will not have first move
     
     PokerMove previousMove = state.getPreviousMove();
     int aiIndex = state.getWhoseMove().ordinal();
-    int opponentIndex = aiIndex == 1 ? 0 : 1;
     
     List<Integer> playerChips = state.getPlayerChips();
     int aiChips = playerChips.get(aiIndex);
@@ -34,23 +42,30 @@ public class AILogic extends AbstractPokerLogicBase {
     int currentBet = playerBets.get(aiIndex);
     int amountToCall = requiredBet - currentBet;
     
-    List<Optional<Card>> aiHand = getCards(state.getHoleCards().get(aiIndex), state.getCards());
-    List<Optional<Card>> opponentHand = getCards(state.getHoleCards().get(opponentIndex), state.getCards());
+    // The AI is seat 0, followed by every opponent still in the hand
+    List<List<Optional<Card>>> hands = Lists.newArrayList();
+    hands.add(getCards(state.getHoleCards().get(aiIndex), state.getCards()));
+    for (Player player : state.getPlayersInHand()) {
+      if (player.ordinal() != aiIndex) {
+        hands.add(getCards(state.getHoleCards().get(player.ordinal()), state.getCards()));
+      }
+    }
     List<Optional<Card>> board = getCards(state.getBoard(), state.getCards());
-    AIHelper ai = new AIHelper();
-    double winChance = ai.getWinningChance(board, aiHand, opponentHand ); 
+    double winChance = isPreflopTableSpot(board, hands)
+        ? PreflopEquity.getWinningChance(hands.get(0).get(0).get(), hands.get(0).get(1).get(), hands.size() - 1)
+        : ai.estimateWinningChance(board, hands, DECISION_THRESHOLDS).getEstimate();
     //GameApi.ContainerConnector.alert("got win chance "+winChance);
     //GameApi.ContainerConnector.alert("amount to call" + amountToCall);
     if (amountToCall == 0) {
       // Check or Bet?
-      if (winChance >= 0.5) {
+      if (winChance >= FAIR_CHANCE) {
         if(currentBet == 0) {
           //GameApi.ContainerConnector.alert("making bet move" + BIG_BLIND*3);
           return makeBetMove(state, playerIds, aiChips, BIG_BLIND * 3);
         }
         else{
           //GameApi.ContainerConnector.alert("making raise move" + BIG_BLIND*3);
-          return makeRaiseMove(state, playerIds, aiChips, BIG_BLIND * 3 - currentBet);
+          return makeRaiseMove(state, playerIds, aiChips, requiredBet * 3 - currentBet);
         }
       }
       else {
@@ -62,7 +77,7 @@ public class AILogic extends AbstractPokerLogicBase {
       // Fold, Call or Raise?
       double riskToRewardRatio = amountToCall / potAmount;
       
-      if (winChance >= 0.75) {
+      if (winChance >= GOOD_CHANCE) {
         if (riskToRewardRatio <= 0.3) {
           // Raise
           //GameApi.ContainerConnector.alert("making raise move 1");
@@ -74,7 +89,7 @@ public class AILogic extends AbstractPokerLogicBase {
           return makeCallMove(state, playerIds, aiChips, amountToCall);
         }
       }
-      else if (winChance >= 0.5) {
+      else if (winChance >= FAIR_CHANCE) {
         if (riskToRewardRatio <= 0.15) {
           // Raise
           //GameApi.ContainerConnector.alert("making raise move 3");
@@ -106,6 +121,29 @@ public class AILogic extends AbstractPokerLogicBase {
 
   }
 
+  /**
+   * The preflop table applies when no board card is known, the AI's hole
+   * cards are, and no opponent's are.
+   */
+  private boolean isPreflopTableSpot(List<Optional<Card>> board, List<List<Optional<Card>>> hands) {
+    if (hands.size() - 1 > PreflopEquity.MAX_OPPONENTS) {
+      return false;
+    }
+    for (Optional<Card> card : board) {
+      if (card.isPresent()) {
+        return false;
+      }
+    }
+    for (int i = 0; i < hands.size(); i++) {
+      for (Optional<Card> card : hands.get(i)) {
+        if (card.isPresent() != (i == 0)) {
+          return false;
+        }
+      }
+    }
+    return hands.size() > 1 && hands.get(0).size() == 2;
+  }
+
   private List<Operation> makeCallMove(PokerState state, List<String> playerIds, int aiChips, int amountToCall) {
     if (aiChips >= amountToCall) {
       return pokerLogic.doCallMove(state, playerIds, amountToCall);
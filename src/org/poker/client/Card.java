@@ -1,6 +1,5 @@
 package org.poker.client;
 
-import java.util.Arrays;
 import java.util.Comparator;
 
 /**
@@ -96,12 +95,34 @@ public class Card extends Equality {
     }
   }
 
-  private Suit suitValue;
-  private Rank rankValue;
+  /**
+   * Number of cards in the deck. Every card has a canonical index in
+   * [0, 52): rank.ordinal() * 4 + suit.ordinal(), the same numbering used
+   * for the card values dealt by PokerLogic (index 0 is "2c", 51 is "As").
+   */
+  public static final int NUMBER_OF_CARDS = 52;
+
+  private static final Card[] CARDS = new Card[NUMBER_OF_CARDS];
+
+  static {
+    for (Rank rank : Rank.VALUES) {
+      for (Suit suit : Suit.VALUES) {
+        Card card = new Card(suit, rank);
+        CARDS[card.index] = card;
+      }
+    }
+  }
+
+  private final Suit suitValue;
+  private final Rank rankValue;
+  private final int index;
+  private final Integer id;
+  private final String shortName;
 
 
   /**
    * Creates a new playing card.
+   * Prefer {@link #valueOf(Suit, Rank)}, which returns the shared instance.
    *
    * @param suit the suit value of this card.
    * @param rank the rank value of this card.
@@ -109,6 +130,77 @@ public class Card extends Equality {
   public Card(Suit suit, Rank rank) {
     suitValue = suit;
     rankValue = rank;
+    index = toIndex(suit, rank);
+    // Small Integers are cached, so equals/hashCode never allocate
+    id = Integer.valueOf(index);
+    shortName = rank.getFirstLetter() + suit.getFirstLetterLowerCase();
+  }
+
+  /**
+   * Returns the shared card instance for the given suit and rank.
+   */
+  public static Card valueOf(Suit suit, Rank rank) {
+    return CARDS[toIndex(suit, rank)];
+  }
+
+  /**
+   * Returns the shared card instance for the given canonical index.
+   */
+  public static Card fromIndex(int index) {
+    if (index < 0 || index >= NUMBER_OF_CARDS) {
+      throw new IllegalArgumentException("Invalid card index " + index);
+    }
+    return CARDS[index];
+  }
+
+  /**
+   * Returns the shared card instance for a card value such as "2c" or "10h".
+   */
+  public static Card fromShortName(String shortName) {
+    return CARDS[indexOfShortName(shortName)];
+  }
+
+  /**
+   * Returns the canonical index of a card value such as "2c" or "10h".
+   */
+  public static int indexOfShortName(String shortName) {
+    int length = shortName.length();
+    if (length < 2 || length > 3) {
+      throw new IllegalArgumentException("Invalid card " + shortName);
+    }
+    int suit;
+    switch (shortName.charAt(length - 1)) {
+      case 'c': suit = 0; break;
+      case 'd': suit = 1; break;
+      case 'h': suit = 2; break;
+      case 's': suit = 3; break;
+      default: throw new IllegalArgumentException("Invalid card " + shortName);
+    }
+    int rank;
+    char rankLetter = shortName.charAt(0);
+    if (length == 3) {
+      if (rankLetter != '1' || shortName.charAt(1) != '0') {
+        throw new IllegalArgumentException("Invalid card " + shortName);
+      }
+      rank = Rank.TEN.ordinal();
+    }
+    else if (rankLetter >= '2' && rankLetter <= '9') {
+      rank = rankLetter - '2';
+    }
+    else {
+      switch (rankLetter) {
+        case 'J': rank = Rank.JACK.ordinal(); break;
+        case 'Q': rank = Rank.QUEEN.ordinal(); break;
+        case 'K': rank = Rank.KING.ordinal(); break;
+        case 'A': rank = Rank.ACE.ordinal(); break;
+        default: throw new IllegalArgumentException("Invalid card " + shortName);
+      }
+    }
+    return rank * 4 + suit;
+  }
+
+  public static int toIndex(Suit suit, Rank rank) {
+    return rank.ordinal() * 4 + suit.ordinal();
   }
 
   /**
@@ -130,6 +222,20 @@ public class Card extends Equality {
     return rankValue;
   }
 
+  /**
+   * Returns the canonical index of this card in [0, 52).
+   */
+  public int getIndex() {
+    return index;
+  }
+
+  /**
+   * Returns the card value used in the game state, e.g. "2c" or "10h".
+   */
+  public String getShortName() {
+    return shortName;
+  }
+
   /**
    * Returns a description of this card.
    *
@@ -142,6 +248,6 @@ public class Card extends Equality {
 
   @Override
   public Object getId() {
-    return Arrays.asList(getSuit(), getRank());
+    return id;
   }
 }
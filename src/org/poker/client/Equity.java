@@ -0,0 +1,65 @@
+package org.poker.client;
+
+/**
+ * Showdown results of one player over a number of runouts.
+ */
+public class Equity {
+
+  private final long runouts;
+  private final long wins;
+  private final long ties;
+  private final double potShares;
+
+  /**
+   * @param runouts number of runouts played
+   * @param wins runouts where this player alone had the best hand
+   * @param ties runouts where this player shared the best hand
+   * @param potShares sum over all runouts of the fraction of the pot won
+   */
+  public Equity(long runouts, long wins, long ties, double potShares) {
+    this.runouts = runouts;
+    this.wins = wins;
+    this.ties = ties;
+    this.potShares = potShares;
+  }
+
+  public long getRunouts() {
+    return runouts;
+  }
+
+  public double getWinShare() {
+    return share(wins);
+  }
+
+  public double getTieShare() {
+    return share(ties);
+  }
+
+  public double getLossShare() {
+    return share(runouts - wins - ties);
+  }
+
+  /**
+   * Fraction of runouts where this player had the best hand, alone or shared.
+   */
+  public double getWinOrTieShare() {
+    return share(wins + ties);
+  }
+
+  /**
+   * Expected fraction of the pot won, splitting ties evenly.
+   */
+  public double getPotShare() {
+    return runouts == 0 ? 0 : potShares / runouts;
+  }
+
+  private double share(long count) {
+    return runouts == 0 ? 0 : count * 1.0 / runouts;
+  }
+
+  @Override
+  public String toString() {
+    return "Equity[win=" + getWinShare() + ", tie=" + getTieShare()
+        + ", loss=" + getLossShare() + ", runouts=" + runouts + "]";
+  }
+}
@@ -0,0 +1,180 @@
+package org.poker.client;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Optional;
+
+/**
+ * Bounded least-recently-used cache of flop and turn equities.<P>
+ * Equity does not change when suits are relabelled (AsKh on 2c7d9s is the same
+ * spot as AdKc on 2h7s9d), so entries are keyed by the smallest packed form
+ * of the spot over all 24 suit permutations; see {@link #key(List, List)}.
+ */
+public class EquityCache {
+
+  public static final int DEFAULT_CAPACITY = 10000;
+
+  /** Key of spots that are not cached. */
+  public static final long NO_KEY = -1;
+
+  private static final int UNKNOWN = 63;
+  private static final int[][] SUIT_PERMUTATIONS = permutations();
+
+  private final Map<Long, EquityEstimate> entries;
+  private long hits = 0;
+  private long misses = 0;
+
+  public EquityCache() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public EquityCache(final int capacity) {
+    entries = new LinkedHashMap<Long, EquityEstimate>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, EquityEstimate> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  private static int[][] permutations() {
+    int[][] permutations = new int[24][];
+    int count = 0;
+    for (int a = 0; a < 4; a++) {
+      for (int b = 0; b < 4; b++) {
+        for (int c = 0; c < 4; c++) {
+          int d = 6 - a - b - c;
+          if (a != b && a != c && b != c && d != a && d != b && d != c) {
+            permutations[count++] = new int[] {a, b, c, d};
+          }
+        }
+      }
+    }
+    return permutations;
+  }
+
+  /**
+   * Returns the cache key of a flop or turn spot where the first hand is
+   * fully known and the other hands are fully unknown, or {@link #NO_KEY}
+   * for any other spot.<P>
+   * The key packs the number of opponents, the two hole cards and the five
+   * board slots (6 bits per card, unknown cards last) after relabelling the
+   * suits, and is the smallest such value over all suit permutations.
+   */
+  public static long key(List<Optional<Card>> board, List<List<Optional<Card>>> hands) {
+    if (board.size() != 5 || hands.size() < 2 || hands.size() > 16) {
+      return NO_KEY;
+    }
+    int[] boardCards = new int[5];
+    int known = 0;
+    for (int i = 0; i < 5; i++) {
+      boardCards[i] = board.get(i).isPresent() ? board.get(i).get().getIndex() : UNKNOWN;
+      known += board.get(i).isPresent() ? 1 : 0;
+    }
+    if (known != 3 && known != 4) {
+      return NO_KEY;
+    }
+    List<Optional<Card>> holeCards = hands.get(0);
+    if (holeCards.size() != 2 || !holeCards.get(0).isPresent() || !holeCards.get(1).isPresent()) {
+      return NO_KEY;
+    }
+    for (int i = 1; i < hands.size(); i++) {
+      for (Optional<Card> card : hands.get(i)) {
+        if (card.isPresent()) {
+          return NO_KEY;
+        }
+      }
+    }
+    int[] hole = {holeCards.get(0).get().getIndex(), holeCards.get(1).get().getIndex()};
+    int[] mappedBoard = new int[5];
+    int[] mappedHole = new int[2];
+    long best = Long.MAX_VALUE;
+    for (int[] permutation : SUIT_PERMUTATIONS) {
+      relabel(boardCards, mappedBoard, permutation);
+      relabel(hole, mappedHole, permutation);
+      long key = hands.size() - 1;
+      for (int card : mappedHole) {
+        key = (key << 6) | card;
+      }
+      for (int card : mappedBoard) {
+        key = (key << 6) | card;
+      }
+      best = Math.min(best, key);
+    }
+    return best;
+  }
+
+  private static void relabel(int[] cards, int[] mapped, int[] permutation) {
+    for (int i = 0; i < cards.length; i++) {
+      mapped[i] = cards[i] == UNKNOWN ? UNKNOWN : (cards[i] & ~3) | permutation[cards[i] & 3];
+    }
+    Arrays.sort(mapped);
+  }
+
+  /**
+   * Returns the cached equity for the key if it is exact, or null.
+   */
+  public EquityEstimate get(long key) {
+    return get(key, null, Long.MAX_VALUE);
+  }
+
+  /**
+   * Returns the cached equity for the key if it is as precise as the caller
+   * needs, or null. A sampled equity is only returned if it used at least
+   * minTrials runouts or is clear of every threshold (see
+   * {@link EquityEstimate#isClearOf(double[])}); exact ones always are.
+   * Lookups of {@link #NO_KEY} always miss and are not counted.
+   *
+   * @param thresholds the win chances the caller's decision depends on, or
+   * null if only the number of runouts matters
+   */
+  public EquityEstimate get(long key, double[] thresholds, long minTrials) {
+    if (key == NO_KEY) {
+      return null;
+    }
+    EquityEstimate estimate = entries.get(key);
+    if (estimate != null && (estimate.isExact() || estimate.getTrials() >= minTrials
+        || (thresholds != null && estimate.isClearOf(thresholds)))) {
+      hits++;
+      return estimate;
+    }
+    misses++;
+    return null;
+  }
+
+  /**
+   * Caches the estimate, unless the entry already cached for the key is
+   * exact or sampled at least as many runouts.
+   */
+  public void put(long key, EquityEstimate estimate) {
+    if (key == NO_KEY) {
+      return;
+    }
+    EquityEstimate cached = entries.get(key);
+    if (cached == null || estimate.isExact()
+        || (!cached.isExact() && cached.getTrials() < estimate.getTrials())) {
+      entries.put(key, estimate);
+    }
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public long getHits() {
+    return hits;
+  }
+
+  public long getMisses() {
+    return misses;
+  }
+
+  public double getHitRate() {
+    return hits + misses == 0 ? 0 : hits * 1.0 / (hits + misses);
+  }
+}
@@ -0,0 +1,278 @@
+package org.poker.client;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.poker.client.util.HandEvaluator;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Showdown equity of any number of seats sharing one board.<P>
+ * Unknown cards are dealt either exhaustively ({@link #enumerate()}) or by
+ * the caller one runout at a time ({@link #deal(int, int)} then
+ * {@link #score()}). Every runout is scored once for all seats: the board is
+ * evaluated once, each seat's seven cards once, and the best hand among them
+ * is found in the same pass.
+ */
+public class EquityCalculator {
+
+  private static final int BOARD = 0;
+
+  /** groups[0] is the board, groups[1 + seat] the hole cards of each seat; -1 is unknown. */
+  private final int[][] groups;
+  private final int[] slotGroup;
+  private final int[] slotPosition;
+  private final boolean[] used = new boolean[Card.NUMBER_OF_CARDS];
+  private final int liveCards;
+  private final long knownCardMask;
+
+  private final int[] boardMasks = new int[4];
+  private final int[] handMasks = new int[4];
+  private final int[] groupVersions;
+  private final int[] scoredVersions;
+  private final int[] strengths;
+
+  private long runouts = 0;
+  private final long[] wins;
+  private final long[] ties;
+  private final double[] potShares;
+
+  /**
+   * @param board the board cards, absent for cards not dealt yet
+   * @param hands the hole cards of each seat, absent for unknown cards
+   */
+  public EquityCalculator(List<Optional<Card>> board, List<List<Optional<Card>>> hands) {
+    if (hands.isEmpty()) {
+      throw new IllegalArgumentException("Expected at least one hand");
+    }
+    groups = new int[1 + hands.size()][];
+    groups[BOARD] = toIndices(board);
+    for (int seat = 0; seat < hands.size(); seat++) {
+      groups[1 + seat] = toIndices(hands.get(seat));
+    }
+    int unknown = 0;
+    int known = 0;
+    long mask = 0;
+    for (int[] group : groups) {
+      for (int card : group) {
+        if (card == -1) {
+          unknown++;
+        }
+        else if (used[card]) {
+          throw new IllegalArgumentException("Card dealt twice: " + Card.fromIndex(card));
+        }
+        else {
+          used[card] = true;
+          mask |= 1L << card;
+          known++;
+        }
+      }
+    }
+    liveCards = Card.NUMBER_OF_CARDS - known;
+    knownCardMask = mask;
+    slotGroup = new int[unknown];
+    slotPosition = new int[unknown];
+    int slot = 0;
+    for (int g = 0; g < groups.length; g++) {
+      for (int i = 0; i < groups[g].length; i++) {
+        if (groups[g][i] == -1) {
+          slotGroup[slot] = g;
+          slotPosition[slot] = i;
+          slot++;
+        }
+      }
+    }
+    groupVersions = new int[groups.length];
+    scoredVersions = new int[groups.length];
+    Arrays.fill(scoredVersions, -1);
+    strengths = new int[hands.size()];
+    wins = new long[hands.size()];
+    ties = new long[hands.size()];
+    potShares = new double[hands.size()];
+  }
+
+  private static int[] toIndices(List<Optional<Card>> cards) {
+    int[] indices = new int[cards.size()];
+    for (int i = 0; i < indices.length; i++) {
+      indices[i] = cards.get(i).isPresent() ? cards.get(i).get().getIndex() : -1;
+    }
+    return indices;
+  }
+
+  public int getNumberOfSeats() {
+    return strengths.length;
+  }
+
+  /**
+   * Returns the number of cards that have to be dealt for one runout.
+   */
+  public int getUnknownCount() {
+    return slotGroup.length;
+  }
+
+  /**
+   * Returns the cards known before any unknown card is dealt, as a mask
+   * (bit i = card with {@link Card#getIndex()} i).
+   */
+  public long getKnownCardMask() {
+    return knownCardMask;
+  }
+
+  /**
+   * Returns the number of distinct ways to deal the unknown cards,
+   * saturating at Long.MAX_VALUE.
+   */
+  public long countRunouts() {
+    int remaining = liveCards;
+    long result = 1;
+    for (int[] group : groups) {
+      int count = 0;
+      for (int card : group) {
+        if (card == -1) {
+          count++;
+        }
+      }
+      long ways = combinations(remaining, count);
+      if (ways != 0 && result > Long.MAX_VALUE / ways) {
+        return Long.MAX_VALUE;
+      }
+      result *= ways;
+      remaining -= count;
+    }
+    return result;
+  }
+
+  private static long combinations(int n, int k) {
+    if (k < 0 || k > n) {
+      return 0;
+    }
+    long result = 1;
+    for (int i = 0; i < k; i++) {
+      result = result * (n - i) / (i + 1);
+    }
+    return result;
+  }
+
+  /**
+   * Scores every combination of the unknown cards once. Each group (board
+   * and each seat's hole cards) is dealt in increasing card order so every
+   * distinct runout is visited exactly once.
+   */
+  public void enumerate() {
+    enumerate(0);
+  }
+
+  private void enumerate(int slot) {
+    if (slot == slotGroup.length) {
+      score();
+      return;
+    }
+    int[] group = groups[slotGroup[slot]];
+    int start = 0;
+    if (slot > 0 && slotGroup[slot - 1] == slotGroup[slot]) {
+      start = group[slotPosition[slot - 1]] + 1;
+    }
+    for (int card = start; card < Card.NUMBER_OF_CARDS; card++) {
+      if (used[card]) {
+        continue;
+      }
+      used[card] = true;
+      deal(slot, card);
+      enumerate(slot + 1);
+      used[card] = false;
+    }
+    group[slotPosition[slot]] = -1;
+  }
+
+  /**
+   * Puts the given card in an unknown slot (0 to {@link #getUnknownCount()} - 1).
+   * The caller is responsible for not dealing a known card or the same card twice.
+   */
+  public void deal(int slot, int cardIndex) {
+    groups[slotGroup[slot]][slotPosition[slot]] = cardIndex;
+    groupVersions[slotGroup[slot]]++;
+  }
+
+  /**
+   * Scores the currently dealt runout for every seat.
+   */
+  public void score() {
+    // Groups are re-evaluated only when one of their cards was dealt again,
+    // so known hands are not evaluated again for every runout.
+    boolean boardChanged = scoredVersions[BOARD] != groupVersions[BOARD];
+    if (boardChanged) {
+      Arrays.fill(boardMasks, 0);
+      addCards(boardMasks, groups[BOARD]);
+      scoredVersions[BOARD] = groupVersions[BOARD];
+    }
+    int best = -1;
+    int bestCount = 0;
+    for (int seat = 0; seat < strengths.length; seat++) {
+      int g = 1 + seat;
+      if (boardChanged || scoredVersions[g] != groupVersions[g]) {
+        System.arraycopy(boardMasks, 0, handMasks, 0, 4);
+        addCards(handMasks, groups[g]);
+        strengths[seat] = HandEvaluator.evaluate(handMasks[0], handMasks[1], handMasks[2], handMasks[3]);
+        scoredVersions[g] = groupVersions[g];
+      }
+      if (strengths[seat] > best) {
+        best = strengths[seat];
+        bestCount = 1;
+      }
+      else if (strengths[seat] == best) {
+        bestCount++;
+      }
+    }
+    double share = 1.0 / bestCount;
+    for (int seat = 0; seat < strengths.length; seat++) {
+      if (strengths[seat] == best) {
+        if (bestCount == 1) {
+          wins[seat]++;
+        }
+        else {
+          ties[seat]++;
+        }
+        potShares[seat] += share;
+      }
+    }
+    runouts++;
+  }
+
+  private static void addCards(int[] suitMasks, int[] cards) {
+    for (int card : cards) {
+      suitMasks[card & 3] |= 1 << (card >> 2);
+    }
+  }
+
+  /**
+   * Adds the runouts scored by another calculator for the same spot to this one.
+   */
+  public void merge(EquityCalculator other) {
+    if (other.strengths.length != strengths.length) {
+      throw new IllegalArgumentException("Different number of seats");
+    }
+    runouts += other.runouts;
+    for (int seat = 0; seat < strengths.length; seat++) {
+      wins[seat] += other.wins[seat];
+      ties[seat] += other.ties[seat];
+      potShares[seat] += other.potShares[seat];
+    }
+  }
+
+  public long getRunouts() {
+    return runouts;
+  }
+
+  /**
+   * Returns the equity of each seat over the runouts scored so far.
+   */
+  public List<Equity> getEquities() {
+    ImmutableList.Builder<Equity> builder = ImmutableList.builder();
+    for (int seat = 0; seat < strengths.length; seat++) {
+      builder.add(new Equity(runouts, wins[seat], ties[seat], potShares[seat]));
+    }
+    return builder.build();
+  }
+}
@@ -0,0 +1,67 @@
+package org.poker.client;
+
+/**
+ * An estimated probability together with how precise it is.
+ */
+public class EquityEstimate {
+
+  private final double estimate;
+  private final double standardError;
+  private final long trials;
+  private final boolean exact;
+
+  public EquityEstimate(double estimate, double standardError, long trials, boolean exact) {
+    this.estimate = estimate;
+    this.standardError = standardError;
+    this.trials = trials;
+    this.exact = exact;
+  }
+
+  public double getEstimate() {
+    return estimate;
+  }
+
+  /**
+   * Returns the standard error of the estimate, 0 if it is exact.
+   */
+  public double getStandardError() {
+    return standardError;
+  }
+
+  /**
+   * Returns the number of runouts sampled, or enumerated if the estimate is exact.
+   */
+  public long getTrials() {
+    return trials;
+  }
+
+  /**
+   * Returns true if every runout was enumerated.
+   */
+  public boolean isExact() {
+    return exact;
+  }
+
+  /**
+   * Returns true if the estimate is exact or its confidence interval contains
+   * none of the thresholds, so it settles a decision between them.
+   */
+  public boolean isClearOf(double[] thresholds) {
+    return exact || !isUndecided(estimate, standardError, thresholds);
+  }
+
+  static boolean isUndecided(double estimate, double standardError, double[] thresholds) {
+    for (double threshold : thresholds) {
+      if (Math.abs(estimate - threshold) <= AIHelper.CONFIDENCE_Z * standardError) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return "EquityEstimate[" + estimate + " +/- " + standardError + ", trials=" + trials
+        + (exact ? ", exact" : "") + "]";
+  }
+}
@@ -1,6 +1,15 @@
 package org.poker.client;
 
-import static com.google.common.base.Preconditions.checkArgument;
+import static org.poker.client.PokerOperations.card;
+import static org.poker.client.PokerOperations.cardKey;
+import static org.poker.client.PokerOperations.currentBetter;
+import static org.poker.client.PokerOperations.currentRound;
+import static org.poker.client.PokerOperations.hideCard;
+import static org.poker.client.PokerOperations.openCard;
+import static org.poker.client.PokerOperations.previousMove;
+import static org.poker.client.PokerOperations.previousMoveAllIn;
+import static org.poker.client.PokerOperations.shuffleAllCards;
+import static org.poker.client.PokerOperations.whoseMove;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -13,19 +22,26 @@ import org.game_api.GameApi.Operation;
 import org.game_api.GameApi.Set;
 import org.game_api.GameApi.SetTurn;
 import org.game_api.GameApi.SetVisibility;
-import org.game_api.GameApi.Shuffle;
 import org.game_api.GameApi.VerifyMove;
 import org.game_api.GameApi.VerifyMoveDone;
-import org.poker.client.Card.Rank;
-import org.poker.client.Card.Suit;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 
+/**
+ * Verifies poker moves and generates the expected ones.<P>
+ * An instance remembers the last state it verified, so that the next state
+ * of the same game decodes incrementally: keep one instance per game rather
+ * than one per move. Not thread-safe.
+ */
 public class PokerLogic extends AbstractPokerLogicBase {
 
   private PokerLogicHelper helper = PokerLogicHelper.getInstance();
+  private final PokerStateDecoder decoder = new PokerStateDecoder();
+  /** The move that turned the last state verified into the next one, a hint for the decoder. */
+  private List<Operation> lastVerifiedMove;
+  private final StreamingMoveVerifier streamingVerifier = new StreamingMoveVerifier(this);
 
   public VerifyMoveDone verify(VerifyMove verifyMove) {
     try {
@@ -38,35 +54,52 @@ public class PokerLogic extends AbstractPokerLogicBase {
   }
   
   private void checkMoveIsLegal(VerifyMove verifyMove) {
-    // Checking the operations are as expected.
-    List<Operation> expectedOperations = getExpectedOperations(verifyMove);
     List<Operation> lastMove = verifyMove.getLastMove();
+    Map<String, Object> lastApiState = verifyMove.getLastState();
+    PokerState lastState = null;
+    if (!lastApiState.isEmpty()) {
+      lastState = decoder.decode(lastApiState, lastVerifiedMove);
+      lastVerifiedMove = lastMove;
+      // Simple moves are checked operation by operation, without building the expected ones
+      StreamingMoveVerifier.Result result =
+          streamingVerifier.verify(lastState, lastMove, verifyMove.getPlayerIds());
+      if (result != StreamingMoveVerifier.Result.UNSUPPORTED) {
+        check(result == StreamingMoveVerifier.Result.ACCEPT,
+            "Operations do not match the expected move", lastMove);
+        return;
+      }
+    }
+    // Checking the operations are as expected.
+    List<Operation> expectedOperations = getExpectedOperations(verifyMove, lastState);
     check(expectedOperations.equals(lastMove), expectedOperations, lastMove);
     // We use SetTurn, so we don't need to check that the correct player did the move.
     // However, we do need to check the first non-buyIn move is done by P0 (and then in the
     // first MakeMove we'll send SetTurn which will guarantee the correct player send MakeMove).
-    if (verifyMove.getLastState().isEmpty()) {
+    if (lastApiState.isEmpty()) {
       if(!(lastMove.get(1) instanceof AttemptChangeTokens)) {
         check(verifyMove.getLastMovePlayerId().equals(verifyMove.getPlayerIds().get(0)), "Wrong player");
       }
     }
   }
   
-  private List<Operation> getExpectedOperations(VerifyMove verifyMove) {
+  private List<Operation> getExpectedOperations(VerifyMove verifyMove, PokerState lastState) {
     return getExpectedOperations(
-        verifyMove.getLastState(),
+        lastState,
         verifyMove.getLastMove(),
         verifyMove.getPlayerIds(),
         verifyMove.getLastMovePlayerId(),
         verifyMove.getPlayerIdToNumberOfTokensInPot());
   }
   
+  /**
+   * @param lastState the decoded last state, or null for the initial move
+   */
   private List<Operation> getExpectedOperations(
-      Map<String, Object> lastApiState, List<Operation> lastMove, List<String> playerIds,
+      PokerState lastState, List<Operation> lastMove, List<String> playerIds,
       String lastMovePlayerId, Map<String, Integer> playerIdToNumberOfTokensInPot) {
     
     // Handle initial move (empty last state)
-    if(lastApiState.isEmpty()) {
+    if(lastState == null) {
       if(lastMove.get(1) instanceof AttemptChangeTokens) {
         // Player's move was to "buy-in"
         int buyInAmount = playerIdToNumberOfTokensInPot.get(lastMovePlayerId);
@@ -78,8 +111,6 @@ public class PokerLogic extends AbstractPokerLogicBase {
       }
     }
     
-    PokerState lastState = helper.gameApiStateToPokerState(lastApiState);
-    
     boolean isEndGame = false;
     for(Operation operation : lastMove) {
       if(operation instanceof EndGame) {
@@ -130,57 +161,23 @@ public class PokerLogic extends AbstractPokerLogicBase {
    * @param playerIds
    * @return
    */
-  List<Operation> doEndGameMove(PokerState lastState, List<String> playerIds) {
+  public List<Operation> doEndGameMove(PokerState lastState, List<String> playerIds) {
     
-    List<List<String>> winnersForEachPot = helper.getWinners(lastState, playerIds);
+    Showdown showdown = Showdown.resolve(lastState);
     
-    List<ImmutableMap<String, Object>> pots = createPotsWithOnlyWinners(lastState.getPots(), winnersForEachPot, playerIds);
+    List<ImmutableMap<String, Object>> pots = createPotsWithOnlyWinners(lastState.getPots(), showdown.getPotWinners());
     
     List<Integer> winnings = Lists.newArrayList();
-    winnings.addAll(lastState.getPlayerChips());
-    
     ImmutableMap.Builder<String, Integer> endGameMapBuilder = ImmutableMap.builder();
-    
-    for (int potIndex = 0; potIndex < winnersForEachPot.size(); potIndex++) {
-      List<String> winnersForPot = winnersForEachPot.get(potIndex);
-      int potAmount = lastState.getPots().get(potIndex).getChips();
-      int numberOfWinners = winnersForPot.size();
-      for(int winnerIndex = 0; winnerIndex < numberOfWinners; winnerIndex++) {
-        int winningShare;
-        if(winnerIndex == numberOfWinners - 1) {
-          //handle remaining change
-          winningShare = potAmount - (numberOfWinners - 1) * (potAmount / numberOfWinners);
-        }
-        else {
-          winningShare = potAmount / numberOfWinners;
-        }
-        int winnerPlayerIndex = playerIds.indexOf(winnersForPot.get(winnerIndex));
-        winnings.set(winnerPlayerIndex, winnings.get(winnerPlayerIndex) + winningShare);
-      }
-    }
-    
-    int lastValidPotIndex = 0;
-    for (int i = winnersForEachPot.size() - 1; i >= 0; i--) {
-      if (winnersForEachPot.get(i).size() != 0) {
-        lastValidPotIndex = i;
-        break;
-      }
-    }
-    
-    for (int i = 0; i < playerIds.size(); i++) {
-      if(winnersForEachPot.get(lastValidPotIndex).contains(playerIds.get(i))) {
-        endGameMapBuilder.put(playerIds.get(i), 1);
-      }
-      else {
-        endGameMapBuilder.put(playerIds.get(i), 0);
-      }
-    }
-    
-    
     ImmutableMap.Builder<String, Integer> playerIdToTokensBuilder = ImmutableMap.builder();
     ImmutableMap.Builder<String, Integer> playerIdToPotTokensBuilder = ImmutableMap.builder();
-    for(int i = 0; i < winnings.size(); i++) {
-      playerIdToTokensBuilder.put(playerIds.get(i), winnings.get(i));
+    List<Player> lastPotWinners = showdown.getLastPotWinners();
+    for (int i = 0; i < playerIds.size(); i++) {
+      Player player = Player.values()[i];
+      int chips = lastState.getPlayerChips().get(i) + showdown.getChipsWon(player);
+      winnings.add(chips);
+      endGameMapBuilder.put(playerIds.get(i), lastPotWinners.contains(player) ? 1 : 0);
+      playerIdToTokensBuilder.put(playerIds.get(i), chips);
       playerIdToPotTokensBuilder.put(playerIds.get(i), 0);
     }
     
@@ -189,7 +186,7 @@ public class PokerLogic extends AbstractPokerLogicBase {
         new AttemptChangeTokens(
             playerIdToTokensBuilder.build(),
             playerIdToPotTokensBuilder.build()),
-        new Set(CURRENT_ROUND, BettingRound.END_GAME.name()),
+        currentRound(BettingRound.END_GAME),
         new Set(PLAYER_CHIPS, winnings),
         new Set(POTS, pots),
         new EndGame(endGameMapBuilder.build()));
@@ -197,22 +194,13 @@ public class PokerLogic extends AbstractPokerLogicBase {
 
   
   private List<ImmutableMap<String,Object>> createPotsWithOnlyWinners(ImmutableList<Pot> pots,
-      List<List<String>> winnersForEachPot, List<String> playerIds) {
+      List<ImmutableList<Player>> winnersForEachPot) {
     
     ImmutableList.Builder<ImmutableMap<String, Object>> potListBuilder = ImmutableList.builder();
     
     for(int i = 0 ; i < pots.size(); i++) {
-      // Get the winners for this pot
-      List<String> winnerIds = winnersForEachPot.get(i);
-      
-      // Get a list of corresponding player indexes from player Ids
-      List<Player> winners =Lists.newArrayList();
-      for (String id : winnerIds) {
-        winners.add(Player.values()[playerIds.indexOf(id)]);
-      }
-      
-      // Get the corresponding api List of Strings
-      List<String>apiList = helper.getApiPlayerList(winners);
+      // Get the api list of the winners for this pot
+      List<String>apiList = helper.getApiPlayerList(winnersForEachPot.get(i));
       
       // Build the current pot with only winners in 'players in pot'
       ImmutableMap.Builder<String,Object> newPot = ImmutableMap.builder();
@@ -246,15 +234,15 @@ public class PokerLogic extends AbstractPokerLogicBase {
     int nextTurnIndex = getNextTurnIndex(lastState);
     operations.add(new SetTurn(playerIds.get(nextTurnIndex)));
     
-    operations.add(new Set(PREVIOUS_MOVE, PokerMove.FOLD.name()));
+    operations.add(previousMove(PokerMove.FOLD));
     
-    operations.add(new Set(PREVIOUS_MOVE_ALL_IN, Boolean.FALSE));
+    operations.add(previousMoveAllIn(false));
     
-    operations.add(new Set(WHOSE_MOVE, P[nextTurnIndex]));
+    operations.add(whoseMove(nextTurnIndex));
     
     if (lastState.getCurrentBetter() == lastState.getWhoseMove()) {
       // If current better folds then set next player as the current better
-      operations.add(new Set(CURRENT_BETTER, P[nextTurnIndex]));
+      operations.add(currentBetter(nextTurnIndex));
     }
     
     // Remove player from PLAYERS_IN_HAND
@@ -304,11 +292,11 @@ public class PokerLogic extends AbstractPokerLogicBase {
     int nextTurnIndex = getNextTurnIndex(lastState);
     operations.add(new SetTurn(playerIds.get(nextTurnIndex)));
     
-    operations.add(new Set(PREVIOUS_MOVE, PokerMove.CHECK.name()));
+    operations.add(previousMove(PokerMove.CHECK));
     
-    operations.add(new Set(PREVIOUS_MOVE_ALL_IN, new Boolean(false)));
+    operations.add(previousMoveAllIn(false));
     
-    operations.add(new Set(WHOSE_MOVE, P[nextTurnIndex]));
+    operations.add(whoseMove(nextTurnIndex));
     
     return operations;
   }
@@ -344,11 +332,11 @@ public class PokerLogic extends AbstractPokerLogicBase {
     int nextTurnIndex = getNextTurnIndex(lastState);
     operations.add(new SetTurn(playerIds.get(nextTurnIndex)));
     
-    operations.add(new Set(PREVIOUS_MOVE, PokerMove.CALL.name()));
+    operations.add(previousMove(PokerMove.CALL));
     
-    operations.add(new Set(PREVIOUS_MOVE_ALL_IN, Boolean.valueOf(isAllIn)));
+    operations.add(previousMoveAllIn(isAllIn));
     
-    operations.add(new Set(WHOSE_MOVE, P[nextTurnIndex]));
+    operations.add(whoseMove(nextTurnIndex));
     
     // PLAYERS_IN_HAND should already contain this player
     
@@ -560,16 +548,16 @@ public class PokerLogic extends AbstractPokerLogicBase {
     
     operations.add(new SetTurn(playerIds.get(nextTurnIndex)));
     
-    operations.add(new Set(PREVIOUS_MOVE, PokerMove.BET.name()));
+    operations.add(previousMove(PokerMove.BET));
     
-    operations.add(new Set(PREVIOUS_MOVE_ALL_IN, Boolean.valueOf(isAllIn)));
+    operations.add(previousMoveAllIn(isAllIn));
     
-    operations.add(new Set(WHOSE_MOVE, P[nextTurnIndex]));
+    operations.add(whoseMove(nextTurnIndex));
     
-    operations.add(new Set(CURRENT_BETTER, P[playerIndex]));
+    operations.add(currentBetter(playerIndex));
     
     if (noPlayersLeft) {
-      operations.add(new Set(CURRENT_ROUND, BettingRound.SHOWDOWN.name()));
+      operations.add(currentRound(BettingRound.SHOWDOWN));
     }
     
     // Set player bets
@@ -653,17 +641,17 @@ public class PokerLogic extends AbstractPokerLogicBase {
     
     operations.add(new SetTurn(playerIds.get(nextTurnIndex)));
     
-    operations.add(new Set(PREVIOUS_MOVE, PokerMove.RAISE.name()));
+    operations.add(previousMove(PokerMove.RAISE));
     
     // Determine if this move is ALL In
-    operations.add(new Set(PREVIOUS_MOVE_ALL_IN, Boolean.valueOf(isAllIn)));
+    operations.add(previousMoveAllIn(isAllIn));
     
-    operations.add(new Set(WHOSE_MOVE, P[nextTurnIndex]));
+    operations.add(whoseMove(nextTurnIndex));
     
-    operations.add(new Set(CURRENT_BETTER, P[playerIndex]));
+    operations.add(currentBetter(playerIndex));
     
     if (noPlayersLeft) {
-      operations.add(new Set(CURRENT_ROUND, BettingRound.SHOWDOWN.name()));
+      operations.add(currentRound(BettingRound.SHOWDOWN));
     }
     
     // Set player bets
@@ -749,8 +737,10 @@ public class PokerLogic extends AbstractPokerLogicBase {
       return false;
     }*/
     
-    if (lastState.getCurrentRound() == BettingRound.RIVER) {
-      //Method doNewRoundAfterXyzMove() will handle this scenario
+    if (lastState.getCurrentRound() == BettingRound.RIVER
+        && move != PokerMove.BET && move != PokerMove.RAISE) {
+      //Method doNewRoundAfterXyzMove() will handle this scenario,
+      //but a bet or raise nobody can answer still ends the game
       return false;
     }
     List<Player> playersInHand = lastState.getPlayersInHand();
@@ -829,19 +819,19 @@ public class PokerLogic extends AbstractPokerLogicBase {
     operations.add(new SetTurn(playerIds.get(nextTurnIndex)));
     
     // Set previous move
-    operations.add(new Set(PREVIOUS_MOVE, PokerMove.FOLD.name()));
+    operations.add(previousMove(PokerMove.FOLD));
     
     // Set previous move All In to false
-    operations.add(new Set(PREVIOUS_MOVE_ALL_IN, false));
+    operations.add(previousMoveAllIn(false));
     
     // Set next turn
-    operations.add(new Set(WHOSE_MOVE, P[nextTurnIndex]));
+    operations.add(whoseMove(nextTurnIndex));
     
     // Set current better to the first player of the round
-    operations.add(new Set(CURRENT_BETTER, P[nextTurnIndex]));
+    operations.add(currentBetter(nextTurnIndex));
     
     // Increment the current round
-    operations.add(new Set(CURRENT_ROUND, nextRound.name()));
+    operations.add(currentRound(nextRound));
     
     // Remove the current player from players in Hand
     List<Player> newPlayerInHand = removeFromList(lastState.getPlayersInHand(), 
@@ -936,15 +926,15 @@ public class PokerLogic extends AbstractPokerLogicBase {
     
     operations.add(new SetTurn(playerIds.get(nextTurnIndex)));
     
-    operations.add(new Set(PREVIOUS_MOVE, PokerMove.CHECK.name()));
+    operations.add(previousMove(PokerMove.CHECK));
     
-    operations.add(new Set(PREVIOUS_MOVE_ALL_IN, new Boolean(false)));
+    operations.add(previousMoveAllIn(false));
     
-    operations.add(new Set(WHOSE_MOVE, P[nextTurnIndex]));
+    operations.add(whoseMove(nextTurnIndex));
     
-    operations.add(new Set(CURRENT_BETTER, P[nextTurnIndex]));
+    operations.add(currentBetter(nextTurnIndex));
     
-    operations.add(new Set(CURRENT_ROUND, nextRound.name()));
+    operations.add(currentRound(nextRound));
     
     operations.add(new Set(PLAYER_BETS, createNewList(numberOfPlayers, Integer.valueOf(0))));
     
@@ -1009,18 +999,18 @@ public class PokerLogic extends AbstractPokerLogicBase {
     operations.add(new SetTurn(playerIds.get(nextTurnIndex)));
     
     // Set previous move
-    operations.add(new Set(PREVIOUS_MOVE, PokerMove.CALL.name()));
+    operations.add(previousMove(PokerMove.CALL));
     
     // Set if this move is all in
-    operations.add(new Set(PREVIOUS_MOVE_ALL_IN, isAllIn));
+    operations.add(previousMoveAllIn(isAllIn));
     
     // Set next turn
-    operations.add(new Set(WHOSE_MOVE, P[nextTurnIndex]));
+    operations.add(whoseMove(nextTurnIndex));
     
-    operations.add(new Set(CURRENT_BETTER, P[nextTurnIndex]));
+    operations.add(currentBetter(nextTurnIndex));
     
     // Increment the current round
-    operations.add(new Set(CURRENT_ROUND, nextRound.name()));
+    operations.add(currentRound(nextRound));
     
     // Set PlayerBets to 0
     List<Integer> newPlayerBets = createNewList(numOfPlayers, 0);
@@ -1079,7 +1069,7 @@ public class PokerLogic extends AbstractPokerLogicBase {
    * @param additionalAmount
    * @return
    */
-  private boolean isNewRoundStarting(PokerState lastState,
+  boolean isNewRoundStarting(PokerState lastState,
       PokerMove previousMove, int additionalAmount) {
     
     if (previousMove == PokerMove.BET || previousMove == PokerMove.RAISE) {
@@ -1164,7 +1154,7 @@ public class PokerLogic extends AbstractPokerLogicBase {
    * @param startingChips
    * @return
    */
-  List<Operation> getInitialMove(List<String> playerIds, Map<String, Integer> startingChips) {
+  public List<Operation> getInitialMove(List<String> playerIds, Map<String, Integer> startingChips) {
     check(playerIds.size() >= 2 && playerIds.size() <= 9);
 
     int numberOfPlayers = playerIds.size();
@@ -1179,29 +1169,29 @@ public class PokerLogic extends AbstractPokerLogicBase {
     // Otherwise, player after big blind to act
     operations.add(new SetTurn(playerIds.get(utgPos)));
     
-    operations.add(new Set(PREVIOUS_MOVE, PokerMove.RAISE.name()));
+    operations.add(previousMove(PokerMove.RAISE));
     
     boolean bigBlindAllIn = false;
     if(startingChips.get(playerIds.get(bigBlindPos)) == BIG_BLIND) {
       bigBlindAllIn = true;
     }
-    operations.add(new Set(PREVIOUS_MOVE_ALL_IN, bigBlindAllIn));
+    operations.add(previousMoveAllIn(bigBlindAllIn));
     
     //operations.add(new Set())
     operations.add(new Set(NUMBER_OF_PLAYERS, numberOfPlayers));
 
     // In heads-up match, P0(dealer) to act.
     // Otherwise, player after big blind to act
-    operations.add(new Set(WHOSE_MOVE, P[utgPos]));
+    operations.add(whoseMove(utgPos));
     
     // Big blind will be the current better
-    operations.add(new Set(CURRENT_BETTER, P[bigBlindPos]));
+    operations.add(currentBetter(bigBlindPos));
 
-    operations.add(new Set(CURRENT_ROUND, BettingRound.PRE_FLOP.name()));
+    operations.add(currentRound(BettingRound.PRE_FLOP));
 
     // Sets all the 52 cards as 2c, 2d, ... As, Ah
     for (int i = 0; i < 52; i++) {
-      operations.add(new Set(C + i, cardIdToString(i)));
+      operations.add(card(i));
     }
 
     // Initially small blind and big blind will be in the hand
@@ -1255,16 +1245,16 @@ public class PokerLogic extends AbstractPokerLogicBase {
     operations.add(new Set(POTS, ImmutableList.of(mainPot)));
     
     // shuffle the cards
-    operations.add(new Shuffle(getCardsInRange(0, 51)));
+    operations.add(shuffleAllCards());
     
     // Make hole cards visible to players holding them
     for (int i = 0; i < numberOfPlayers; i++) {
-      operations.add(new SetVisibility(C + (i * 2), ImmutableList.of(playerIds.get(i))));
-      operations.add(new SetVisibility(C + (i * 2 + 1), ImmutableList.of(playerIds.get(i))));
+      operations.add(new SetVisibility(cardKey(i * 2), ImmutableList.of(playerIds.get(i))));
+      operations.add(new SetVisibility(cardKey(i * 2 + 1), ImmutableList.of(playerIds.get(i))));
     }
     // Make remaining cards not visible to anyone
     for (int i = 2 * numberOfPlayers; i < 52; i++) {
-      operations.add(new SetVisibility(C + i, ImmutableList.<String>of()));
+      operations.add(hideCard(i));
     }
     
     return operations;
@@ -1280,7 +1270,7 @@ public class PokerLogic extends AbstractPokerLogicBase {
     return ImmutableMap.<String, Object>of(
         CHIPS, pot.getChips(),
         CURRENT_POT_BET, pot.getCurrentPotBet(),
-        PLAYERS_IN_HAND, helper.getApiPlayerList(pot.getPlayersInPot()),
+        PLAYERS_IN_POT, helper.getApiPlayerList(pot.getPlayersInPot()),
         PLAYER_BETS, pot.getPlayerBets());
   }
   
@@ -1383,7 +1373,7 @@ public class PokerLogic extends AbstractPokerLogicBase {
    * @param state Last PokerState
    * @return index of next player to act
    */
-  private int getNextTurnIndex(PokerState lastState) {
+  int getNextTurnIndex(PokerState lastState) {
     List<Player> playersInHand = lastState.getPlayersInHand();
     int lastPlayerListIndex = playersInHand.indexOf(lastState.getWhoseMove());
     for(int i=1; i<playersInHand.size(); i++) {
@@ -1480,15 +1470,15 @@ public class PokerLogic extends AbstractPokerLogicBase {
     switch(newRound) {
     case FLOP:
       return ImmutableList.<Operation>of(
-          new SetVisibility(C + (numberOfPlayers * 2)),
-          new SetVisibility(C + (numberOfPlayers * 2 + 1)),
-          new SetVisibility(C + (numberOfPlayers * 2 + 2)));
+          openCard(numberOfPlayers * 2),
+          openCard(numberOfPlayers * 2 + 1),
+          openCard(numberOfPlayers * 2 + 2));
     case TURN:
       return ImmutableList.<Operation>of(
-          new SetVisibility(C + (numberOfPlayers * 2 + 3)));
+          openCard(numberOfPlayers * 2 + 3));
     case RIVER:
       return ImmutableList.<Operation>of(
-          new SetVisibility(C + (numberOfPlayers * 2 + 4)));
+          openCard(numberOfPlayers * 2 + 4));
     case SHOWDOWN:
       return ImmutableList.<Operation>of();
     default:
@@ -1519,8 +1509,8 @@ public class PokerLogic extends AbstractPokerLogicBase {
     ImmutableList.Builder<Operation> builder = ImmutableList.<Operation>builder();
     for(Player player : playersInHand) {
       int index = player.ordinal();
-      builder.add(new SetVisibility(C + (index * 2)));
-      builder.add(new SetVisibility(C + (index * 2 + 1)));
+      builder.add(openCard(index * 2));
+      builder.add(openCard(index * 2 + 1));
     }
     return builder.build();
   }
@@ -1557,21 +1547,4 @@ public class PokerLogic extends AbstractPokerLogicBase {
     }
     return keys;
   }
-
-  private List<String> getCardsInRange(int fromInclusive, int toInclusive) {
-    List<String> keys = Lists.newArrayList();
-    for (int i = fromInclusive; i <= toInclusive; i++) {
-      keys.add(C + i);
-    }
-    return keys;
-  }
-
-  private String cardIdToString(int cardId) {
-    checkArgument(cardId >= 0 && cardId < 52);
-    int rank = (cardId / 4);
-    String rankString = Rank.values()[rank].getFirstLetter();
-    int suit = cardId % 4;
-    String suitString = Suit.values()[suit].getFirstLetterLowerCase();
-    return rankString + suitString;
-  }
 }
@@ -4,19 +4,26 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
-import org.poker.client.Card.Rank;
-import org.poker.client.Card.Suit;
-import org.poker.client.util.BestHandFinder;
-import org.poker.client.util.PokerHand;
-
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
 
 public class PokerLogicHelper extends AbstractPokerLogicBase {
 
   private static PokerLogicHelper instance;
   
+  /**
+   * Shared Optional for each card, indexed by {@link Card#getIndex()}.
+   */
+  public static final ImmutableList<Optional<Card>> PRESENT_CARDS;
+  
+  static {
+    ImmutableList.Builder<Optional<Card>> builder = ImmutableList.builder();
+    for (int i = 0; i < Card.NUMBER_OF_CARDS; i++) {
+      builder.add(Optional.of(Card.fromIndex(i)));
+    }
+    PRESENT_CARDS = builder.build();
+  }
+  
   private PokerLogicHelper() {
     super();
   }
@@ -44,68 +51,68 @@ public class PokerLogicHelper extends AbstractPokerLogicBase {
     BettingRound currentRound = BettingRound.valueOf((String)gameApiState.get(CURRENT_ROUND));
 
     // Get Cards
-    ArrayList<Optional<Card>> cardList = new ArrayList();
+    ArrayList<Optional<Card>> cardList = new ArrayList<Optional<Card>>();
     for (int i =0 ; i<52 ; i++) {
-      Optional<Card> card;
-      String crd = (String)gameApiState.get("C"+i);
-      if (crd != null) {
-        Rank rank = Rank.fromFirstLetter(crd.substring(0, crd.length() - 1));
-        Suit suit = Suit.fromFirstLetterLowerCase(crd.substring(crd.length() - 1));
-        card = Optional.<Card>of(new Card(suit, rank));
-      }
-      else {
-        card = Optional.absent();
-      }
-      cardList.add(card);
+      cardList.add(getCard(gameApiState.get(PokerOperations.cardKey(i))));
     }
     ImmutableList<Optional<Card>> cards = ImmutableList.copyOf(cardList);
 
-    // Get Board
-    ImmutableList<Integer> board = ImmutableList.copyOf((List<Integer>) gameApiState.get(BOARD));
+    return new PokerState(previousMove, 
+        previousMoveAllIn, numberOfPlayers, 
+        whoseMove, currentBetter, currentRound, 
+        cards, getIntegerList(gameApiState.get(BOARD)),
+        getPlayerList(gameApiState.get(PLAYERS_IN_HAND)),
+        getHoleCards(gameApiState.get(HOLE_CARDS)),
+        getIntegerList(gameApiState.get(PLAYER_BETS)),
+        getIntegerList(gameApiState.get(PLAYER_CHIPS)),
+        getPots(gameApiState.get(POTS)));
+  }
 
-    // Get Players in Hand
-    List<String> playerInHandList = (List<String>) gameApiState.get(PLAYERS_IN_HAND);
-    List<Player> temp = new ArrayList<Player>();
-    for (String s : playerInHandList){
-      temp.add(Player.valueOf(s));
+  /**
+   * Converts the value of a card key, null if the card is hidden.
+   */
+  Optional<Card> getCard(Object value) {
+    if (value == null) {
+      return Optional.absent();
     }
-    ImmutableList<Player> playersInHand = ImmutableList.copyOf(temp);
+    return PRESENT_CARDS.get(Card.indexOfShortName((String) value));
+  }
 
-    // Get holeCards
-    List<List<Integer>> holeCardList = (List<List<Integer>>)gameApiState.get(HOLE_CARDS);
+  @SuppressWarnings("unchecked")
+  ImmutableList<Integer> getIntegerList(Object value) {
+    return ImmutableList.copyOf((List<Integer>) value);
+  }
+
+  @SuppressWarnings("unchecked")
+  ImmutableList<Player> getPlayerList(Object value) {
+    List<Player> players = new ArrayList<Player>();
+    for (String s : (List<String>) value) {
+      players.add(Player.valueOf(s));
+    }
+    return ImmutableList.copyOf(players);
+  }
+
+  @SuppressWarnings("unchecked")
+  ImmutableList<ImmutableList<Integer>> getHoleCards(Object value) {
     ImmutableList.Builder<ImmutableList<Integer>> holeCardListBuilder = 
         ImmutableList.builder();
-    for(List<Integer> holeCards : holeCardList) {
+    for(List<Integer> holeCards : (List<List<Integer>>) value) {
       holeCardListBuilder.add(ImmutableList.<Integer>copyOf(holeCards));
     }
-    ImmutableList<ImmutableList<Integer>> holeCards = holeCardListBuilder.build();
-
-    // Get playerBets
-    List<Integer> bets = (List<Integer>)gameApiState.get(PLAYER_BETS);
-    ImmutableList<Integer> playerBets = ImmutableList.copyOf(bets);
-
-    // Get playerChips
-    List<Integer> chips = (List<Integer>)gameApiState.get(PLAYER_CHIPS);
-    ImmutableList<Integer> playerChips = ImmutableList.copyOf(chips);
+    return holeCardListBuilder.build();
+  }
 
-    // Get pots
-    List<Map<String,Object>> gamePots = (List<Map<String,Object>>)gameApiState.get(POTS);
+  @SuppressWarnings("unchecked")
+  ImmutableList<Pot> getPots(Object value) {
     List<Pot> potlist = new ArrayList<Pot>();
-    for(Map<String,Object> pot : gamePots) {
+    for(Map<String,Object> pot : (List<Map<String,Object>>) value) {
       potlist.add(new Pot(
           (Integer)pot.get(CHIPS),
           (Integer)pot.get(CURRENT_POT_BET),
           ImmutableList.copyOf(getPlayerListFromApi((List<String>)pot.get(PLAYERS_IN_POT))),
           ImmutableList.copyOf((List<Integer>) pot.get(PLAYER_BETS))));
     }
-
-    ImmutableList<Pot> pots = ImmutableList.copyOf(potlist);
-
-    return new PokerState(previousMove, 
-        previousMoveAllIn, numberOfPlayers, 
-        whoseMove, currentBetter, currentRound, 
-        cards, board, playersInHand, holeCards, 
-        playerBets, playerChips, pots);
+    return ImmutableList.copyOf(potlist);
   }
 
   /**
@@ -129,67 +136,5 @@ public class PokerLogicHelper extends AbstractPokerLogicBase {
     }
     return playerListBuilder.build();
   }
-
-  /**
-   * Returns the list of player IDs of players winning each pot.
-   * 
-   * @param lastState
-   * @param playerIds
-   * @return
-   */
-  List<List<String>> getWinners(PokerState lastState, List<String> playerIds) {
-    
-    List<Player> playersInHand = lastState.getPlayersInHand();
-    List<PokerHand> bestHands = Lists.newArrayList();
-    // Get best poker hands for each player in pot
-    for (int i = 0; i < playerIds.size(); i++) {
-      if(playersInHand.contains(Player.values()[i])) {
-        List<Card> board = Lists.newArrayList();
-        List<Card> holeCards = Lists.newArrayList();
-        for(int boardCard : lastState.getBoard()) {
-          board.add(lastState.getCards().get(boardCard).get());
-        }
-        for(int holeCard : lastState.getHoleCards().get(i)) {
-          holeCards.add(lastState.getCards().get(holeCard).get());
-        }
-        bestHands.add(new BestHandFinder(board, holeCards).find());
-      }
-      else {
-        //We don't care about players that folded
-        bestHands.add(null);
-      }
-    }
-    // For each pot, find list of players that had the best hand
-    // Add this list to the return list
-    List<List<String>> winners = Lists.newArrayList();
-    List<Pot> pots = lastState.getPots();
-    for(Pot pot : pots) {
-      List<Player> playersInPot = pot.getPlayersInPot();
-      List<String> potWinners = Lists.newArrayList();
-      PokerHand bestHandInPot = null;
-      for(Player player : playersInPot) {
-        PokerHand currentHand = bestHands.get(player.ordinal());
-        if(bestHandInPot == null) {
-          bestHandInPot = currentHand;
-        }
-        int comparison = currentHand.compareRanking(bestHandInPot);
-        if(comparison > 0) {
-          //found better hand
-          bestHandInPot = currentHand;
-          potWinners = Lists.newArrayList();
-          potWinners.add(playerIds.get(player.ordinal()));
-        }
-        else if(comparison == 0) {
-          //found equally good hand
-          potWinners.add(playerIds.get(player.ordinal()));
-        }
-        else {
-          //found worse hand. ignore it.
-        }
-      }
-      winners.add(potWinners);
-    }
-    return winners;
-  }
   
 }
@@ -0,0 +1,45 @@
+package org.poker.client;
+
+import java.util.List;
+
+import org.game_api.BinaryMessageCodec;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Codecs for sending poker messages between servers and bots.
+ */
+public final class PokerMessageCodecs extends AbstractPokerLogicBase {
+
+  private PokerMessageCodecs() {
+  }
+
+  /**
+   * Returns a binary codec whose dictionary holds the poker state keys,
+   * players, card keys, cards and enum names, so each takes one byte.
+   */
+  public static BinaryMessageCodec newBinaryCodec() {
+    return new BinaryMessageCodec(getDictionary());
+  }
+
+  static List<String> getDictionary() {
+    ImmutableList.Builder<String> dictionary = ImmutableList.<String>builder()
+        .add(PREVIOUS_MOVE, PREVIOUS_MOVE_ALL_IN, NUMBER_OF_PLAYERS, WHOSE_MOVE,
+            CURRENT_BETTER, CURRENT_ROUND, PLAYERS_IN_HAND, BOARD, HOLE_CARDS,
+            PLAYER_BETS, PLAYER_CHIPS, POTS, CHIPS, CURRENT_POT_BET, PLAYERS_IN_POT)
+        .add(P);
+    for (PokerMove move : PokerMove.values()) {
+      dictionary.add(move.name());
+    }
+    for (BettingRound round : BettingRound.values()) {
+      dictionary.add(round.name());
+    }
+    for (int i = 0; i < Card.NUMBER_OF_CARDS; i++) {
+      dictionary.add(PokerOperations.cardKey(i));
+    }
+    for (int i = 0; i < Card.NUMBER_OF_CARDS; i++) {
+      dictionary.add(Card.fromIndex(i).getShortName());
+    }
+    return dictionary.build();
+  }
+}
@@ -0,0 +1,102 @@
+package org.poker.client;
+
+import java.util.List;
+
+import org.game_api.GameApi.Set;
+import org.game_api.GameApi.SetVisibility;
+import org.game_api.GameApi.Shuffle;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Canonical instances of the operations {@link PokerLogic} sends whose values
+ * come from a small fixed set: the previous move and its all-in flag, whose
+ * move and the current better for every seat, the current round, the value of
+ * every card key, opening or hiding every card, and shuffling the deck.
+ * Operations are immutable, so one instance serves every move of every table.
+ */
+final class PokerOperations extends AbstractPokerLogicBase {
+
+  private static final String[] CARD_KEYS = new String[Card.NUMBER_OF_CARDS];
+  private static final Set[] CARDS = new Set[Card.NUMBER_OF_CARDS];
+  private static final SetVisibility[] OPEN_CARDS = new SetVisibility[Card.NUMBER_OF_CARDS];
+  private static final SetVisibility[] HIDDEN_CARDS = new SetVisibility[Card.NUMBER_OF_CARDS];
+  private static final Set[] PREVIOUS_MOVES = new Set[PokerMove.values().length];
+  private static final Set[] PREVIOUS_MOVE_ALL_IN_FLAGS = {
+    new Set(PREVIOUS_MOVE_ALL_IN, Boolean.FALSE), new Set(PREVIOUS_MOVE_ALL_IN, Boolean.TRUE)};
+  private static final Set[] WHOSE_MOVES = new Set[P.length];
+  private static final Set[] CURRENT_BETTERS = new Set[P.length];
+  private static final Set[] CURRENT_ROUNDS = new Set[BettingRound.values().length];
+  private static final Shuffle SHUFFLE_ALL_CARDS;
+
+  static {
+    List<String> noPlayers = ImmutableList.of();
+    for (int i = 0; i < Card.NUMBER_OF_CARDS; i++) {
+      CARD_KEYS[i] = C + i;
+      CARDS[i] = new Set(CARD_KEYS[i], Card.fromIndex(i).getShortName());
+      OPEN_CARDS[i] = new SetVisibility(CARD_KEYS[i]);
+      HIDDEN_CARDS[i] = new SetVisibility(CARD_KEYS[i], noPlayers);
+    }
+    SHUFFLE_ALL_CARDS = new Shuffle(ImmutableList.copyOf(CARD_KEYS));
+    for (PokerMove move : PokerMove.values()) {
+      PREVIOUS_MOVES[move.ordinal()] = new Set(PREVIOUS_MOVE, move.name());
+    }
+    for (int i = 0; i < P.length; i++) {
+      WHOSE_MOVES[i] = new Set(WHOSE_MOVE, P[i]);
+      CURRENT_BETTERS[i] = new Set(CURRENT_BETTER, P[i]);
+    }
+    for (BettingRound round : BettingRound.values()) {
+      CURRENT_ROUNDS[round.ordinal()] = new Set(CURRENT_ROUND, round.name());
+    }
+  }
+
+  private PokerOperations() {
+  }
+
+  /**
+   * Returns "C" + index.
+   */
+  static String cardKey(int index) {
+    return CARD_KEYS[index];
+  }
+
+  /**
+   * Sets the card key to the short name of the card at index in the
+   * unshuffled deck.
+   */
+  static Set card(int index) {
+    return CARDS[index];
+  }
+
+  static SetVisibility openCard(int index) {
+    return OPEN_CARDS[index];
+  }
+
+  static SetVisibility hideCard(int index) {
+    return HIDDEN_CARDS[index];
+  }
+
+  static Shuffle shuffleAllCards() {
+    return SHUFFLE_ALL_CARDS;
+  }
+
+  static Set previousMove(PokerMove move) {
+    return PREVIOUS_MOVES[move.ordinal()];
+  }
+
+  static Set previousMoveAllIn(boolean isAllIn) {
+    return PREVIOUS_MOVE_ALL_IN_FLAGS[isAllIn ? 1 : 0];
+  }
+
+  static Set whoseMove(int seat) {
+    return WHOSE_MOVES[seat];
+  }
+
+  static Set currentBetter(int seat) {
+    return CURRENT_BETTERS[seat];
+  }
+
+  static Set currentRound(BettingRound round) {
+    return CURRENT_ROUNDS[round.ordinal()];
+  }
+}
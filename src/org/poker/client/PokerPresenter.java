@@ -80,6 +80,7 @@ public class PokerPresenter {
   
   private final PokerLogic pokerLogic = new PokerLogic();
   private final PokerLogicHelper pokerLogicHelper = PokerLogicHelper.getInstance();
+  private final PokerStateDecoder pokerStateDecoder = new PokerStateDecoder();
   private final View view;
   private final Container container;
   
@@ -135,7 +136,7 @@ public class PokerPresenter {
       return;
     }
     
-    pokerState = pokerLogicHelper.gameApiStateToPokerState(updateUI.getState());
+    pokerState = pokerStateDecoder.decode(updateUI.getState(), updateUI.getLastMove());
     int turnIndex = pokerState.getWhoseMove().ordinal();
     
     BettingRound round = pokerState.getCurrentRound();
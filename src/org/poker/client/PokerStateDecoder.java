@@ -0,0 +1,123 @@
+package org.poker.client;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.game_api.GameApi.Delete;
+import org.game_api.GameApi.Operation;
+import org.game_api.GameApi.Set;
+import org.game_api.GameApi.SetVisibility;
+import org.game_api.GameApi.Shuffle;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Converts a sequence of {@code GameApi} states into {@link PokerState}s,
+ * decoding only what changed since the previous state.<P>
+ * The decoder remembers the last state map and the PokerState decoded from
+ * it. Keys written by the move that led to the new state are decoded again;
+ * every other key is compared with its previous value (by reference first)
+ * and its decoded form, such as the card list, the hole cards or the pots,
+ * is reused when it did not change. The move is only a hint, so a wrong or
+ * missing one costs speed, never correctness.<P>
+ * State maps passed in must not be modified afterwards. Not thread-safe.
+ */
+public class PokerStateDecoder extends AbstractPokerLogicBase {
+
+  private final PokerLogicHelper helper = PokerLogicHelper.getInstance();
+  private Map<String, Object> lastApiState;
+  private PokerState lastState;
+  private final java.util.Set<String> changedKeys = new HashSet<String>();
+
+  /**
+   * Decodes the given state.
+   *
+   * @param apiState the state to decode
+   * @param lastMove the operations that turned the previously decoded state
+   *     into this one, or null if unknown
+   */
+  public PokerState decode(Map<String, Object> apiState, List<Operation> lastMove) {
+    if (lastState == null || apiState.size() != lastApiState.size()) {
+      return remember(apiState, helper.gameApiStateToPokerState(apiState));
+    }
+    changedKeys.clear();
+    if (lastMove != null) {
+      for (Operation operation : lastMove) {
+        addChangedKeys(operation);
+      }
+    }
+
+    ImmutableList<Optional<Card>> cards = lastState.getCards();
+    Optional<Card>[] newCards = null;
+    for (int i = 0; i < Card.NUMBER_OF_CARDS; i++) {
+      String key = PokerOperations.cardKey(i);
+      if (isChanged(apiState, key)) {
+        Optional<Card> card = helper.getCard(apiState.get(key));
+        if (!card.equals(cards.get(i))) {
+          if (newCards == null) {
+            newCards = toArray(cards);
+          }
+          newCards[i] = card;
+        }
+      }
+    }
+    if (newCards != null) {
+      cards = ImmutableList.copyOf(newCards);
+    }
+
+    PokerState state = new PokerState(
+        PokerMove.valueOf((String) apiState.get(PREVIOUS_MOVE)),
+        (Boolean) apiState.get(PREVIOUS_MOVE_ALL_IN),
+        (Integer) apiState.get(NUMBER_OF_PLAYERS),
+        Player.valueOf((String) apiState.get(WHOSE_MOVE)),
+        Player.valueOf((String) apiState.get(CURRENT_BETTER)),
+        BettingRound.valueOf((String) apiState.get(CURRENT_ROUND)),
+        cards,
+        isChanged(apiState, BOARD)
+            ? helper.getIntegerList(apiState.get(BOARD)) : lastState.getBoard(),
+        isChanged(apiState, PLAYERS_IN_HAND)
+            ? helper.getPlayerList(apiState.get(PLAYERS_IN_HAND)) : lastState.getPlayersInHand(),
+        isChanged(apiState, HOLE_CARDS)
+            ? helper.getHoleCards(apiState.get(HOLE_CARDS)) : lastState.getHoleCards(),
+        isChanged(apiState, PLAYER_BETS)
+            ? helper.getIntegerList(apiState.get(PLAYER_BETS)) : lastState.getPlayerBets(),
+        isChanged(apiState, PLAYER_CHIPS)
+            ? helper.getIntegerList(apiState.get(PLAYER_CHIPS)) : lastState.getPlayerChips(),
+        isChanged(apiState, POTS)
+            ? helper.getPots(apiState.get(POTS)) : lastState.getPots());
+    return remember(apiState, state);
+  }
+
+  private PokerState remember(Map<String, Object> apiState, PokerState state) {
+    lastApiState = apiState;
+    lastState = state;
+    return state;
+  }
+
+  private void addChangedKeys(Operation operation) {
+    if (operation instanceof Set) {
+      changedKeys.add(((Set) operation).getKey());
+    }
+    else if (operation instanceof SetVisibility) {
+      changedKeys.add(((SetVisibility) operation).getKey());
+    }
+    else if (operation instanceof Delete) {
+      changedKeys.add(((Delete) operation).getKey());
+    }
+    else if (operation instanceof Shuffle) {
+      changedKeys.addAll(((Shuffle) operation).getKeys());
+    }
+  }
+
+  private boolean isChanged(Map<String, Object> apiState, String key) {
+    return changedKeys.contains(key) || !Objects.equal(apiState.get(key), lastApiState.get(key));
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Optional<Card>[] toArray(ImmutableList<Optional<Card>> cards) {
+    return cards.toArray(new Optional[cards.size()]);
+  }
+}
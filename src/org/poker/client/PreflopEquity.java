@@ -0,0 +1,81 @@
+package org.poker.client;
+
+/**
+ * Precomputed preflop chance of winning or tying for each of the 169
+ * starting-hand classes against 1 to {@link #MAX_OPPONENTS} opponents
+ * holding random cards.<P>
+ * The values are generated offline by
+ * {@code org.poker.server.PreflopEquityTableGenerator} into
+ * {@link PreflopEquityData} and decoded into a primitive array on first use.
+ */
+public final class PreflopEquity {
+
+  public static final int NUMBER_OF_CLASSES = 169;
+  public static final int MAX_OPPONENTS = 8;
+
+  /** Values are stored as two base-64 digits, that is in steps of 1 / SCALE. */
+  static final int SCALE = 4095;
+  static final String DIGITS =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+
+  private static double[] table;
+
+  private PreflopEquity() {
+  }
+
+  /**
+   * Returns the starting-hand class of the given hole cards: high * 13 + low
+   * for suited hands, low * 13 + high for offsuit hands and pairs, where
+   * high and low are the rank ordinals of the two cards.
+   */
+  public static int getHandClass(Card first, Card second) {
+    int high = Math.max(first.getRank().ordinal(), second.getRank().ordinal());
+    int low = Math.min(first.getRank().ordinal(), second.getRank().ordinal());
+    return first.getSuit() == second.getSuit() ? high * 13 + low : low * 13 + high;
+  }
+
+  /**
+   * Returns the chance that the given hole cards win or tie at showdown
+   * against the given number of opponents with unknown cards.
+   */
+  public static double getWinningChance(Card first, Card second, int opponents) {
+    return getWinningChance(getHandClass(first, second), opponents);
+  }
+
+  public static double getWinningChance(int handClass, int opponents) {
+    if (handClass < 0 || handClass >= NUMBER_OF_CLASSES) {
+      throw new IllegalArgumentException("Invalid hand class: " + handClass);
+    }
+    if (opponents < 1 || opponents > MAX_OPPONENTS) {
+      throw new IllegalArgumentException("Expected 1 to " + MAX_OPPONENTS + " opponents: " + opponents);
+    }
+    if (table == null) {
+      table = decode(PreflopEquityData.TABLE);
+    }
+    return table[handClass * MAX_OPPONENTS + opponents - 1];
+  }
+
+  static double[] decode(String encoded) {
+    if (encoded.length() != NUMBER_OF_CLASSES * MAX_OPPONENTS * 2) {
+      throw new IllegalStateException("Corrupt preflop table, length " + encoded.length());
+    }
+    double[] values = new double[NUMBER_OF_CLASSES * MAX_OPPONENTS];
+    for (int i = 0; i < values.length; i++) {
+      int value = DIGITS.indexOf(encoded.charAt(2 * i)) * 64 + DIGITS.indexOf(encoded.charAt(2 * i + 1));
+      values[i] = value * 1.0 / SCALE;
+    }
+    return values;
+  }
+
+  /**
+   * Encodes values between 0 and 1 the way {@link PreflopEquityData#TABLE} stores them.
+   */
+  public static String encode(double[] values) {
+    StringBuilder sb = new StringBuilder();
+    for (double value : values) {
+      int scaled = (int) Math.round(value * SCALE);
+      sb.append(DIGITS.charAt(scaled / 64)).append(DIGITS.charAt(scaled % 64));
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,51 @@
+package org.poker.client;
+
+/**
+ * Generated by org.poker.server.PreflopEquityTableGenerator with 100000 trials per entry; do not edit.
+ * Decoded by {@link PreflopEquity}.
+ */
+final class PreflopEquityData {
+
+  static final String TABLE =
+      "g4UPOdLqKGJOIuIDWlNxJyHpGdFhE2EeXEOdKRIKGyGCFXE5YBO5K9InHOGEFhFHXvOdKRH+"
+      + "GnFsE6EZYGOVKCHxGVFSEwELZePVKtISGyFmE6ERaqP/LYI0HBF7FLEfcVRBMNJsHtGrFtFD"
+      + "dzSNNGKEINHAGIFUfpTkOEK3JDHhGiFwhmVYPbMDJ5IeHbGkkgYCRgOFLmKDI1HoY0QVMjKQ"
+      + "I8IIHSGti+V9PrMgKwJnI5IVYnPqLgJFHpGsGHFXZQQYMGJqIUHCGZF2ZAPwLfJJHkGhFzFN"
+      + "ZNPpLaIuHUGOFWExZlPwLBIhG8F2FCEebbQtL0JDHZGVFYE0c1RtMzJ1IFG6GDFQejS5NnKa"
+      + "IiHRGPFjgXUSOrLZJWH0G7F8iRV+P7MXKJInHmGtlAYnSSOmMFKgJJIBZRQxM7K5JXIZHxHN"
+      + "asSIOGLlKJJJISHzlMX4RRNcLdJ+JLIhaURnNHKxJAH1HFGhaMRFMxKNIZHcGnGGaUQ/MeJ1"
+      + "IRG8GNFrbFRIMOJmH0GyF8FNbqQ/MQJZHjGbFkE9dSSMNOKXIcHGGIFefBTcOFK1I4HlGiF2"
+      + "g7UxPDL/JuILHGGNizWZQkM4KkJDHxG5lmZLS2PGMcKqJTIRZ/RfNdLNJzIrIDHabNS4OjMI"
+      + "KjJdI8IKcoT6PkNKLfKOJiIxnCaMS3OoMMKoJlIxbdSUN7LMJZITHXGnboSPNoK+JGIBHDGZ"
+      + "cJSTNcKsJDHkGuF/c5SfNdKiInHUGWFudwSrNkKoIuHZGZFxfwUBOYLNJYHzGtF+hcVePlMH"
+      + "KJIfHSGejZXGQ8NeLBJYIIHPmIZ6TWPjM8LHJqImZ+RDNDKpJJIFHYG4bUSXODLuKCJCIPHl"
+      + "ciTkPOMuLAJxI/IUdZUmQPNnLtKpJoI/o5cBUlP8NNLPKPJXdBTeOsL7J+IrHwHAdKTfOpLs"
+      + "J7IhHjGud/TVOqLqJmILHMGbe/T9OzLkJoIPHJGQf9UbPDLoJhIMG5GTh9WAQCMhKVIoHnGl"
+      + "jsXrRTNyLRJgIdHcmHZnTFPCMrKhJPH/aIQ2MxKgI8ICHBGtbYSBNuLXJuIlHxHTcrTOOyMZ"
+      + "KpJeIeICdkUfQGNfLgKUJZIrehVkREOLMSLGJ+JPqueHWTRhOWMEKpJzejUwPvM3KvJBINHf"
+      + "e3U6PvM0KhI+IHHYgAVbP1MxKnJUICHLhJVuQIM1KnJBHyG9iiWmQjNAKwJKH3HEkWYMSMOX"
+      + "LwJ0IlHmmwaYTyPmNILBJoIXbXRvNZLCJSILHaGyb/SFNmLNJjIYHpHAdHTRPAMIKYJOIVHc"
+      + "eQUiP+NRLWKGJFIUfPVqRBOGMHK7JtI9gIWsSFPMM+LrKYJiskgHYTTQPoNWLkKagPWAQ/Nx"
+      + "LoKBI2H8hAWtRUOILwKMI+IBiGW8RhOBLmKGIyHujVXwRyOPL0KKIuHrk0YuSaOqMLKWI9H3"
+      + "nKa/UJQTNeLgJ8IwcwSfN9LbJmIuHwHIdLTHOiL7KCI0H8HJd4TUO0MCKGJIIHHVetUiPpM9"
+      + "LQJ6IyIEf1VxRAN7L+KoJjIygvXGSOPHM3LeKcJhhkYHTVQBN9MLLLKJuWiwauVERbOlMtLT"
+      + "h+X9TDPZNSLgJ8JGjGYUS3PYNBLOJxIvkfZITJPtNJLLJzIol5aOT3QFNTLjJ7I0nuboUyQ1"
+      + "N4L9KeJDeOTiO6MHKYJUITHlerUJPTMaKkJbIfH4fOUpPiMxLIJuItH8fzU7P8NQLRKCI4IP"
+      + "gsWIRJOFMFKvJnI2hzXWSbPINELfKaJlipYhThQROIMgLYKVjnZ4UyRqPbNfMMLLwSlMdNXh"
+      + "TaQhOSMjkFZ9UZRTOlM9LcKclgauU6RXOvM7LZKOnCbvVrR2PLNTLmKVo6dQW1SpPtNoMAKk"
+      + "f1UiPsMzK+JqItH/gbVMP/NKLRJ9I8IHgyV0QhNhLlKEJGIdhUWMRBN/LzKXJbIahrWhRLOL"
+      + "MLKpJjIrisXxSePLM2LmKaJYjmZBTtQcOJMpLGKDkiadVFRjPGNgMPK+lob0WpTWQyPFNqMb"
+      + "xtnigEaKVzSjQAOHl/bbVzSDPcNfLzKunockWiSeQEN2MRKypWeLXfTWQfORMjLNhdWGQlNt"
+      + "LqKWJMIciCWeRDN9L+KdJeImihXHRZOgMTKxJwI8i/XwR9O2MhLBJ9I/jhYJSXPVM9LRKJJL"
+      + "j4YWS9PeNQLlKTJdk2ZtUGQyOPMmLJKEl+bAVUR4PVNXMMLCnBcaW7TiQ+PJN1MdnMdGXrUI"
+      + "RoPmOKNEzZp2ibc5YlU7SOQToDdIXOTpQ6OtNALkp1exYaUURcPUNXMCjCXuR+OxMeLOKAJH"
+      + "jvYISkPMM+LYKKJTkLYsS1PbNaLpKZJolAZOTiP5NjL6KrJ4llZ0T6QdN9MTK8J/l3aSUUQ1"
+      + "OQMpLSKUmea3U3RGOyM7LgKanTcGWCSPP5OBMXLboaddXtT+RgPhN+MvoyeJYeUxSAQROnNI"
+      + "pJe5ZUVnS5QwPCN31CsQlqgBbvYMVRS2qZftZPVPShQWOmNCl5aLUHQtOcMrLhKcmjawUtRP"
+      + "OvNDLyKzm8bRU/RaPJNiMNLGnZb9VsSEPWNwMRLLnUbgVaRYPANUMCKvoBcZV6SKPmNoMOLC"
+      + "okdAWlSrP9OFMpLQo3dbXSTMQiOjM8LzqBfAY3U3R8QIOWNHqUfnZlVeS+QfPFNorAgNaTWL"
+      + "ToRWPuORrZhUbFXUUmSaQuPM2rvJpOj2fycMY3WY";
+
+  private PreflopEquityData() {
+  }
+}
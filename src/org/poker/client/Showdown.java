@@ -0,0 +1,114 @@
+package org.poker.client;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.poker.client.util.HandEvaluator;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Result of a showdown: the winners of every pot and the chips each player wins.<P>
+ * {@link #resolve(PokerState)} converts the board once, gives every player
+ * still in the hand one {@link HandEvaluator} strength, and then resolves
+ * all pots from those strengths.
+ */
+public class Showdown {
+
+  private final ImmutableList<ImmutableList<Player>> potWinners;
+  private final int[] chipsWon;
+
+  private Showdown(ImmutableList<ImmutableList<Player>> potWinners, int[] chipsWon) {
+    this.potWinners = potWinners;
+    this.chipsWon = chipsWon;
+  }
+
+  public static Showdown resolve(PokerState state) {
+    int[] strengths = getStrengths(state);
+    int[] chipsWon = new int[state.getNumberOfPlayers()];
+    ImmutableList.Builder<ImmutableList<Player>> potWinners = ImmutableList.builder();
+    for (Pot pot : state.getPots()) {
+      ImmutableList.Builder<Player> winners = ImmutableList.builder();
+      int bestStrength = -1;
+      int numberOfWinners = 0;
+      for (Player player : pot.getPlayersInPot()) {
+        int strength = strengths[player.ordinal()];
+        if (strength < 0) {
+          // Folded players stay listed in the pots they paid into
+          continue;
+        }
+        if (strength > bestStrength) {
+          bestStrength = strength;
+          winners = ImmutableList.builder();
+          numberOfWinners = 0;
+        }
+        if (strength == bestStrength) {
+          winners.add(player);
+          numberOfWinners++;
+        }
+      }
+      ImmutableList<Player> potWinnerList = winners.build();
+      // Split evenly, the last winner in pot order gets the odd chips
+      int share = numberOfWinners == 0 ? 0 : pot.getChips() / numberOfWinners;
+      for (int i = 0; i < numberOfWinners; i++) {
+        chipsWon[potWinnerList.get(i).ordinal()] +=
+            i == numberOfWinners - 1 ? pot.getChips() - (numberOfWinners - 1) * share : share;
+      }
+      potWinners.add(potWinnerList);
+    }
+    return new Showdown(potWinners.build(), chipsWon);
+  }
+
+  /**
+   * Returns the strength of every player still in the hand, -1 for players who folded.
+   */
+  static int[] getStrengths(PokerState state) {
+    List<Optional<Card>> cards = state.getCards();
+    int[] boardMasks = new int[4];
+    for (int boardCard : state.getBoard()) {
+      int index = cards.get(boardCard).get().getIndex();
+      boardMasks[index & 3] |= 1 << (index >> 2);
+    }
+    int[] strengths = new int[state.getNumberOfPlayers()];
+    Arrays.fill(strengths, -1);
+    int[] handMasks = new int[4];
+    for (Player player : state.getPlayersInHand()) {
+      System.arraycopy(boardMasks, 0, handMasks, 0, 4);
+      for (int holeCard : state.getHoleCards().get(player.ordinal())) {
+        int index = cards.get(holeCard).get().getIndex();
+        handMasks[index & 3] |= 1 << (index >> 2);
+      }
+      strengths[player.ordinal()] =
+          HandEvaluator.evaluate(handMasks[0], handMasks[1], handMasks[2], handMasks[3]);
+    }
+    return strengths;
+  }
+
+  /**
+   * Returns the winners of each pot, in the order of the pots and of the
+   * players in each pot. A pot nobody contested has no winners.
+   */
+  public ImmutableList<ImmutableList<Player>> getPotWinners() {
+    return potWinners;
+  }
+
+  /**
+   * Returns the chips the given player wins from all pots.
+   */
+  public int getChipsWon(Player player) {
+    return chipsWon[player.ordinal()];
+  }
+
+  /**
+   * Returns the winners of the last pot that has any.
+   */
+  public ImmutableList<Player> getLastPotWinners() {
+    for (int i = potWinners.size() - 1; i >= 0; i--) {
+      if (!potWinners.get(i).isEmpty()) {
+        return potWinners.get(i);
+      }
+    }
+    return potWinners.isEmpty() ? ImmutableList.<Player>of() : potWinners.get(0);
+  }
+}
@@ -0,0 +1,291 @@
+package org.poker.client;
+
+import java.util.List;
+import java.util.Map;
+
+import org.game_api.GameApi;
+import org.game_api.GameApi.EndGame;
+import org.game_api.GameApi.Operation;
+import org.game_api.GameApi.Set;
+import org.game_api.GameApi.SetTurn;
+
+/**
+ * Verifies fold, check and call moves that do not end the betting round
+ * by walking the submitted operations and checking each one against the
+ * decoded last state, without building the expected operations.<P>
+ * For the moves it handles it makes the same decision as comparing with
+ * {@link PokerLogic}'s expected operations: every submitted value must
+ * equal the value PokerLogic would have generated. Any other move
+ * (bets, raises, all-ins, moves that end the round, the end of the game)
+ * is left to that full comparison.
+ */
+class StreamingMoveVerifier extends AbstractPokerLogicBase {
+
+  enum Result {
+    ACCEPT,
+    REJECT,
+    /** The move is not a simple one; compare it with the expected operations instead. */
+    UNSUPPORTED
+  }
+
+  private final PokerLogic pokerLogic;
+
+  StreamingMoveVerifier(PokerLogic pokerLogic) {
+    this.pokerLogic = pokerLogic;
+  }
+
+  Result verify(PokerState lastState, List<Operation> lastMove, List<String> playerIds) {
+    if (lastMove.size() < 2 || !(lastMove.get(1) instanceof Set)) {
+      return Result.UNSUPPORTED;
+    }
+    for (Operation operation : lastMove) {
+      if (operation instanceof EndGame) {
+        return Result.UNSUPPORTED;
+      }
+    }
+    Object move = ((Set) lastMove.get(1)).getValue();
+    if (PokerMove.FOLD.name().equals(move)) {
+      return verifyFold(lastState, lastMove, playerIds);
+    }
+    else if (PokerMove.CHECK.name().equals(move)) {
+      return verifyCheck(lastState, lastMove, playerIds);
+    }
+    else if (PokerMove.CALL.name().equals(move)) {
+      return verifyCall(lastState, lastMove, playerIds);
+    }
+    return Result.UNSUPPORTED;
+  }
+
+  /**
+   * Mirrors {@code PokerLogic.doFoldMove} when no new round starts.
+   */
+  private Result verifyFold(PokerState lastState, List<Operation> lastMove,
+      List<String> playerIds) {
+    if (pokerLogic.isNewRoundStarting(lastState, PokerMove.FOLD, 0)) {
+      return Result.UNSUPPORTED;
+    }
+    Player player = lastState.getWhoseMove();
+    int nextTurnIndex = pokerLogic.getNextTurnIndex(lastState);
+    Cursor operations = new Cursor(lastMove);
+    boolean matches = isTurn(operations.next(), playerIds.get(nextTurnIndex))
+        && isSet(operations.next(), PREVIOUS_MOVE, PokerMove.FOLD.name())
+        && isSet(operations.next(), PREVIOUS_MOVE_ALL_IN, Boolean.FALSE)
+        && isSet(operations.next(), WHOSE_MOVE, P[nextTurnIndex]);
+    if (matches && lastState.getCurrentBetter() == player) {
+      matches = isSet(operations.next(), CURRENT_BETTER, P[nextTurnIndex]);
+    }
+    matches = matches && isSetPlayers(operations.next(), PLAYERS_IN_HAND,
+        lastState.getPlayersInHand(), null, player);
+    boolean isInAnyPot = false;
+    for (Pot pot : lastState.getPots()) {
+      isInAnyPot |= pot.getPlayersInPot().contains(player);
+    }
+    if (matches && isInAnyPot) {
+      Set set = asSet(operations.next(), POTS);
+      List<?> pots = set == null ? null : asList(set.getValue(), lastState.getPots().size());
+      matches = pots != null;
+      for (int i = 0; matches && i < pots.size(); i++) {
+        Pot pot = lastState.getPots().get(i);
+        matches = isPot(pots.get(i), pot.getChips(), pot.getCurrentPotBet(),
+            pot.getPlayersInPot(), null, player, pot.getPlayerBets(), -1, 0);
+      }
+    }
+    return toResult(matches && operations.isDone());
+  }
+
+  /**
+   * Mirrors {@code PokerLogic.doCheckMove} when no new round starts.
+   */
+  private Result verifyCheck(PokerState lastState, List<Operation> lastMove,
+      List<String> playerIds) {
+    if (pokerLogic.isNewRoundStarting(lastState, PokerMove.CHECK, 0)) {
+      return Result.UNSUPPORTED;
+    }
+    int nextTurnIndex = pokerLogic.getNextTurnIndex(lastState);
+    Cursor operations = new Cursor(lastMove);
+    return toResult(isTurn(operations.next(), playerIds.get(nextTurnIndex))
+        && isSet(operations.next(), PREVIOUS_MOVE, PokerMove.CHECK.name())
+        && isSet(operations.next(), PREVIOUS_MOVE_ALL_IN, Boolean.FALSE)
+        && isSet(operations.next(), WHOSE_MOVE, P[nextTurnIndex])
+        && operations.isDone());
+  }
+
+  /**
+   * Mirrors {@code PokerLogic.doCallMove} for calls that are not all-in
+   * and do not start a new round.
+   */
+  private Result verifyCall(PokerState lastState, List<Operation> lastMove,
+      List<String> playerIds) {
+    Player player = lastState.getWhoseMove();
+    int playerIndex = player.ordinal();
+    // The call amount is what the submitted chips say, as in getExpectedOperations
+    Object submittedChips = pokerLogic.getSetOperationVal(PLAYER_CHIPS, lastMove);
+    List<?> chipsList = asList(submittedChips, -1);
+    if (chipsList == null || chipsList.size() <= playerIndex
+        || !(chipsList.get(playerIndex) instanceof Integer)) {
+      return Result.UNSUPPORTED;
+    }
+    int currentPlayerChips = lastState.getPlayerChips().get(playerIndex);
+    int additionalAmount = currentPlayerChips - (Integer) chipsList.get(playerIndex);
+    if (pokerLogic.isNewRoundStarting(lastState, PokerMove.CALL, additionalAmount)
+        || currentPlayerChips == additionalAmount) {
+      return Result.UNSUPPORTED;
+    }
+    int currentBetAmount = lastState.getPlayerBets().get(playerIndex);
+    if (calculateLastRequiredBet(lastState) != currentBetAmount + additionalAmount) {
+      return Result.REJECT;
+    }
+
+    int nextTurnIndex = pokerLogic.getNextTurnIndex(lastState);
+    Cursor operations = new Cursor(lastMove);
+    boolean matches = isTurn(operations.next(), playerIds.get(nextTurnIndex))
+        && isSet(operations.next(), PREVIOUS_MOVE, PokerMove.CALL.name())
+        && isSet(operations.next(), PREVIOUS_MOVE_ALL_IN, Boolean.FALSE)
+        && isSet(operations.next(), WHOSE_MOVE, P[nextTurnIndex])
+        && isSetIntegers(operations.next(), PLAYER_BETS, lastState.getPlayerBets(),
+            playerIndex, currentBetAmount + additionalAmount)
+        && isSetIntegers(operations.next(), PLAYER_CHIPS, lastState.getPlayerChips(),
+            playerIndex, currentPlayerChips - additionalAmount);
+    Set set = matches ? asSet(operations.next(), POTS) : null;
+    List<?> pots = set == null ? null : asList(set.getValue(), lastState.getPots().size());
+    matches = pots != null;
+    for (int i = 0; matches && i < pots.size(); i++) {
+      Pot pot = lastState.getPots().get(i);
+      int existingBet = pot.getPlayerBets().get(playerIndex);
+      matches = isPot(pots.get(i), pot.getChips() + pot.getCurrentPotBet() - existingBet,
+          pot.getCurrentPotBet(), pot.getPlayersInPot(), player, null,
+          pot.getPlayerBets(), playerIndex, pot.getCurrentPotBet());
+    }
+    return toResult(matches && operations.isDone());
+  }
+
+  private static Result toResult(boolean matches) {
+    return matches ? Result.ACCEPT : Result.REJECT;
+  }
+
+  private static boolean isTurn(Operation operation, String playerId) {
+    if (!(operation instanceof SetTurn)) {
+      return false;
+    }
+    SetTurn setTurn = (SetTurn) operation;
+    return playerId.equals(setTurn.getPlayerId()) && setTurn.getNumberOfSecondsForTurn() == 0;
+  }
+
+  /**
+   * Returns the operation as a Set of the given key visible to all, or null.
+   */
+  private static Set asSet(Operation operation, String key) {
+    if (!(operation instanceof Set)) {
+      return null;
+    }
+    Set set = (Set) operation;
+    return key.equals(set.getKey()) && GameApi.ALL.equals(set.getVisibleToPlayerIds())
+        ? set : null;
+  }
+
+  private static boolean isSet(Operation operation, String key, Object value) {
+    Set set = asSet(operation, key);
+    return set != null && value.equals(set.getValue());
+  }
+
+  /**
+   * Returns the value as a list of the given size (any size for -1), or null.
+   */
+  private static List<?> asList(Object value, int size) {
+    if (!(value instanceof List)) {
+      return null;
+    }
+    List<?> list = (List<?>) value;
+    return size == -1 || list.size() == size ? list : null;
+  }
+
+  private static boolean isSetIntegers(Operation operation, String key, List<Integer> values,
+      int index, int replacement) {
+    Set set = asSet(operation, key);
+    return set != null && isIntegers(set.getValue(), values, index, replacement);
+  }
+
+  /**
+   * Returns true if the value equals the given integers with the one at
+   * index (unless -1) replaced.
+   */
+  private static boolean isIntegers(Object value, List<Integer> values, int index,
+      int replacement) {
+    List<?> list = asList(value, values.size());
+    if (list == null) {
+      return false;
+    }
+    for (int i = 0; i < list.size(); i++) {
+      Object element = list.get(i);
+      int expected = i == index ? replacement : values.get(i);
+      if (!(element instanceof Integer) || (Integer) element != expected) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isSetPlayers(Operation operation, String key, List<Player> players,
+      Player added, Player removed) {
+    Set set = asSet(operation, key);
+    return set != null && isPlayers(set.getValue(), players, added, removed);
+  }
+
+  /**
+   * Returns true if the value equals the names of the given players with
+   * {@code added} appended unless already there, and {@code removed} left out.
+   */
+  private static boolean isPlayers(Object value, List<Player> players, Player added,
+      Player removed) {
+    boolean isAdded = added != null && !players.contains(added);
+    boolean isRemoved = removed != null && players.contains(removed);
+    List<?> list = asList(value, players.size() + (isAdded ? 1 : 0) - (isRemoved ? 1 : 0));
+    if (list == null) {
+      return false;
+    }
+    int position = 0;
+    for (Player player : players) {
+      if (isRemoved && player == removed) {
+        // Only the first occurrence is removed
+        isRemoved = false;
+      }
+      else if (!player.name().equals(list.get(position++))) {
+        return false;
+      }
+    }
+    return !isAdded || added.name().equals(list.get(position));
+  }
+
+  private static boolean isPot(Object value, int chips, int currentPotBet, List<Player> players,
+      Player added, Player removed, List<Integer> playerBets, int index, int replacement) {
+    if (!(value instanceof Map)) {
+      return false;
+    }
+    Map<?, ?> pot = (Map<?, ?>) value;
+    return pot.size() == 4
+        && Integer.valueOf(chips).equals(pot.get(CHIPS))
+        && Integer.valueOf(currentPotBet).equals(pot.get(CURRENT_POT_BET))
+        && isPlayers(pot.get(PLAYERS_IN_POT), players, added, removed)
+        && isIntegers(pot.get(PLAYER_BETS), playerBets, index, replacement);
+  }
+
+  /**
+   * Hands out the submitted operations one at a time, null past the end.
+   */
+  private static class Cursor {
+    private final List<Operation> operations;
+    private int position = 0;
+
+    Cursor(List<Operation> operations) {
+      this.operations = operations;
+    }
+
+    Operation next() {
+      return position < operations.size() ? operations.get(position++) : null;
+    }
+
+    boolean isDone() {
+      return position == operations.size();
+    }
+  }
+}
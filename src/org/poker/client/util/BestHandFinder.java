@@ -12,6 +12,7 @@ public class BestHandFinder {
   private List<Card> cards;
   private List<Card> hand;
   private PokerHand bestHand;
+  private int strength = -1;
   
   public BestHandFinder() {
   }
@@ -35,6 +36,18 @@ public class BestHandFinder {
     cards.addAll(board);
     cards.addAll(holeCards);
     bestHand = null;
+    strength = -1;
+  }
+  
+  /**
+   * Returns the strength of the best hand as computed by {@link HandEvaluator}.
+   * Cheaper than {@link #find()} since no 5 card combinations are built.
+   */
+  public int getStrength() {
+    if(strength == -1) {
+      strength = HandEvaluator.evaluate(cards);
+    }
+    return strength;
   }
   
   public PokerHand find() {
@@ -0,0 +1,80 @@
+package org.poker.client.util;
+
+import java.util.Random;
+
+import org.poker.client.Card;
+
+/**
+ * Draws random cards without replacement from a deck of card indices.<P>
+ * The deck is an int array with the live cards in front. Drawing is one step
+ * of a Fisher-Yates shuffle on the undrawn part, and {@link #reset()} undoes
+ * the swaps in reverse order, so a trial costs O(cards drawn) and allocates
+ * nothing. Dead cards (already on the board or in a known hand) are moved
+ * behind the live cards once by {@link #setDeadCards(long)} and never drawn.
+ */
+public class DeckSampler {
+
+  private final Random random;
+  private final int[] deck = new int[Card.NUMBER_OF_CARDS];
+  private final int[] swaps = new int[Card.NUMBER_OF_CARDS];
+  private int liveCount;
+  private int drawn = 0;
+
+  public DeckSampler(Random random) {
+    this.random = random;
+    setDeadCards(0);
+  }
+
+  /**
+   * Makes every card live except the ones in the given mask
+   * (bit i = card with {@link Card#getIndex()} i), and puts back any drawn cards.
+   */
+  public void setDeadCards(long deadCardMask) {
+    int live = 0;
+    int dead = Card.NUMBER_OF_CARDS;
+    for (int card = 0; card < Card.NUMBER_OF_CARDS; card++) {
+      if ((deadCardMask & (1L << card)) == 0) {
+        deck[live++] = card;
+      }
+      else {
+        deck[--dead] = card;
+      }
+    }
+    liveCount = live;
+    drawn = 0;
+  }
+
+  public int getLiveCount() {
+    return liveCount;
+  }
+
+  /**
+   * Returns the index of a random live card that was not drawn since the last reset.
+   */
+  public int draw() {
+    if (drawn == liveCount) {
+      throw new IllegalStateException("No live cards left");
+    }
+    int pick = drawn + random.nextInt(liveCount - drawn);
+    int card = deck[pick];
+    deck[pick] = deck[drawn];
+    deck[drawn] = card;
+    swaps[drawn] = pick;
+    drawn++;
+    return card;
+  }
+
+  /**
+   * Puts the drawn cards back, restoring the deck order of the last
+   * {@link #setDeadCards(long)}.
+   */
+  public void reset() {
+    while (drawn > 0) {
+      drawn--;
+      int pick = swaps[drawn];
+      int card = deck[drawn];
+      deck[drawn] = deck[pick];
+      deck[pick] = card;
+    }
+  }
+}
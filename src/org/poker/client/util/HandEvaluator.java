@@ -0,0 +1,175 @@
+package org.poker.client.util;
+
+import java.util.List;
+
+import org.poker.client.Card;
+
+/**
+ * Table driven evaluator for 5, 6 or 7 card poker hands.<P>
+ * Cards are folded into four 13-bit rank masks (one per suit) and
+ * the best 5 card hand is read off precomputed per-mask tables, so
+ * no 5 card combinations are enumerated and nothing is allocated.<P>
+ * The returned strength is a single int; a larger value is a better
+ * hand, and the ordering is the same as {@link PokerHand#compareRanking}.
+ * Layout (most significant first): 4 bits hand category (same numbers as
+ * {@link PokerHand#getRanking()}), followed by up to five 4-bit rank values
+ * (2 - 14, Ace = 14; 5 for the high card of a wheel straight).
+ */
+public final class HandEvaluator {
+
+  public static final int HIGH_CARD = 0;
+  public static final int PAIR = 1;
+  public static final int TWO_PAIR = 2;
+  public static final int THREE_OF_A_KIND = 3;
+  public static final int STRAIGHT = 4;
+  public static final int FLUSH = 5;
+  public static final int FULL_HOUSE = 6;
+  public static final int FOUR_OF_A_KIND = 7;
+  public static final int STRAIGHT_FLUSH = 8;
+
+  static final int CATEGORY_SHIFT = 20;
+  private static final int RANK_MASKS = 1 << 13;
+  private static final int WHEEL = (1 << 12) | 0xF;
+
+  /**
+   * Rank value (2 - 14) of the highest card of the best straight
+   * contained in the rank mask, or 0 if there is none.
+   */
+  private static final byte[] STRAIGHT_HIGH = new byte[RANK_MASKS];
+
+  /**
+   * The five highest rank values of the mask packed into nibbles,
+   * highest first. Masks with fewer bits are padded with zeros.
+   */
+  private static final int[] TOP_FIVE = new int[RANK_MASKS];
+
+  static {
+    for (int mask = 0; mask < RANK_MASKS; mask++) {
+      for (int high = 12; high >= 4; high--) {
+        int run = 0x1F << (high - 4);
+        if ((mask & run) == run) {
+          STRAIGHT_HIGH[mask] = (byte) (high + 2);
+          break;
+        }
+      }
+      if (STRAIGHT_HIGH[mask] == 0 && (mask & WHEEL) == WHEEL) {
+        STRAIGHT_HIGH[mask] = 5;
+      }
+      int packed = 0;
+      int found = 0;
+      for (int bit = 12; bit >= 0 && found < 5; bit--) {
+        if ((mask & (1 << bit)) != 0) {
+          packed |= (bit + 2) << (4 * (4 - found));
+          found++;
+        }
+      }
+      TOP_FIVE[mask] = packed;
+    }
+  }
+
+  private HandEvaluator() {
+  }
+
+  /**
+   * Evaluates the best 5 card hand among the given 5 to 7 cards.
+   */
+  public static int evaluate(List<Card> cards) {
+    if (cards == null || cards.size() < 5 || cards.size() > 7) {
+      throw new IllegalArgumentException("Expected: 5 to 7 cards. Passed: " +
+          (cards == null ? null : cards.size()));
+    }
+    int[] suitMasks = new int[4];
+    for (Card card : cards) {
+      suitMasks[card.getSuit().ordinal()] |= 1 << card.getRank().ordinal();
+    }
+    return evaluate(suitMasks[0], suitMasks[1], suitMasks[2], suitMasks[3]);
+  }
+
+  /**
+   * Evaluates the best 5 card hand of a set of 5 to 7 distinct cards,
+   * given as one 13-bit rank mask per suit (bit i = Rank.values()[i]).
+   */
+  public static int evaluate(int clubs, int diamonds, int hearts, int spades) {
+    int flushMask = clubs;
+    if (Integer.bitCount(diamonds) >= 5) {
+      flushMask = diamonds;
+    }
+    else if (Integer.bitCount(hearts) >= 5) {
+      flushMask = hearts;
+    }
+    else if (Integer.bitCount(spades) >= 5) {
+      flushMask = spades;
+    }
+    if (Integer.bitCount(flushMask) >= 5) {
+      // With at most 7 cards a flush rules out quads and full houses
+      int straightFlushHigh = STRAIGHT_HIGH[flushMask];
+      if (straightFlushHigh != 0) {
+        return category(STRAIGHT_FLUSH) | straightFlushHigh << 16;
+      }
+      return category(FLUSH) | TOP_FIVE[flushMask];
+    }
+
+    // Ranks present at least once, twice and three times
+    int atLeastTwo = (clubs & diamonds) | (hearts & spades) | ((clubs | diamonds) & (hearts | spades));
+    int atLeastThree = (clubs & diamonds & (hearts | spades)) | (hearts & spades & (clubs | diamonds));
+    int four = clubs & diamonds & hearts & spades;
+    int ranks = clubs | diamonds | hearts | spades;
+
+    if (four != 0) {
+      int quadRank = highest(four);
+      return category(FOUR_OF_A_KIND) | quadRank << 16
+          | top(ranks & ~bitOf(quadRank), 1) << 12;
+    }
+    int three = atLeastThree & ~four;
+    if (three != 0) {
+      int tripRank = highest(three);
+      int pairRanks = atLeastTwo & ~bitOf(tripRank);
+      if (pairRanks != 0) {
+        return category(FULL_HOUSE) | tripRank << 16 | highest(pairRanks) << 12;
+      }
+    }
+    int straightHigh = STRAIGHT_HIGH[ranks];
+    if (straightHigh != 0) {
+      return category(STRAIGHT) | straightHigh << 16;
+    }
+    if (three != 0) {
+      int tripRank = highest(three);
+      return category(THREE_OF_A_KIND) | tripRank << 16
+          | top(ranks & ~bitOf(tripRank), 2) << 8;
+    }
+    if (Integer.bitCount(atLeastTwo) >= 2) {
+      int highPair = highest(atLeastTwo);
+      int lowPair = highest(atLeastTwo & ~bitOf(highPair));
+      int kickers = ranks & ~bitOf(highPair) & ~bitOf(lowPair);
+      return category(TWO_PAIR) | highPair << 16 | lowPair << 12 | top(kickers, 1) << 8;
+    }
+    if (atLeastTwo != 0) {
+      int pairRank = highest(atLeastTwo);
+      return category(PAIR) | pairRank << 16 | top(ranks & ~bitOf(pairRank), 3) << 4;
+    }
+    return category(HIGH_CARD) | TOP_FIVE[ranks];
+  }
+
+  /**
+   * Returns the hand category (0 - 8) of an evaluated strength.
+   */
+  public static int getCategory(int strength) {
+    return strength >>> CATEGORY_SHIFT;
+  }
+
+  private static int category(int category) {
+    return category << CATEGORY_SHIFT;
+  }
+
+  private static int top(int mask, int count) {
+    return TOP_FIVE[mask] >>> (4 * (5 - count));
+  }
+
+  private static int highest(int mask) {
+    return TOP_FIVE[mask] >>> 16;
+  }
+
+  private static int bitOf(int rankValue) {
+    return 1 << (rankValue - 2);
+  }
+}
@@ -1,86 +1,119 @@
 package org.poker.client.util;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import org.poker.client.Card;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
 
+/**
+ * A 5 card poker hand.<P>
+ * The cards are kept as a 52-bit mask (bit i = card with {@link Card#getIndex()} i)
+ * plus one 13-bit rank mask per suit, so flush, straight, n-of-a-kind and
+ * kicker detection are all bit operations (see {@link HandEvaluator}).
+ * The ranking is computed once and packed into an int.
+ */
 public class PokerHand {
-  
-  private Card[] cards;
-  private Integer[] rankValues;
-  private List<Integer> ranking;
-  
+
+  private final long cardMask;
+  private final int ranking;
+  private List<Integer> rankingList;
+
   public PokerHand(List<Card> cards) {
     this(cards.toArray(new Card[0]));
   }
-  
+
   public PokerHand(Card[] cards) {
     if(cards == null || cards.length != 5) {
-      throw new IllegalArgumentException("Expected: 5 cards. Passed: " + 
+      throw new IllegalArgumentException("Expected: 5 cards. Passed: " +
           (cards == null? cards : cards.length));
     }
-    this.cards = new Card[5];
-    this.rankValues = new Integer[5];
-    for (int i = 0; i < 5; i++) {
-      // Create copies so this object is immutable
-      this.cards[i] = new Card(cards[i].getSuit(), cards[i].getRank());
-      this.rankValues[i] = cards[i].getRank().ordinal() + 2;
+    long mask = 0;
+    for (Card card : cards) {
+      mask |= 1L << card.getIndex();
+    }
+    if(Long.bitCount(mask) != 5) {
+      throw new IllegalArgumentException("Expected: 5 distinct cards.");
     }
-    sortRankValues();
+    this.cardMask = mask;
+    this.ranking = evaluate(mask);
   }
-  
-  private void sortRankValues() {
-    Arrays.sort(rankValues, Collections.reverseOrder());
-    if(rankValues[0] == 14 &&
-        rankValues[1] == 5 &&
-        rankValues[2] == 4 &&
-        rankValues[3] == 3 &&
-        rankValues[4] == 2) {
-      rankValues = new Integer[]{Integer.valueOf(5),
-          Integer.valueOf(4),
-          Integer.valueOf(3),
-          Integer.valueOf(2),
-          Integer.valueOf(1)};
+
+  /**
+   * Creates a hand from a 52-bit card mask with exactly 5 bits set.
+   */
+  public static PokerHand fromCardMask(long cardMask) {
+    if(Long.bitCount(cardMask) != 5 || (cardMask >>> Card.NUMBER_OF_CARDS) != 0) {
+      throw new IllegalArgumentException("Expected: 5 cards. Mask: " + cardMask);
     }
+    return new PokerHand(cardMask);
+  }
+
+  private PokerHand(long cardMask) {
+    this.cardMask = cardMask;
+    this.ranking = evaluate(cardMask);
+  }
+
+  private static int evaluate(long cardMask) {
+    int[] suitMasks = new int[4];
+    long remaining = cardMask;
+    while(remaining != 0) {
+      int index = Long.numberOfTrailingZeros(remaining);
+      suitMasks[index & 3] |= 1 << (index >> 2);
+      remaining &= remaining - 1;
+    }
+    return HandEvaluator.evaluate(suitMasks[0], suitMasks[1], suitMasks[2], suitMasks[3]);
+  }
+
+  public long getCardMask() {
+    return cardMask;
+  }
+
+  /**
+   * Returns the ranking packed into a single int; a larger value is a better hand.
+   * Ordering is the same as {@link #getRanking()} compared element by element.
+   */
+  public int getPackedRanking() {
+    return ranking;
   }
-  
+
   public int compareRanking(PokerHand other) {
-    List<Integer> otherHandRanking = other.getRanking();
-    List<Integer> thisHandRanking = this.getRanking();
-    
-    for(int i=0; i<thisHandRanking.size() && i<otherHandRanking.size(); i++) {
-      if(thisHandRanking.get(i) < otherHandRanking.get(i)) {
-        return -1;
-      }
-      else if(thisHandRanking.get(i) > otherHandRanking.get(i)) {
-        return 1;
-      }
-    }
-    return 0;
+    return ranking < other.ranking ? -1 : (ranking == other.ranking ? 0 : 1);
   }
-  
+
+  /**
+   * Two hands are equal when they rank the same,
+   * which keeps equality consistent with {@link #compareRanking(PokerHand)}.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if(obj == this) return true;
+    if(!(obj instanceof PokerHand)) return false;
+    return ranking == ((PokerHand) obj).ranking;
+  }
+
+  @Override
+  public int hashCode() {
+    return ranking;
+  }
+
   @Override
   public String toString() {
     StringBuilder sb = new StringBuilder();
     sb.append("[");
-    for(int i=0; i<5; i++) {
-      Card card = cards[i];
-      sb.append(card.getRank().getFirstLetter()).append(card.getSuit().getFirstLetterLowerCase());
-      sb.append(i == 4 ? "" : ", ");
+    long remaining = cardMask;
+    while(remaining != 0) {
+      int index = 63 - Long.numberOfLeadingZeros(remaining);
+      sb.append(Card.fromIndex(index).getShortName());
+      remaining &= ~(1L << index);
+      sb.append(remaining == 0 ? "" : ", ");
     }
     sb.append("]");
     return sb.toString();
   }
-  
+
   /**
-   * Lazily calculates the integer list representing the standing of
+   * Lazily unpacks the integer list representing the standing of
    * this poker hand.<P>
    * Starting number:
    * <ul>
@@ -94,108 +127,24 @@ public class PokerHand {
    * <li>1 - Pair</li>
    * <li>0 - High Card</li>
    * </ul>
-   * 
+   * followed by the rank values (2 - 14) that break ties, most significant first.
+   *
    * @return
    */
   public List<Integer> getRanking() {
-    
-    if(ranking != null) {
-      return ranking;
-    }
-    ranking = Lists.newArrayList();
-    
-    if(straight() && flush()) {
-      ranking = ImmutableList.<Integer>of(8, rankValues[0]);
-    }
-    else if(kind(4) != -1) {
-      ranking = ImmutableList.<Integer>of(7, kind(4), kind(1));
-    }
-    else if(kind(3) != -1 && kind(2) != -1) {
-      ranking = ImmutableList.<Integer>of(6, kind(3), kind(2));
-    }
-    else if(flush()) {
-      ranking = ImmutableList.<Integer>builder().
-          add(5).
-          addAll(Arrays.asList(rankValues)).
-          build();
-    }
-    else if(straight()) {
-      ranking = ImmutableList.<Integer>of(4, rankValues[0]);
-    }
-    else if(kind(3) != -1) {
-      ranking = ImmutableList.<Integer>builder().
-          add(3).
-          add(kind(3)).
-          addAll(Arrays.asList(rankValues)).
-          build();
-    }
-    else if(twoPair() != null) {
-      ranking = ImmutableList.<Integer>builder().
-          add(2).
-          addAll(Arrays.asList(twoPair())).
-          addAll(Arrays.asList(rankValues)).
-          build();
-    }
-    else if(kind(2) != -1){
-      ranking = ImmutableList.<Integer>builder().
-          add(1).
-          add(kind(2)).
-          addAll(Arrays.asList(rankValues)).
-          build();
-    }
-    else {
-      ranking = ImmutableList.<Integer>builder().
-          add(0).
-          addAll(Arrays.asList(rankValues)).
-          build();
-    }
-    return ranking;
-  }
-  
-  private boolean flush() {
-    for (int i = 0; i < 4; i++) {
-      if(cards[i].getSuit() != cards[i + 1].getSuit()) {
-        return false;
-      }
-    }
-    return true;
-  }
-  
-  private boolean straight() {
-    Set<Integer> rankSet = new HashSet();
-    rankSet.addAll(Arrays.asList(rankValues));
-    return rankValues[0] - rankValues[4] == 4 && rankSet.size() == 5;
-  }
-  
-  private int kind(int n) {
-    return kind(n, rankValues);
-  }
-  
-  private int kind(int n, Integer[] rankValues) {
-    for (int i = 0; i < 5; i++) {
-      int count = 1;
-      for (int j = i + 1; j < 5; j++) {
-        if(rankValues[j] == rankValues[i]) {
-          count++;
+    if(rankingList == null) {
+      ImmutableList.Builder<Integer> builder = ImmutableList.builder();
+      builder.add(HandEvaluator.getCategory(ranking));
+      for(int shift = 16; shift >= 0; shift -= 4) {
+        int rankValue = (ranking >>> shift) & 0xF;
+        if(rankValue == 0) {
+          break;
         }
+        builder.add(rankValue);
       }
-      if(count == n) {
-        return rankValues[i];
-      }
-    }
-    return -1;
-  }
-  
-  private Integer[] twoPair() {
-    int pair = kind(2);
-    int lowPair = kind(2,
-        new Integer[]{rankValues[4], rankValues[3], rankValues[2], rankValues[1], rankValues[0]});
-    if(pair != -1 && lowPair != pair) {
-      return new Integer[]{pair, lowPair};
-    }
-    else {
-      return null;
+      rankingList = builder.build();
     }
+    return rankingList;
   }
-  
+
 }
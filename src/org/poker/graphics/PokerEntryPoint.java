@@ -18,6 +18,8 @@ public class PokerEntryPoint implements EntryPoint {
   
   ContainerConnector container;
   PokerPresenter pokerPresenter;
+  // One instance for every VerifyMove, so its state decoder can reuse the previous state
+  private final PokerLogic pokerLogic = new PokerLogic();
   
   @Override
   public void onModuleLoad() {
@@ -25,7 +27,7 @@ public class PokerEntryPoint implements EntryPoint {
     Game game = new Game() {
       @Override
       public void sendVerifyMove(VerifyMove verifyMove) {
-        container.sendVerifyMoveDone(new PokerLogic().verify(verifyMove));
+        container.sendVerifyMoveDone(pokerLogic.verify(verifyMove));
       }
       @Override
       public void sendUpdateUI(UpdateUI updateUI) {
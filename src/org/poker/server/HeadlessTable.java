@@ -0,0 +1,115 @@
+package org.poker.server;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.poker.client.AILogic;
+import org.poker.client.AbstractPokerLogicBase;
+import org.poker.client.BettingRound;
+import org.poker.client.PokerLogic;
+import org.poker.client.PokerState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+/**
+ * One table of {@link AILogic} bots playing complete hands without a container.<P>
+ * Moves come straight from the {@link PokerLogic} move generators and are
+ * applied in place to a {@link MutablePokerState}; nothing is verified or
+ * serialized. The bot to move only sees its own projection of the state, so
+ * hidden cards stay hidden. Every hand starts all bots with the same stack,
+ * and the seats rotate by one each hand so that every bot takes every
+ * position in turn.
+ */
+public class HeadlessTable extends AbstractPokerLogicBase {
+
+  /** No hand takes anywhere near this many moves; more means the bots are stuck. */
+  public static final int MAX_MOVES_PER_HAND = 1000;
+
+  private final PokerLogic pokerLogic = new PokerLogic();
+  private final ImmutableList<String> botIds;
+  private final Map<String, AILogic> bots = Maps.newHashMap();
+  private final int startingChips;
+  private final Random random;
+  private long hands = 0;
+  private long moves = 0;
+
+  public HeadlessTable(List<String> botIds, int startingChips) {
+    this(botIds, startingChips, new Random());
+  }
+
+  /**
+   * @param random shuffles the deck of every hand
+   */
+  public HeadlessTable(List<String> botIds, int startingChips, Random random) {
+    if (botIds.size() < 2 || botIds.size() > 9) {
+      throw new IllegalArgumentException("Expected 2 to 9 bots: " + botIds.size());
+    }
+    if (startingChips < BIG_BLIND) {
+      throw new IllegalArgumentException("Expected at least the big blind: " + startingChips);
+    }
+    this.botIds = ImmutableList.copyOf(botIds);
+    for (String botId : botIds) {
+      bots.put(botId, new AILogic());
+    }
+    this.startingChips = startingChips;
+    this.random = random;
+  }
+
+  /**
+   * Plays one hand and returns the chips each bot won or lost in it,
+   * in the order of the bot ids given to the constructor.
+   */
+  public int[] playHand() {
+    int numberOfBots = botIds.size();
+    int button = (int) (hands % numberOfBots);
+    ImmutableList<String> playerIds = ImmutableList.<String>builder()
+        .addAll(botIds.subList(button, numberOfBots))
+        .addAll(botIds.subList(0, button))
+        .build();
+    Map<String, Integer> chips = Maps.newHashMap();
+    for (String playerId : playerIds) {
+      chips.put(playerId, startingChips);
+    }
+
+    MutablePokerState gameState = new MutablePokerState(playerIds, random);
+    gameState.makeMove(pokerLogic.getInitialMove(playerIds, chips));
+    PokerState lastState = null;
+    for (int move = 0; ; move++) {
+      check(move < MAX_MOVES_PER_HAND, "Hand did not end", move);
+      int seat = gameState.getTurn();
+      PokerState state = gameState.toPokerState(seat);
+      if (state.getCurrentRound() == BettingRound.SHOWDOWN) {
+        gameState.makeMove(pokerLogic.doEndGameMove(state, playerIds));
+        moves += move + 1;
+        break;
+      }
+      gameState.makeMove(bots.get(playerIds.get(seat)).decideMove(state, lastState, playerIds));
+      lastState = state;
+    }
+    hands++;
+
+    int[] chipsWon = new int[numberOfBots];
+    for (int seat = 0; seat < numberOfBots; seat++) {
+      chipsWon[botIds.indexOf(playerIds.get(seat))] =
+          gameState.getPlayerChips(seat) - startingChips;
+    }
+    return chipsWon;
+  }
+
+  public ImmutableList<String> getBotIds() {
+    return botIds;
+  }
+
+  public long getHands() {
+    return hands;
+  }
+
+  /**
+   * Returns the number of moves made in all hands, counting the end-of-game move.
+   */
+  public long getMoves() {
+    return moves;
+  }
+}
@@ -0,0 +1,490 @@
+package org.poker.server;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.game_api.GameApi;
+import org.game_api.GameApi.AttemptChangeTokens;
+import org.game_api.GameApi.Delete;
+import org.game_api.GameApi.EndGame;
+import org.game_api.GameApi.Operation;
+import org.game_api.GameApi.Set;
+import org.game_api.GameApi.SetTurn;
+import org.game_api.GameApi.SetVisibility;
+import org.game_api.GameApi.Shuffle;
+import org.poker.client.AbstractPokerLogicBase;
+import org.poker.client.BettingRound;
+import org.poker.client.Card;
+import org.poker.client.Player;
+import org.poker.client.PokerLogic;
+import org.poker.client.PokerLogicHelper;
+import org.poker.client.PokerMove;
+import org.poker.client.PokerState;
+import org.poker.client.Pot;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+/**
+ * Poker game state kept in primitive arrays and updated in place by the
+ * operations {@link PokerLogic} generates.<P>
+ * Chips and bets are int arrays, the players in the hand a bitmask, the pots
+ * parallel int arrays and the 52 card keys card indices plus a visibility
+ * mask per key. Applying a move only touches the keys it sets, and the
+ * {@link PokerState} handed to the move generators is rebuilt only from the
+ * parts that changed. The Map based {@code GameApi} state is only produced
+ * at the boundary by {@link #getStateForPlayerId(String)}.
+ */
+public class MutablePokerState extends AbstractPokerLogicBase {
+
+  private static final int NUMBER_OF_CARDS = Card.NUMBER_OF_CARDS;
+  private static final int NO_CARD = -1;
+  private static final int NO_SEAT = -1;
+  private static final int VISIBLE_TO_ALL = -1;
+  private static final int MAX_PLAYERS = 9;
+
+  private static final Optional<Card> ABSENT_CARD = Optional.absent();
+  private static final String[] CARD_KEYS = new String[NUMBER_OF_CARDS];
+
+  static {
+    for (int i = 0; i < NUMBER_OF_CARDS; i++) {
+      CARD_KEYS[i] = C + i;
+    }
+  }
+
+  private final ImmutableList<String> playerIds;
+  private final Random random;
+  private boolean started = false;
+
+  private int turn = NO_SEAT;
+  private PokerMove previousMove;
+  private boolean previousMoveAllIn;
+  private int numberOfPlayers;
+  private int whoseMove;
+  private int currentBetter;
+  private BettingRound currentRound;
+
+  /** Players in the hand are kept in seat order starting from playersInHandStart. */
+  private int playersInHand;
+  private int playersInHandStart;
+  private int[] playerBets = new int[0];
+  private int[] playerChips = new int[0];
+  private int[] holeCards = new int[0];
+  private int[] board = new int[0];
+
+  private int numberOfPots = 0;
+  private int[] potChips = new int[0];
+  private int[] potBets = new int[0];
+  /** Players of pot i, in pot order, are potPlayers[i][0 .. potPlayerCounts[i]). */
+  private int[][] potPlayers = new int[0][];
+  private int[] potPlayerCounts = new int[0];
+  private int[][] potPlayerBets = new int[0][];
+
+  private final int[] cards = new int[NUMBER_OF_CARDS];
+  private final int[] cardVisibility = new int[NUMBER_OF_CARDS];
+
+  private Map<String, Integer> playerIdToNumberOfTokensInPot = ImmutableMap.of();
+
+  // Parts of the last PokerState that are still up to date, null once changed
+  private ImmutableList<Player> playersInHandList;
+  private ImmutableList<ImmutableList<Integer>> holeCardList;
+  private ImmutableList<Integer> boardList;
+  private ImmutableList<Integer> playerBetList;
+  private ImmutableList<Integer> playerChipList;
+  private ImmutableList<Pot> potList;
+
+  public MutablePokerState(List<String> playerIds, Random random) {
+    if (playerIds.size() > MAX_PLAYERS) {
+      throw new IllegalArgumentException("Expected at most " + MAX_PLAYERS + " players: "
+          + playerIds.size());
+    }
+    this.playerIds = ImmutableList.copyOf(playerIds);
+    this.random = random;
+    Arrays.fill(cards, NO_CARD);
+  }
+
+  public ImmutableList<String> getPlayerIds() {
+    return playerIds;
+  }
+
+  /**
+   * Returns the seat whose turn the last SetTurn gave, or -1 before any.
+   */
+  public int getTurn() {
+    return turn;
+  }
+
+  public BettingRound getCurrentRound() {
+    return currentRound;
+  }
+
+  public int getPlayerChips(int seat) {
+    return playerChips[seat];
+  }
+
+  public Map<String, Integer> getPlayerIdToNumberOfTokensInPot() {
+    return playerIdToNumberOfTokensInPot;
+  }
+
+  public void makeMove(List<Operation> operations) {
+    for (Operation operation : operations) {
+      makeMove(operation);
+    }
+  }
+
+  public void makeMove(Operation operation) {
+    if (operation instanceof Set) {
+      Set set = (Set) operation;
+      set(set.getKey(), set.getValue());
+      if (isCardKey(set.getKey())) {
+        cardVisibility[cardKeyIndex(set.getKey())] = toVisibility(set.getVisibleToPlayerIds());
+      }
+    }
+    else if (operation instanceof SetVisibility) {
+      SetVisibility setVisibility = (SetVisibility) operation;
+      cardVisibility[checkedCardKeyIndex(setVisibility.getKey())] =
+          toVisibility(setVisibility.getVisibleToPlayerIds());
+    }
+    else if (operation instanceof Shuffle) {
+      shuffle(((Shuffle) operation).getKeys());
+    }
+    else if (operation instanceof SetTurn) {
+      turn = seatOf(((SetTurn) operation).getPlayerId());
+    }
+    else if (operation instanceof Delete) {
+      int index = checkedCardKeyIndex(((Delete) operation).getKey());
+      cards[index] = NO_CARD;
+      cardVisibility[index] = VISIBLE_TO_ALL;
+    }
+    else if (operation instanceof AttemptChangeTokens) {
+      playerIdToNumberOfTokensInPot =
+          ((AttemptChangeTokens) operation).getPlayerIdToNumberOfTokensInPot();
+    }
+    else if (!(operation instanceof EndGame)) {
+      throw new IllegalArgumentException("Unsupported operation: " + operation);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void set(String key, Object value) {
+    if (isCardKey(key)) {
+      cards[cardKeyIndex(key)] = Card.indexOfShortName((String) value);
+      return;
+    }
+    started = true;
+    if (PREVIOUS_MOVE.equals(key)) {
+      previousMove = PokerMove.valueOf((String) value);
+    }
+    else if (PREVIOUS_MOVE_ALL_IN.equals(key)) {
+      previousMoveAllIn = (Boolean) value;
+    }
+    else if (NUMBER_OF_PLAYERS.equals(key)) {
+      setNumberOfPlayers((Integer) value);
+    }
+    else if (WHOSE_MOVE.equals(key)) {
+      whoseMove = Player.valueOf((String) value).ordinal();
+    }
+    else if (CURRENT_BETTER.equals(key)) {
+      currentBetter = Player.valueOf((String) value).ordinal();
+    }
+    else if (CURRENT_ROUND.equals(key)) {
+      currentRound = BettingRound.valueOf((String) value);
+    }
+    else if (PLAYERS_IN_HAND.equals(key)) {
+      setPlayersInHand((List<String>) value);
+    }
+    else if (HOLE_CARDS.equals(key)) {
+      List<List<Integer>> holeCardValues = (List<List<Integer>>) value;
+      holeCards = new int[holeCardValues.size() * 2];
+      for (int seat = 0; seat < holeCardValues.size(); seat++) {
+        holeCards[2 * seat] = holeCardValues.get(seat).get(0);
+        holeCards[2 * seat + 1] = holeCardValues.get(seat).get(1);
+      }
+      holeCardList = null;
+    }
+    else if (BOARD.equals(key)) {
+      board = toIntArray((List<Integer>) value, board);
+      boardList = null;
+    }
+    else if (PLAYER_BETS.equals(key)) {
+      playerBets = toIntArray((List<Integer>) value, playerBets);
+      playerBetList = null;
+    }
+    else if (PLAYER_CHIPS.equals(key)) {
+      playerChips = toIntArray((List<Integer>) value, playerChips);
+      playerChipList = null;
+    }
+    else if (POTS.equals(key)) {
+      setPots((List<Map<String, Object>>) value);
+    }
+    else {
+      throw new IllegalArgumentException("Unknown key: " + key);
+    }
+  }
+
+  private void setNumberOfPlayers(int numberOfPlayers) {
+    if (numberOfPlayers != playerIds.size()) {
+      throw new IllegalArgumentException("Expected " + playerIds.size() + " players: "
+          + numberOfPlayers);
+    }
+    this.numberOfPlayers = numberOfPlayers;
+  }
+
+  /**
+   * Players only ever leave the hand, so the list is always in seat order
+   * starting from one seat, and a bitmask and that seat are enough.
+   */
+  private void setPlayersInHand(List<String> players) {
+    int mask = 0;
+    int start = players.isEmpty() ? 0 : Player.valueOf(players.get(0)).ordinal();
+    int last = -1;
+    for (String player : players) {
+      int seat = Player.valueOf(player).ordinal();
+      int position = (seat - start + MAX_PLAYERS) % MAX_PLAYERS;
+      if (position <= last) {
+        throw new IllegalArgumentException("Players in hand out of seat order: " + players);
+      }
+      last = position;
+      mask |= 1 << seat;
+    }
+    playersInHand = mask;
+    playersInHandStart = start;
+    playersInHandList = null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void setPots(List<Map<String, Object>> pots) {
+    int count = pots.size();
+    if (potChips.length < count) {
+      potChips = Arrays.copyOf(potChips, count);
+      potBets = Arrays.copyOf(potBets, count);
+      potPlayerCounts = Arrays.copyOf(potPlayerCounts, count);
+      potPlayers = Arrays.copyOf(potPlayers, count);
+      potPlayerBets = Arrays.copyOf(potPlayerBets, count);
+    }
+    for (int i = 0; i < count; i++) {
+      Map<String, Object> pot = pots.get(i);
+      potChips[i] = (Integer) pot.get(CHIPS);
+      potBets[i] = (Integer) pot.get(CURRENT_POT_BET);
+      List<String> players = (List<String>) pot.get(PLAYERS_IN_POT);
+      if (potPlayers[i] == null || potPlayers[i].length < players.size()) {
+        potPlayers[i] = new int[Math.max(players.size(), numberOfPlayers)];
+      }
+      for (int j = 0; j < players.size(); j++) {
+        potPlayers[i][j] = Player.valueOf(players.get(j)).ordinal();
+      }
+      potPlayerCounts[i] = players.size();
+      potPlayerBets[i] = toIntArray((List<Integer>) pot.get(PLAYER_BETS), potPlayerBets[i]);
+    }
+    numberOfPots = count;
+    potList = null;
+  }
+
+  private static int[] toIntArray(List<Integer> values, int[] reuse) {
+    int[] array = reuse != null && reuse.length == values.size() ? reuse : new int[values.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = values.get(i);
+    }
+    return array;
+  }
+
+  private void shuffle(List<String> keys) {
+    int[] indices = new int[keys.size()];
+    for (int i = 0; i < indices.length; i++) {
+      indices[i] = checkedCardKeyIndex(keys.get(i));
+    }
+    for (int i = indices.length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      swap(cards, indices[i], indices[j]);
+      swap(cardVisibility, indices[i], indices[j]);
+    }
+  }
+
+  private static void swap(int[] array, int i, int j) {
+    int temp = array[i];
+    array[i] = array[j];
+    array[j] = temp;
+  }
+
+  @SuppressWarnings("unchecked")
+  private int toVisibility(Object visibleToPlayerIds) {
+    if (GameApi.ALL.equals(visibleToPlayerIds)) {
+      return VISIBLE_TO_ALL;
+    }
+    int mask = 0;
+    for (String playerId : (List<String>) visibleToPlayerIds) {
+      mask |= 1 << seatOf(playerId);
+    }
+    return mask;
+  }
+
+  private int seatOf(String playerId) {
+    int seat = playerIds.indexOf(playerId);
+    if (seat < 0) {
+      throw new IllegalArgumentException("Unknown player id: " + playerId);
+    }
+    return seat;
+  }
+
+  private static boolean isCardKey(String key) {
+    return key.length() > 1 && key.length() <= 3 && key.startsWith(C)
+        && Character.isDigit(key.charAt(1));
+  }
+
+  private static int cardKeyIndex(String key) {
+    int index = Integer.parseInt(key.substring(1));
+    if (index >= NUMBER_OF_CARDS) {
+      throw new IllegalArgumentException("Unknown key: " + key);
+    }
+    return index;
+  }
+
+  private static int checkedCardKeyIndex(String key) {
+    if (!isCardKey(key)) {
+      throw new IllegalArgumentException("Not a card key: " + key);
+    }
+    return cardKeyIndex(key);
+  }
+
+  private boolean isVisible(int cardKey, int seat) {
+    int visibility = cardVisibility[cardKey];
+    return visibility == VISIBLE_TO_ALL || (seat != NO_SEAT && (visibility & (1 << seat)) != 0);
+  }
+
+  /**
+   * Returns the state as the player in the given seat sees it, or as a
+   * viewer sees it for seat -1. Only the parts changed since the last call
+   * are rebuilt.
+   */
+  public PokerState toPokerState(int seat) {
+    ImmutableList.Builder<Optional<Card>> cardList = ImmutableList.builder();
+    for (int i = 0; i < NUMBER_OF_CARDS; i++) {
+      cardList.add(cards[i] != NO_CARD && isVisible(i, seat)
+          ? PokerLogicHelper.PRESENT_CARDS.get(cards[i]) : ABSENT_CARD);
+    }
+    return new PokerState(previousMove, previousMoveAllIn, numberOfPlayers,
+        Player.values()[whoseMove], Player.values()[currentBetter], currentRound,
+        cardList.build(), getBoardList(), getPlayersInHandList(), getHoleCardList(),
+        getPlayerBetList(), getPlayerChipList(), getPotList());
+  }
+
+  private ImmutableList<Player> getPlayersInHandList() {
+    if (playersInHandList == null) {
+      ImmutableList.Builder<Player> builder = ImmutableList.builder();
+      for (int i = 0; i < MAX_PLAYERS; i++) {
+        int seat = (playersInHandStart + i) % MAX_PLAYERS;
+        if ((playersInHand & (1 << seat)) != 0) {
+          builder.add(Player.values()[seat]);
+        }
+      }
+      playersInHandList = builder.build();
+    }
+    return playersInHandList;
+  }
+
+  private ImmutableList<ImmutableList<Integer>> getHoleCardList() {
+    if (holeCardList == null) {
+      ImmutableList.Builder<ImmutableList<Integer>> builder = ImmutableList.builder();
+      for (int seat = 0; seat < holeCards.length / 2; seat++) {
+        builder.add(ImmutableList.of(holeCards[2 * seat], holeCards[2 * seat + 1]));
+      }
+      holeCardList = builder.build();
+    }
+    return holeCardList;
+  }
+
+  private ImmutableList<Integer> getBoardList() {
+    if (boardList == null) {
+      boardList = toList(board, board.length);
+    }
+    return boardList;
+  }
+
+  private ImmutableList<Integer> getPlayerBetList() {
+    if (playerBetList == null) {
+      playerBetList = toList(playerBets, playerBets.length);
+    }
+    return playerBetList;
+  }
+
+  private ImmutableList<Integer> getPlayerChipList() {
+    if (playerChipList == null) {
+      playerChipList = toList(playerChips, playerChips.length);
+    }
+    return playerChipList;
+  }
+
+  private ImmutableList<Pot> getPotList() {
+    if (potList == null) {
+      ImmutableList.Builder<Pot> builder = ImmutableList.builder();
+      for (int i = 0; i < numberOfPots; i++) {
+        ImmutableList.Builder<Player> players = ImmutableList.builder();
+        for (int j = 0; j < potPlayerCounts[i]; j++) {
+          players.add(Player.values()[potPlayers[i][j]]);
+        }
+        builder.add(new Pot(potChips[i], potBets[i], players.build(),
+            toList(potPlayerBets[i], potPlayerBets[i].length)));
+      }
+      potList = builder.build();
+    }
+    return potList;
+  }
+
+  private static ImmutableList<Integer> toList(int[] values, int length) {
+    ImmutableList.Builder<Integer> builder = ImmutableList.builder();
+    for (int i = 0; i < length; i++) {
+      builder.add(values[i]);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Returns the {@code GameApi} state the given player sees, with null values
+   * for keys hidden from them, as {@code GameState.getStateForPlayerId} would.
+   */
+  public Map<String, Object> getStateForPlayerId(String playerId) {
+    Map<String, Object> state = Maps.newHashMap();
+    int seat = playerIds.indexOf(playerId);
+    for (int i = 0; i < NUMBER_OF_CARDS; i++) {
+      if (cards[i] != NO_CARD) {
+        state.put(CARD_KEYS[i], isVisible(i, seat) ? Card.fromIndex(cards[i]).getShortName() : null);
+      }
+    }
+    if (!started) {
+      return state;
+    }
+    state.put(PREVIOUS_MOVE, previousMove.name());
+    state.put(PREVIOUS_MOVE_ALL_IN, previousMoveAllIn);
+    state.put(NUMBER_OF_PLAYERS, numberOfPlayers);
+    state.put(WHOSE_MOVE, P[whoseMove]);
+    state.put(CURRENT_BETTER, P[currentBetter]);
+    state.put(CURRENT_ROUND, currentRound.name());
+    ImmutableList.Builder<String> players = ImmutableList.builder();
+    for (Player player : getPlayersInHandList()) {
+      players.add(player.name());
+    }
+    state.put(PLAYERS_IN_HAND, players.build());
+    state.put(HOLE_CARDS, getHoleCardList());
+    state.put(BOARD, getBoardList());
+    state.put(PLAYER_BETS, getPlayerBetList());
+    state.put(PLAYER_CHIPS, getPlayerChipList());
+    ImmutableList.Builder<Map<String, Object>> pots = ImmutableList.builder();
+    for (Pot pot : getPotList()) {
+      ImmutableList.Builder<String> potPlayerNames = ImmutableList.builder();
+      for (Player player : pot.getPlayersInPot()) {
+        potPlayerNames.add(player.name());
+      }
+      pots.add(ImmutableMap.<String, Object>of(
+          CHIPS, pot.getChips(),
+          CURRENT_POT_BET, pot.getCurrentPotBet(),
+          PLAYERS_IN_POT, potPlayerNames.build(),
+          PLAYER_BETS, pot.getPlayerBets()));
+    }
+    state.put(POTS, pots.build());
+    return state;
+  }
+}
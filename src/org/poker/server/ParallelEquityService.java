@@ -0,0 +1,157 @@
+package org.poker.server;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.poker.client.Card;
+import org.poker.client.Equity;
+import org.poker.client.EquityCalculator;
+import org.poker.client.util.DeckSampler;
+
+import com.google.common.base.Optional;
+
+/**
+ * Monte Carlo equity for server-side AI, spread over a ForkJoinPool.<P>
+ * Trials are cut into fixed-size chunks. Every chunk has its own
+ * {@link DeckSampler}, seeded from the caller's seed and the chunk number,
+ * and its own {@link EquityCalculator}; chunk results are merged when the
+ * tasks are joined, so workers share no mutable state. Because the chunks
+ * and the merge tree do not depend on the number of threads, the same seed
+ * always gives the same result.<P>
+ * A service created without a pool owns its own one; {@link #close()} shuts
+ * it down. A pool passed in stays the caller's to shut down.
+ */
+public class ParallelEquityService implements Closeable {
+
+  public static final int DEFAULT_CHUNK_TRIALS = 4096;
+
+  private final ForkJoinPool pool;
+  private final boolean ownsPool;
+  private final int chunkTrials;
+  private final Random seeds = new Random();
+
+  public ParallelEquityService() {
+    this(new ForkJoinPool(), true, DEFAULT_CHUNK_TRIALS);
+  }
+
+  public ParallelEquityService(ForkJoinPool pool, int chunkTrials) {
+    this(pool, false, chunkTrials);
+  }
+
+  private ParallelEquityService(ForkJoinPool pool, boolean ownsPool, int chunkTrials) {
+    if (chunkTrials <= 0) {
+      throw new IllegalArgumentException("Expected a positive chunk size: " + chunkTrials);
+    }
+    this.pool = pool;
+    this.ownsPool = ownsPool;
+    this.chunkTrials = chunkTrials;
+  }
+
+  /**
+   * Shuts down the pool if the service created it; running tasks still complete.
+   */
+  @Override
+  public void close() {
+    if (ownsPool) {
+      pool.shutdown();
+    }
+  }
+
+  public List<Equity> getEquities(List<Optional<Card>> board,
+      List<List<Optional<Card>>> hands, int trials) {
+    long seed;
+    synchronized (seeds) {
+      seed = seeds.nextLong();
+    }
+    return getEquities(board, hands, trials, seed);
+  }
+
+  /**
+   * Samples the given number of runouts; the result only depends on the arguments.
+   *
+   * @param board the board cards, absent for cards not dealt yet
+   * @param hands hole cards of each seat, absent for unknown cards
+   */
+  public List<Equity> getEquities(List<Optional<Card>> board,
+      List<List<Optional<Card>>> hands, int trials, long seed) {
+    if (trials <= 0) {
+      throw new IllegalArgumentException("Expected a positive number of trials: " + trials);
+    }
+    int chunks = (trials + chunkTrials - 1) / chunkTrials;
+    Spot spot = new Spot(board, hands, trials, seed);
+    return pool.invoke(new SimulationTask(spot, 0, chunks)).getEquities();
+  }
+
+  /**
+   * Mixes the seed with the chunk number (the splitmix64 finalizer) so that
+   * neighbouring chunks start from unrelated generator states.
+   */
+  static long chunkSeed(long seed, int chunk) {
+    long z = seed + (chunk + 1) * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  private static class Spot {
+    private final List<Optional<Card>> board;
+    private final List<List<Optional<Card>>> hands;
+    private final int trials;
+    private final long seed;
+
+    Spot(List<Optional<Card>> board, List<List<Optional<Card>>> hands, int trials, long seed) {
+      this.board = board;
+      this.hands = hands;
+      this.trials = trials;
+      this.seed = seed;
+    }
+  }
+
+  private class SimulationTask extends RecursiveTask<EquityCalculator> {
+    private static final long serialVersionUID = 1L;
+
+    private final Spot spot;
+    private final int fromChunk;
+    private final int toChunk;
+
+    SimulationTask(Spot spot, int fromChunk, int toChunk) {
+      this.spot = spot;
+      this.fromChunk = fromChunk;
+      this.toChunk = toChunk;
+    }
+
+    @Override
+    protected EquityCalculator compute() {
+      if (toChunk - fromChunk == 1) {
+        return simulateChunk();
+      }
+      int middle = (fromChunk + toChunk) >>> 1;
+      SimulationTask left = new SimulationTask(spot, fromChunk, middle);
+      SimulationTask right = new SimulationTask(spot, middle, toChunk);
+      left.fork();
+      EquityCalculator result = right.compute();
+      EquityCalculator leftResult = left.join();
+      leftResult.merge(result);
+      return leftResult;
+    }
+
+    private EquityCalculator simulateChunk() {
+      EquityCalculator calculator = new EquityCalculator(spot.board, spot.hands);
+      int trials = Math.min(chunkTrials, spot.trials - fromChunk * chunkTrials);
+      DeckSampler deckSampler = new DeckSampler(new Random(chunkSeed(spot.seed, fromChunk)));
+      deckSampler.setDeadCards(calculator.getKnownCardMask());
+      int unknown = calculator.getUnknownCount();
+      for (int trial = 0; trial < trials; trial++) {
+        for (int slot = 0; slot < unknown; slot++) {
+          calculator.deal(slot, deckSampler.draw());
+        }
+        calculator.score();
+        deckSampler.reset();
+      }
+      return calculator;
+    }
+  }
+}
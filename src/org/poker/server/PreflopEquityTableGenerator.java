@@ -0,0 +1,108 @@
+package org.poker.server;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import org.poker.client.Card;
+import org.poker.client.Card.Rank;
+import org.poker.client.Card.Suit;
+import org.poker.client.PreflopEquity;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
+
+/**
+ * Offline tool that samples the preflop equity of every starting-hand class
+ * against 1 to 8 random opponents and writes it out as
+ * {@code org.poker.client.PreflopEquityData}.<P>
+ * Usage: {@code PreflopEquityTableGenerator [output file] [trials per entry]}.
+ * Every entry uses its own fixed seed, so the output is reproducible.
+ */
+public class PreflopEquityTableGenerator {
+
+  static final String DEFAULT_OUTPUT = "src/org/poker/client/PreflopEquityData.java";
+  static final int DEFAULT_TRIALS = 100000;
+  private static final int LINE_LENGTH = 72;
+
+  public static void main(String[] args) throws IOException {
+    String output = args.length > 0 ? args[0] : DEFAULT_OUTPUT;
+    int trials = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TRIALS;
+    double[] table;
+    ParallelEquityService service = new ParallelEquityService();
+    try {
+      table = generate(service, trials);
+    }
+    finally {
+      service.close();
+    }
+    Writer writer = new FileWriter(output);
+    try {
+      writer.write(toJavaSource(PreflopEquity.encode(table), trials));
+    }
+    finally {
+      writer.close();
+    }
+  }
+
+  static double[] generate(ParallelEquityService service, int trials) {
+    double[] table = new double[PreflopEquity.NUMBER_OF_CLASSES * PreflopEquity.MAX_OPPONENTS];
+    for (int handClass = 0; handClass < PreflopEquity.NUMBER_OF_CLASSES; handClass++) {
+      List<Optional<Card>> holeCards = representative(handClass);
+      for (int opponents = 1; opponents <= PreflopEquity.MAX_OPPONENTS; opponents++) {
+        List<List<Optional<Card>>> hands = Lists.newArrayList();
+        hands.add(holeCards);
+        for (int i = 0; i < opponents; i++) {
+          hands.add(unknown(2));
+        }
+        int entry = handClass * PreflopEquity.MAX_OPPONENTS + opponents - 1;
+        table[entry] = service.getEquities(unknown(5), hands, trials, entry)
+            .get(0).getWinOrTieShare();
+      }
+    }
+    return table;
+  }
+
+  /**
+   * Returns hole cards of the given class, the inverse of {@link PreflopEquity#getHandClass}.
+   */
+  static List<Optional<Card>> representative(int handClass) {
+    int row = handClass / 13;
+    int column = handClass % 13;
+    Rank[] ranks = Rank.values();
+    Card first = Card.valueOf(Suit.SPADES, ranks[Math.max(row, column)]);
+    Card second = Card.valueOf(row > column ? Suit.SPADES : Suit.HEARTS, ranks[Math.min(row, column)]);
+    List<Optional<Card>> cards = Lists.newArrayList();
+    cards.add(Optional.of(first));
+    cards.add(Optional.of(second));
+    return cards;
+  }
+
+  private static List<Optional<Card>> unknown(int count) {
+    List<Optional<Card>> cards = Lists.newArrayList();
+    for (int i = 0; i < count; i++) {
+      cards.add(Optional.<Card>absent());
+    }
+    return cards;
+  }
+
+  static String toJavaSource(String encoded, int trials) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("package org.poker.client;\n\n");
+    sb.append("/**\n");
+    sb.append(" * Generated by org.poker.server.PreflopEquityTableGenerator with ")
+        .append(trials).append(" trials per entry; do not edit.\n");
+    sb.append(" * Decoded by {@link PreflopEquity}.\n");
+    sb.append(" */\n");
+    sb.append("final class PreflopEquityData {\n\n");
+    sb.append("  static final String TABLE =\n");
+    for (int i = 0; i < encoded.length(); i += LINE_LENGTH) {
+      sb.append(i == 0 ? "      \"" : "      + \"")
+          .append(encoded, i, Math.min(encoded.length(), i + LINE_LENGTH))
+          .append(i + LINE_LENGTH >= encoded.length() ? "\";\n" : "\"\n");
+    }
+    sb.append("\n  private PreflopEquityData() {\n  }\n}\n");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,232 @@
+package org.poker.server;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.poker.client.AbstractPokerLogicBase;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * Plays many {@link HeadlessTable}s in parallel to load-test and tune bots.<P>
+ * Every table is played start to finish by one thread and keeps its own
+ * statistics, which are merged once all tables are done, so threads share
+ * no mutable state.<P>
+ * Usage: {@code TableSimulator [tables] [hands per table] [bots per table] [threads]}.
+ */
+public class TableSimulator {
+
+  public static final int DEFAULT_STARTING_CHIPS = 10000;
+
+  private final int threads;
+  private final int botsPerTable;
+  private final int startingChips;
+
+  public TableSimulator(int threads, int botsPerTable, int startingChips) {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Expected a positive number of threads: " + threads);
+    }
+    this.threads = threads;
+    this.botsPerTable = botsPerTable;
+    this.startingChips = startingChips;
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    int tables = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+    int handsPerTable = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+    int botsPerTable = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+    int threads = args.length > 3
+        ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+    Report report = new TableSimulator(threads, botsPerTable, DEFAULT_STARTING_CHIPS)
+        .simulate(tables, handsPerTable);
+    System.out.println(report);
+  }
+
+  /**
+   * Plays the given number of hands at each table; bot i sits at every table
+   * with id "bot" + i, and its statistics are summed over all tables.
+   */
+  public Report simulate(int tables, final int handsPerTable) throws InterruptedException {
+    final List<String> botIds = Lists.newArrayList();
+    for (int i = 0; i < botsPerTable; i++) {
+      botIds.add("bot" + i);
+    }
+    // Fail in the caller's thread on a bad table size
+    new HeadlessTable(botIds, startingChips);
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    long start = System.nanoTime();
+    try {
+      List<Future<Report>> results = Lists.newArrayList();
+      for (int i = 0; i < tables; i++) {
+        results.add(executor.submit(new Callable<Report>() {
+          @Override
+          public Report call() {
+            return playTable(new HeadlessTable(botIds, startingChips), handsPerTable);
+          }
+        }));
+      }
+      Report total = new Report(botIds);
+      for (Future<Report> result : results) {
+        total.add(result.get());
+      }
+      total.nanos = System.nanoTime() - start;
+      return total;
+    }
+    catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  static Report playTable(HeadlessTable table, int hands) {
+    Report report = new Report(table.getBotIds());
+    for (int hand = 0; hand < hands; hand++) {
+      int[] chipsWon = table.playHand();
+      for (int bot = 0; bot < chipsWon.length; bot++) {
+        report.bots.get(bot).add(chipsWon[bot]);
+      }
+    }
+    report.hands = table.getHands();
+    report.moves = table.getMoves();
+    return report;
+  }
+
+  /**
+   * Chips one bot won and lost over all the hands it played.
+   */
+  public static class BotStats {
+    private final String botId;
+    private long hands = 0;
+    private long handsWon = 0;
+    private long netChips = 0;
+    private double sumOfSquares = 0;
+
+    BotStats(String botId) {
+      this.botId = botId;
+    }
+
+    void add(int chipsWon) {
+      hands++;
+      handsWon += chipsWon > 0 ? 1 : 0;
+      netChips += chipsWon;
+      sumOfSquares += (double) chipsWon * chipsWon;
+    }
+
+    void add(BotStats other) {
+      hands += other.hands;
+      handsWon += other.handsWon;
+      netChips += other.netChips;
+      sumOfSquares += other.sumOfSquares;
+    }
+
+    public String getBotId() {
+      return botId;
+    }
+
+    public long getHands() {
+      return hands;
+    }
+
+    /**
+     * Returns the number of hands in which the bot won more chips than it put in.
+     */
+    public long getHandsWon() {
+      return handsWon;
+    }
+
+    public long getNetChips() {
+      return netChips;
+    }
+
+    /**
+     * Returns the average number of big blinds won per 100 hands.
+     */
+    public double getBigBlindsPer100() {
+      return hands == 0 ? 0 : netChips * 100.0 / hands / AbstractPokerLogicBase.BIG_BLIND;
+    }
+
+    /**
+     * Returns the standard deviation of the chips won in one hand.
+     */
+    public double getStandardDeviation() {
+      if (hands < 2) {
+        return 0;
+      }
+      double mean = netChips * 1.0 / hands;
+      return Math.sqrt(Math.max(0, (sumOfSquares - hands * mean * mean) / (hands - 1)));
+    }
+
+    @Override
+    public String toString() {
+      return botId + ": hands=" + hands + ", won=" + handsWon + ", net=" + netChips
+          + ", bb/100=" + Math.round(getBigBlindsPer100() * 100) / 100.0
+          + ", stddev=" + Math.round(getStandardDeviation());
+    }
+  }
+
+  /**
+   * Totals of a simulation: hands, moves, time taken and the statistics of every bot.
+   */
+  public static class Report {
+    private final ImmutableList<BotStats> bots;
+    private long hands = 0;
+    private long moves = 0;
+    private long nanos = 0;
+
+    Report(List<String> botIds) {
+      ImmutableList.Builder<BotStats> builder = ImmutableList.builder();
+      for (String botId : botIds) {
+        builder.add(new BotStats(botId));
+      }
+      bots = builder.build();
+    }
+
+    void add(Report other) {
+      hands += other.hands;
+      moves += other.moves;
+      for (int i = 0; i < bots.size(); i++) {
+        bots.get(i).add(other.bots.get(i));
+      }
+    }
+
+    public ImmutableList<BotStats> getBots() {
+      return bots;
+    }
+
+    public long getHands() {
+      return hands;
+    }
+
+    public long getMoves() {
+      return moves;
+    }
+
+    public double getSeconds() {
+      return nanos / 1e9;
+    }
+
+    public double getHandsPerSecond() {
+      return nanos == 0 ? 0 : hands / getSeconds();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder();
+      sb.append(hands).append(" hands, ").append(moves).append(" moves in ")
+          .append(Math.round(getSeconds() * 1000) / 1000.0).append("s: ")
+          .append(Math.round(getHandsPerSecond())).append(" hands/s\n");
+      for (BotStats bot : bots) {
+        sb.append("  ").append(bot).append('\n');
+      }
+      return sb.toString();
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package org.game_api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.Map;
+
+import org.game_api.GameApi.Delete;
+import org.game_api.GameApi.EndGame;
+import org.game_api.GameApi.GameReady;
+import org.game_api.GameApi.MakeMove;
+import org.game_api.GameApi.Message;
+import org.game_api.GameApi.Operation;
+import org.game_api.GameApi.Set;
+import org.game_api.GameApi.SetRandomInteger;
+import org.game_api.GameApi.SetTurn;
+import org.game_api.GameApi.SetVisibility;
+import org.game_api.GameApi.Shuffle;
+import org.game_api.GameApi.UpdateUI;
+import org.game_api.GameApi.VerifyMove;
+import org.game_api.GameApi.VerifyMoveDone;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+@RunWith(JUnit4.class)
+public class BinaryMessageCodecTest {
+
+  private final BinaryMessageCodec codec =
+      new BinaryMessageCodec(ImmutableList.of("C0", "C1", "Ah", "pots"));
+
+  private final List<Map<String, Object>> playersInfo = ImmutableList.<Map<String, Object>>of(
+      ImmutableMap.<String, Object>of("playerId", "42"),
+      ImmutableMap.<String, Object>of("playerId", "43"));
+  private final Map<String, Object> state = ImmutableMap.<String, Object>of(
+      "C0", "Ah",
+      "pots", ImmutableList.of(ImmutableMap.<String, Object>of(
+          "chips", 150, "currentPotBet", -50,
+          "playersInPot", ImmutableList.of("P0", "P1"), "playerBets", ImmutableList.of(100, 50))),
+      "isAllIn", false,
+      "name", "\u00e9 \ud83c\udca1");
+  private final List<Operation> move = ImmutableList.<Operation>of(
+      new SetTurn("43"),
+      new Set("C0", "Ah", ImmutableList.of("42")),
+      new SetVisibility("C1"),
+      new SetRandomInteger("r", Integer.MIN_VALUE, Integer.MAX_VALUE),
+      new Shuffle(ImmutableList.of("C0", "C1")),
+      new Delete("board"),
+      new EndGame(ImmutableMap.of("42", 1, "43", 0)));
+
+  private void assertRoundTrip(Message message) {
+    assertEquals(message, codec.decode(codec.encode(message)));
+  }
+
+  @Test
+  public void testRoundTrip() {
+    assertRoundTrip(new GameReady());
+    assertRoundTrip(new MakeMove(move));
+    assertRoundTrip(new VerifyMoveDone());
+    assertRoundTrip(new VerifyMoveDone("43", "Wrong turn"));
+    assertRoundTrip(new UpdateUI("42", playersInfo, state, state, move, "43",
+        ImmutableMap.of("42", 0, "43", 0)));
+    assertRoundTrip(new VerifyMove(playersInfo, state, null, move, "43",
+        ImmutableMap.<String, Integer>of()));
+  }
+
+  @Test
+  public void testDictionaryStringsTakeOneByte() {
+    // Tag, size, "type", "Set", "key", "C0", "value", "Ah", "visibleToPlayerIds", null
+    assertEquals(10, codec.encode(new Set("C0", "Ah")).length);
+  }
+
+  @Test
+  public void testRepeatedStringsAreSentOnce() {
+    List<String> keys = Lists.newArrayList();
+    for (int i = 0; i < 300; i++) {
+      keys.add("key" + i);
+    }
+    List<String> keysTwice = Lists.newArrayList(keys);
+    keysTwice.addAll(keys);
+    Shuffle once = new Shuffle(keys);
+    Shuffle twice = new Shuffle(keysTwice);
+    assertRoundTrip(twice);
+    // Spelling a key out takes at least 6 bytes, referring to it at most 3
+    assertTrue(codec.encode(twice).length - codec.encode(once).length <= 3 * keys.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTruncatedMessage() {
+    byte[] encoded = codec.encode(new MakeMove(move));
+    byte[] truncated = new byte[encoded.length - 1];
+    System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+    codec.decode(truncated);
+  }
+
+  @Test
+  public void testSizesLargerThanTheMessageAreRejected() {
+    byte[][] malformed = {
+      // A map whose "type" is a list of 2^31 - 1 elements
+      {7, 1, 8, 6, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 7},
+      // A map of 2^28 entries
+      {7, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 1},
+      // A negative number of entries
+      {7, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x0f},
+      // A new string of 1000 characters
+      {7, 1, 4, (byte) 0xe8, 7, 'a'}};
+    for (byte[] encoded : malformed) {
+      try {
+        codec.decode(encoded);
+        fail();
+      } catch (IllegalArgumentException expected) {
+      }
+    }
+  }
+}
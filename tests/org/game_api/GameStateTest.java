@@ -0,0 +1,116 @@
+package org.game_api;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.game_api.GameApi.Delete;
+import org.game_api.GameApi.GameState;
+import org.game_api.GameApi.Set;
+import org.game_api.GameApi.SetVisibility;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+@RunWith(JUnit4.class)
+public class GameStateTest {
+
+  private static Map<String, Object> map(Object... keysAndValues) {
+    Map<String, Object> result = Maps.newHashMap();
+    for (int i = 0; i < keysAndValues.length; i += 2) {
+      result.put((String) keysAndValues[i], keysAndValues[i + 1]);
+    }
+    return result;
+  }
+
+  @Test
+  public void testStateForPlayerId() {
+    GameState gameState = new GameState();
+    gameState.makeMove(ImmutableList.of(
+        new Set("board", "Ah"),
+        new Set("C0", "2c", ImmutableList.of("42")),
+        new Set("C1", "3c", ImmutableList.<String>of())));
+    assertEquals(map("board", "Ah", "C0", "2c", "C1", null),
+        gameState.getStateForPlayerId("42"));
+    assertEquals(map("board", "Ah", "C0", null, "C1", null),
+        gameState.getStateForPlayerId("43"));
+  }
+
+  @Test
+  public void testCopyAndViewsDoNotChange() {
+    GameState gameState = new GameState();
+    gameState.makeMove(new Set("C0", "2c", ImmutableList.of("42")));
+    Map<String, Object> before = gameState.getStateForPlayerId("43");
+    GameState copy = gameState.copy();
+    gameState.makeMove(ImmutableList.of(new SetVisibility("C0"), new Set("board", "Ah")));
+    copy.makeMove(new Delete("C0"));
+    assertEquals(map("C0", null), before);
+    assertEquals(map("C0", "2c", "board", "Ah"), gameState.getStateForPlayerId("43"));
+    assertEquals(map(), copy.getStateForPlayerId("43"));
+  }
+
+  @Test
+  public void testChangedKeysForPlayerId() {
+    GameState before = new GameState();
+    before.makeMove(ImmutableList.of(
+        new Set("board", "Ah"),
+        new Set("C0", "2c", ImmutableList.of("42")),
+        new Set("C1", "3c", ImmutableList.of("43"))));
+    GameState after = before.copy();
+    after.makeMove(ImmutableList.of(
+        new Set("board", "Ah"),
+        new SetVisibility("C1"),
+        new Delete("C0"),
+        new Set("turn", "43")));
+    assertEquals(ImmutableList.of("C0", "C1", "turn"),
+        after.getChangedKeysForPlayerId("42", before));
+    // 43 could already see C1
+    assertEquals(ImmutableList.of("C0", "turn"), after.getChangedKeysForPlayerId("43", before));
+    assertEquals(ImmutableList.of(), before.getChangedKeysForPlayerId("42", before));
+    assertEquals(ImmutableList.of("C1"), before.getRestrictedKeysVisibleTo("43"));
+    assertEquals(ImmutableList.of(), after.getRestrictedKeysVisibleTo("43"));
+  }
+
+  @Test
+  public void testCopiesNumberNewKeysIndependently() {
+    GameState original = new GameState();
+    original.makeMove(new Set("C0", "2c", ImmutableList.of("42")));
+    GameState first = original.copy();
+    GameState second = original.copy();
+    first.makeMove(new Set("C1", "3c", ImmutableList.of("42")));
+    second.makeMove(ImmutableList.of(
+        new Set("C2", "4c", ImmutableList.of("42")), new Set("C1", "5c", ImmutableList.of("42"))));
+    assertEquals(ImmutableList.of("C0"), original.getRestrictedKeysVisibleTo("42"));
+    assertEquals(ImmutableList.of("C0", "C1"), first.getRestrictedKeysVisibleTo("42"));
+    assertEquals(ImmutableList.of("C0", "C2", "C1"), second.getRestrictedKeysVisibleTo("42"));
+    assertEquals(ImmutableList.of("C2", "C1"), second.getChangedKeysForPlayerId("42", original));
+    assertEquals(ImmutableList.of(), original.getChangedKeysForPlayerId("42", original.copy()));
+  }
+
+  @Test
+  public void testChangedKeysInBothDirections() {
+    GameState older = new GameState();
+    older.makeMove(new Set("a", 1));
+    GameState newer = older.copy();
+    newer.makeMove(ImmutableList.of(new Set("b", 2), new Set("C0", "2c", ImmutableList.of("42"))));
+    assertEquals(ImmutableList.of("b", "C0"), newer.getChangedKeysForPlayerId("42", older));
+    assertEquals(ImmutableList.of("b", "C0"), older.getChangedKeysForPlayerId("42", newer));
+    // 43 cannot see C0, but its view gains the key
+    assertEquals(ImmutableList.of("b", "C0"), older.getChangedKeysForPlayerId("43", newer));
+  }
+
+  @Test
+  public void testChangedKeysBetweenDivergedCopies() {
+    GameState original = new GameState();
+    original.makeMove(new Set("a", 1));
+    GameState first = original.copy();
+    GameState second = original.copy();
+    first.makeMove(ImmutableList.of(new Set("b", 2), new Set("c", 3)));
+    second.makeMove(ImmutableList.of(new Set("c", 3), new Set("d", 4)));
+    assertEquals(ImmutableList.of("b", "d"), first.getChangedKeysForPlayerId("42", second));
+    assertEquals(ImmutableList.of("b", "d"), second.getChangedKeysForPlayerId("42", first));
+  }
+}
@@ -0,0 +1,137 @@
+package org.game_api;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.game_api.GameApi.Delete;
+import org.game_api.GameApi.Game;
+import org.game_api.GameApi.IteratingPlayerContainer;
+import org.game_api.GameApi.Operation;
+import org.game_api.GameApi.Set;
+import org.game_api.GameApi.SetVisibility;
+import org.game_api.GameApi.UpdateUI;
+import org.game_api.GameApi.VerifyMove;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+@RunWith(JUnit4.class)
+public class IteratingPlayerContainerTest {
+
+  private final List<VerifyMove> verifyMoves = Lists.newArrayList();
+  private final List<UpdateUI> updateUIs = Lists.newArrayList();
+  private final IteratingPlayerContainer container = newContainer(verifyMoves, updateUIs);
+
+  private static IteratingPlayerContainer newContainer(
+      final List<VerifyMove> verifyMoves, final List<UpdateUI> updateUIs) {
+    return new IteratingPlayerContainer(new Game() {
+      @Override
+      public void sendVerifyMove(VerifyMove verifyMove) {
+        verifyMoves.add(verifyMove);
+      }
+
+      @Override
+      public void sendUpdateUI(UpdateUI updateUI) {
+        updateUIs.add(updateUI);
+      }
+    }, 4);
+  }
+
+  private List<Operation> privateCardsMove() {
+    List<String> playerIds = container.getPlayerIds();
+    return ImmutableList.<Operation>of(
+        new Set("board", "Ah"),
+        new Set("C0", "2c", playerIds.subList(0, 1)),
+        new Set("C1", "3c", playerIds.subList(1, 2)));
+  }
+
+  @Test
+  public void testEveryPlayerVerifiesByDefault() {
+    container.sendMakeMove(privateCardsMove());
+    assertEquals(4, verifyMoves.size());
+  }
+
+  @Test
+  public void testVerifyOncePerView() {
+    container.setVerifyOncePerView(true);
+    container.sendMakeMove(privateCardsMove());
+    // 42 and 43 each see one card, 44 and 45 see neither
+    assertEquals(3, verifyMoves.size());
+    assertEquals("Ah", verifyMoves.get(2).getState().get("board"));
+    assertEquals(null, verifyMoves.get(2).getState().get("C0"));
+
+    verifyMoves.clear();
+    container.sendMakeMove(ImmutableList.<Operation>of(
+        new SetVisibility("C0"), new SetVisibility("C1")));
+    // Everyone sees the same now, but not before the move
+    assertEquals(3, verifyMoves.size());
+
+    verifyMoves.clear();
+    container.sendMakeMove(ImmutableList.<Operation>of(new Set("board", "Kh")));
+    assertEquals(1, verifyMoves.size());
+  }
+
+  @Test
+  public void testRepeatedUpdateUiWithDeltas() {
+    List<UpdateUI> fullUpdateUIs = Lists.newArrayList();
+    IteratingPlayerContainer fullContainer =
+        newContainer(Lists.<VerifyMove>newArrayList(), fullUpdateUIs);
+    container.setSendDeltas(true);
+    for (IteratingPlayerContainer c : ImmutableList.of(container, fullContainer)) {
+      c.updateUi("42");
+      c.sendMakeMove(ImmutableList.<Operation>of(new Set("a", 1)));
+      c.sendMakeMove(ImmutableList.<Operation>of(new Set("b", 2)));
+      // 42 last saw the state after the second move, which is newer than the last state
+      c.updateUi("42");
+    }
+    assertEquals(fullUpdateUIs, updateUIs);
+    UpdateUI last = updateUIs.get(updateUIs.size() - 1);
+    assertEquals(ImmutableMap.<String, Object>of("a", 1), last.getLastState());
+  }
+
+  /**
+   * Plays moves and updates on the container: a list of operations is a
+   * move by the player of the last update, a player id an update for them.
+   */
+  private static List<UpdateUI> play(boolean sendDeltas, List<?> steps) {
+    List<UpdateUI> result = Lists.newArrayList();
+    IteratingPlayerContainer container =
+        newContainer(Lists.<VerifyMove>newArrayList(), result);
+    container.setSendDeltas(sendDeltas);
+    for (Object step : steps) {
+      if (step instanceof String) {
+        container.updateUi((String) step);
+      } else {
+        @SuppressWarnings("unchecked")
+        List<Operation> move = (List<Operation>) step;
+        container.sendMakeMove(move);
+      }
+    }
+    return result;
+  }
+
+  @Test
+  public void testDeltasGiveTheSameUpdatesAsFullStates() {
+    List<String> p = ImmutableList.of("42", "43", "44");
+    List<?> steps = ImmutableList.of(
+        "42",
+        ImmutableList.of(new Set("board", "Ah"), new Set("C0", "2c", p.subList(0, 1)),
+            new Set("C1", "3c", p.subList(1, 2)), new Set("C2", "4c", p.subList(0, 2))),
+        "43", "43", "44",
+        ImmutableList.of(new SetVisibility("C0", p.subList(0, 2)), new Delete("board")),
+        "42", "44",
+        ImmutableList.of(new Set("board", "Kh")),
+        ImmutableList.of(new SetVisibility("C1"), new Set("C2", "5c", p.subList(2, 3))),
+        "42", "43", "42", "44", "44",
+        ImmutableList.of(new Delete("C0"), new SetVisibility("C2")),
+        "43", "42", "43");
+    List<UpdateUI> fullUpdateUIs = play(false, steps);
+    assertEquals(19, fullUpdateUIs.size());
+    assertEquals(fullUpdateUIs, play(true, steps));
+  }
+}
@@ -0,0 +1,73 @@
+package org.game_api;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.game_api.GameApi.Delete;
+import org.game_api.GameApi.EndGame;
+import org.game_api.GameApi.GameReady;
+import org.game_api.GameApi.MakeMove;
+import org.game_api.GameApi.Message;
+import org.game_api.GameApi.Operation;
+import org.game_api.GameApi.Set;
+import org.game_api.GameApi.SetTurn;
+import org.game_api.GameApi.SetVisibility;
+import org.game_api.GameApi.Shuffle;
+import org.game_api.GameApi.UpdateUI;
+import org.game_api.GameApi.VerifyMove;
+import org.game_api.GameApi.VerifyMoveDone;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+@RunWith(JUnit4.class)
+public class JsonTreeCodecTest {
+
+  private final JsonTreeCodec<Object> codec = new JsonTreeCodec<Object>(new JavaJsonTree());
+
+  private final List<Map<String, Object>> playersInfo = ImmutableList.<Map<String, Object>>of(
+      ImmutableMap.<String, Object>of("playerId", "42"),
+      ImmutableMap.<String, Object>of("playerId", "43"));
+  private final Map<String, Object> state = ImmutableMap.<String, Object>of(
+      "C0", "Ah",
+      "pots", ImmutableList.of(ImmutableMap.<String, Object>of(
+          "chips", 150, "currentPotBet", 50,
+          "playersInPot", ImmutableList.of("P0", "P1"), "playerBets", ImmutableList.of(100, 50))),
+      "isAllIn", false);
+  private final List<Operation> move = ImmutableList.<Operation>of(
+      new SetTurn("43"),
+      new Set("C0", "Ah", ImmutableList.of("42")),
+      new SetVisibility("C1"),
+      new Shuffle(ImmutableList.of("C0", "C1")),
+      new Delete("board"),
+      new EndGame(ImmutableMap.of("42", 1, "43", 0)));
+
+  private void assertRoundTrip(Message message) {
+    assertEquals(message, codec.decode(codec.encode(message)));
+  }
+
+  @Test
+  public void testRoundTrip() {
+    assertRoundTrip(new GameReady());
+    assertRoundTrip(new MakeMove(move));
+    assertRoundTrip(new VerifyMoveDone());
+    assertRoundTrip(new VerifyMoveDone("43", "Wrong turn"));
+    assertRoundTrip(new UpdateUI("42", playersInfo, state, state, move, "43",
+        ImmutableMap.of("42", 0, "43", 0)));
+    assertRoundTrip(new VerifyMove(playersInfo, state, state, move, "43",
+        ImmutableMap.<String, Integer>of()));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testNumbersAreDoublesInTheTreeAndIntegersInTheMessage() {
+    Object encoded = codec.encode(new SetTurn("42", 30));
+    assertEquals(30.0, ((Map<String, Object>) encoded).get("numberOfSecondsForTurn"));
+    assertEquals(30, ((SetTurn) codec.decode(encoded)).getNumberOfSecondsForTurn());
+  }
+}
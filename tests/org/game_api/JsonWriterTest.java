@@ -0,0 +1,62 @@
+package org.game_api;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.game_api.GameApi.EndGame;
+import org.game_api.GameApi.GameReady;
+import org.game_api.GameApi.MakeMove;
+import org.game_api.GameApi.Operation;
+import org.game_api.GameApi.Set;
+import org.game_api.GameApi.SetTurn;
+import org.game_api.GameApi.VerifyMoveDone;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * The expected strings are what GWT's JSONObject.toString() gives for the
+ * same messages in the browser.
+ */
+@RunWith(JUnit4.class)
+public class JsonWriterTest {
+
+  private final JsonWriter writer = new JsonWriter();
+
+  @Test
+  public void testMessages() {
+    assertEquals("{\"type\":\"GameReady\"}", writer.write(new GameReady()));
+    assertEquals("{\"type\":\"VerifyMoveDone\", \"hackerPlayerId\":null, \"message\":null}",
+        writer.write(new VerifyMoveDone()));
+    assertEquals("{\"type\":\"MakeMove\", \"operations\":["
+        + "{\"type\":\"SetTurn\", \"playerId\":\"42\", \"numberOfSecondsForTurn\":0},"
+        + "{\"type\":\"Set\", \"key\":\"pots\", \"value\":[{\"chips\":150, \"isAllIn\":false}],"
+        + " \"visibleToPlayerIds\":[\"42\",\"43\"]}]}",
+        writer.write(new MakeMove(ImmutableList.<Operation>of(
+            new SetTurn("42"),
+            new Set("pots", ImmutableList.of(
+                ImmutableMap.<String, Object>of("chips", 150, "isAllIn", false)),
+                ImmutableList.of("42", "43"))))));
+  }
+
+  @Test
+  public void testArrayIndexKeysComeFirst() {
+    assertEquals("{\"type\":\"EndGame\", \"playerIdToScore\":"
+        + "{\"7\":1, \"42\":0, \"P0\":2, \"4294967295\":0, \"042\":3}}",
+        writer.write(new EndGame(ImmutableMap.of(
+            "42", 0, "P0", 2, "4294967295", 0, "7", 1, "042", 3))));
+  }
+
+  @Test
+  public void testEscaping() {
+    Map<String, Object> map = ImmutableMap.<String, Object>of(
+        "a\"b", "c\\d\n\u000b\u2028\u00e9");
+    assertEquals("{\"a\\\"b\":\"c\\\\d\\n\\u000B\\u2028\u00e9\"}", writer.write(map));
+    // The builder is reused
+    assertEquals("{\"type\":\"GameReady\"}", writer.write(new GameReady()));
+  }
+}
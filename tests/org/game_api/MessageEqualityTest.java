@@ -0,0 +1,127 @@
+package org.game_api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+import java.util.Map;
+
+import org.game_api.GameApi.AttemptChangeTokens;
+import org.game_api.GameApi.Delete;
+import org.game_api.GameApi.EndGame;
+import org.game_api.GameApi.GameReady;
+import org.game_api.GameApi.Message;
+import org.game_api.GameApi.Operation;
+import org.game_api.GameApi.Set;
+import org.game_api.GameApi.SetRandomInteger;
+import org.game_api.GameApi.SetTurn;
+import org.game_api.GameApi.SetVisibility;
+import org.game_api.GameApi.Shuffle;
+import org.game_api.GameApi.UpdateUI;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+@RunWith(JUnit4.class)
+public class MessageEqualityTest {
+
+  private void assertEqualMessages(Message expected, Message actual) {
+    assertEquals(expected, actual);
+    assertEquals(expected.hashCode(), actual.hashCode());
+  }
+
+  @Test
+  public void testOperationsEqualRegardlessOfCollectionClass() {
+    Map<String, Object> pot = Maps.newHashMap();
+    pot.put("chips", 150);
+    pot.put("playersInPot", Lists.newArrayList("P0", "P1"));
+    List<Object> pots = Lists.newArrayList();
+    pots.add(pot);
+    assertEqualMessages(
+        new Set("pots", ImmutableList.of(ImmutableMap.<String, Object>of(
+            "chips", 150, "playersInPot", ImmutableList.of("P0", "P1"))),
+            ImmutableList.of("42")),
+        new Set("pots", pots, Lists.newArrayList("42")));
+    assertEqualMessages(new SetVisibility("C0"), new SetVisibility("C0"));
+    assertEqualMessages(new SetTurn("42"), new SetTurn("42", 0));
+    assertEqualMessages(new Shuffle(ImmutableList.of("C0", "C1")),
+        new Shuffle(Lists.newArrayList("C0", "C1")));
+    assertEqualMessages(new EndGame("42"), new EndGame(ImmutableMap.of("42", 1)));
+  }
+
+  @Test
+  public void testDifferentOperations() {
+    List<Operation> operations = ImmutableList.of(
+        new Set("C0", "Ah"), new Set("C0", "Ah", ImmutableList.of("42")), new Set("C0", "Kh"),
+        new Set("C1", "Ah"),
+        new SetVisibility("C0"), new SetVisibility("C0", ImmutableList.of("42")),
+        new SetTurn("42"), new SetTurn("42", 30), new SetTurn("43"),
+        new Delete("C0"), new Delete("C1"),
+        new SetRandomInteger("C0", 0, 52), new SetRandomInteger("C0", 1, 52),
+        new Shuffle(ImmutableList.of("C0", "C1")), new Shuffle(ImmutableList.of("C1", "C0")),
+        new EndGame("42"), new EndGame("43"),
+        new AttemptChangeTokens(ImmutableMap.of("42", -100), ImmutableMap.of("42", 100)),
+        new AttemptChangeTokens(ImmutableMap.of("42", -100), ImmutableMap.of("42", 200)));
+    for (int i = 0; i < operations.size(); i++) {
+      for (int j = 0; j < operations.size(); j++) {
+        assertEquals(i == j, operations.get(i).equals(operations.get(j)));
+      }
+    }
+    assertFalse(new Delete("C0").equals(null));
+    assertFalse(new Delete("C0").equals("C0"));
+  }
+
+  @Test
+  public void testOperationsDoNotChangeWithTheCollectionsGivenToThem() {
+    List<Object> value = Lists.<Object>newArrayList("P0", null);
+    List<String> visibleTo = Lists.newArrayList("42");
+    Map<String, Object> pot = Maps.newHashMap();
+    pot.put("playersInPot", value);
+    Set set = new Set("pots", Lists.<Object>newArrayList(pot), visibleTo);
+    SetVisibility setVisibility = new SetVisibility("C0", visibleTo);
+    List<String> keys = Lists.newArrayList("C0", "C1");
+    Shuffle shuffle = new Shuffle(keys);
+    int hash = set.hashCode();
+    value.add("P1");
+    pot.put("chips", 150);
+    visibleTo.add("43");
+    keys.clear();
+    assertEqualMessages(new Set("pots", ImmutableList.of(ImmutableMap.of(
+        "playersInPot", Lists.newArrayList("P0", null))), ImmutableList.of("42")), set);
+    assertEquals(hash, set.hashCode());
+    assertEqualMessages(new SetVisibility("C0", ImmutableList.of("42")), setVisibility);
+    assertEqualMessages(new Shuffle(ImmutableList.of("C0", "C1")), shuffle);
+  }
+
+  @Test
+  public void testImmutableValuesAreKept() {
+    List<String> keys = ImmutableList.of("C0", "C1");
+    assertSame(keys, new Shuffle(keys).getKeys());
+    Object value = ImmutableList.of(ImmutableMap.of("chips", 150));
+    assertSame(value, new Set("pots", value).getValue());
+  }
+
+  @Test
+  public void testMessagesWithOperations() {
+    Map<String, Object> state = ImmutableMap.<String, Object>of("C0", "Ah");
+    List<Map<String, Object>> playersInfo = ImmutableList.<Map<String, Object>>of(
+        ImmutableMap.<String, Object>of("playerId", "42"));
+    Map<String, Integer> tokens = ImmutableMap.of();
+    assertEqualMessages(
+        new UpdateUI("42", playersInfo, state, null,
+            ImmutableList.<Operation>of(new Set("C0", "Ah")), "42", tokens),
+        new UpdateUI("42", playersInfo, state, null,
+            Lists.<Operation>newArrayList(new Set("C0", "Ah")), "42", tokens));
+    assertFalse(new UpdateUI("42", playersInfo, state, null,
+            ImmutableList.<Operation>of(new Set("C0", "Ah")), "42", tokens).equals(
+        new UpdateUI("42", playersInfo, state, null,
+            ImmutableList.<Operation>of(new Set("C0", "Kh")), "42", tokens)));
+    assertEqualMessages(new GameReady(), new GameReady());
+  }
+}
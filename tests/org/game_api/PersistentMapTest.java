@@ -0,0 +1,75 @@
+package org.game_api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+@RunWith(JUnit4.class)
+public class PersistentMapTest {
+
+  @Test
+  public void testMatchesHashMap() {
+    Random random = new Random(0);
+    Map<String, Integer> expected = Maps.newHashMap();
+    PersistentMap<String, Integer> actual = PersistentMap.empty();
+    for (int i = 0; i < 20000; i++) {
+      String key = "K" + random.nextInt(300);
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        actual = actual.minus(key);
+      }
+      else {
+        expected.put(key, i);
+        actual = actual.plus(key, i);
+      }
+      if (i % 1000 == 0) {
+        assertEquals(expected, actual);
+        assertEquals(expected.hashCode(), actual.hashCode());
+      }
+    }
+    assertEquals(expected, actual);
+    assertEquals(expected.size(), actual.entrySet().size());
+  }
+
+  @Test
+  public void testHashCollisions() {
+    // "Aa" and "BB" have the same hash code, and so do "AaAa", "AaBB", "BBAa", "BBBB"
+    List<String> keys = Lists.newArrayList("Aa", "BB", "AaAa", "AaBB", "BBAa", "BBBB", "C");
+    PersistentMap<String, Integer> map = PersistentMap.empty();
+    for (int i = 0; i < keys.size(); i++) {
+      map = map.plus(keys.get(i), i);
+    }
+    assertEquals(ImmutableMap.builder().put("Aa", 0).put("BB", 1).put("AaAa", 2)
+        .put("AaBB", 3).put("BBAa", 4).put("BBBB", 5).put("C", 6).build(), map);
+    map = map.minus("BB").minus("AaAa").minus("BBBB").plus("AaBB", 7);
+    assertEquals(ImmutableMap.of("Aa", 0, "AaBB", 7, "BBAa", 4, "C", 6), map);
+    map = map.minus("Aa").minus("AaBB").minus("BBAa").minus("C");
+    assertEquals(ImmutableMap.of(), map);
+  }
+
+  @Test
+  public void testOldVersionsAreUnchanged() {
+    PersistentMap<String, Integer> first = PersistentMap.<String, Integer>empty()
+        .plus("a", 1).plus("b", 2);
+    PersistentMap<String, Integer> second = first.plus("a", 3).minus("b").plus("c", 4);
+    assertEquals(ImmutableMap.of("a", 1, "b", 2), first);
+    assertEquals(ImmutableMap.of("a", 3, "c", 4), second);
+    assertSame(first, first.minus("missing"));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testPutIsUnsupported() {
+    PersistentMap.<String, Integer>empty().put("a", 1);
+  }
+}
@@ -0,0 +1,91 @@
+package org.game_api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+import java.util.Map;
+
+import org.game_api.GameApi.Delete;
+import org.game_api.GameApi.Game;
+import org.game_api.GameApi.IteratingPlayerContainer;
+import org.game_api.GameApi.Operation;
+import org.game_api.GameApi.Set;
+import org.game_api.GameApi.SetTurn;
+import org.game_api.GameApi.SetVisibility;
+import org.game_api.GameApi.UpdateUI;
+import org.game_api.GameApi.UpdateUIDelta;
+import org.game_api.GameApi.VerifyMove;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+@RunWith(JUnit4.class)
+public class UpdateUIDeltaCacheTest {
+
+  private static class RecordingGame implements Game {
+    private final List<UpdateUI> updates = Lists.newArrayList();
+
+    @Override
+    public void sendVerifyMove(VerifyMove verifyMove) {
+    }
+
+    @Override
+    public void sendUpdateUI(UpdateUI updateUI) {
+      updates.add(updateUI);
+    }
+  }
+
+  private final List<Map<String, Object>> playersInfo =
+      ImmutableList.<Map<String, Object>>of(ImmutableMap.<String, Object>of("playerId", "42"));
+  private final Map<String, Integer> tokens = ImmutableMap.of();
+
+  private UpdateUIDelta delta(int version, int baseVersion, Map<String, Object> changedState) {
+    return new UpdateUIDelta("42", playersInfo, version, baseVersion,
+        changedState, ImmutableList.<String>of(), null, null,
+        ImmutableList.<Operation>of(), "42", tokens);
+  }
+
+  @Test
+  public void testDeltasGiveTheSameUpdates() {
+    RecordingGame fullGame = new RecordingGame();
+    RecordingGame deltaGame = new RecordingGame();
+    IteratingPlayerContainer fullContainer = new IteratingPlayerContainer(fullGame, 3);
+    IteratingPlayerContainer deltaContainer = new IteratingPlayerContainer(deltaGame, 3);
+    deltaContainer.setSendDeltas(true);
+    List<List<Operation>> moves = ImmutableList.<List<Operation>>of(
+        ImmutableList.<Operation>of(new SetTurn("42"), new Set("board", "Ah"),
+            new Set("C0", "2c", ImmutableList.of("42")),
+            new Set("C1", "3c", ImmutableList.of("43"))),
+        ImmutableList.<Operation>of(new SetTurn("43"), new Set("turn", "43")),
+        ImmutableList.<Operation>of(new SetTurn("44"), new SetVisibility("C1"),
+            new Delete("board")),
+        ImmutableList.<Operation>of(new SetTurn("42"), new Set("turn", "42"),
+            new SetVisibility("C0", ImmutableList.of("43"))));
+    for (IteratingPlayerContainer container : ImmutableList.of(fullContainer, deltaContainer)) {
+      for (int i = 0; i < moves.size(); i++) {
+        // Every player's update is a few moves apart from their previous one
+        container.updateUi(container.getPlayerIds().get(i % 3));
+        container.sendMakeMove(moves.get(i));
+      }
+      container.updateUi("44");
+    }
+    assertEquals(fullGame.updates, deltaGame.updates);
+  }
+
+  @Test
+  public void testMissingBaseVersion() {
+    UpdateUIDeltaCache cache = new UpdateUIDeltaCache();
+    Map<String, Object> state = ImmutableMap.<String, Object>of("a", 1, "b", 2);
+    assertNull(cache.apply(delta(3, 2, state)));
+    assertEquals(state, cache.apply(delta(3, UpdateUIDelta.NO_BASE_VERSION, state)).getState());
+    assertNull(cache.apply(delta(5, 4, ImmutableMap.<String, Object>of("a", 3))));
+    assertEquals(ImmutableMap.of("a", 3, "b", 2),
+        cache.apply(delta(4, 3, ImmutableMap.<String, Object>of("a", 3))).getState());
+    assertEquals(4, cache.getVersion());
+  }
+}
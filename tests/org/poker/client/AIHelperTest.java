@@ -0,0 +1,145 @@
+package org.poker.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.poker.client.TestCards.cards;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+
+@RunWith(JUnit4.class)
+public class AIHelperTest {
+
+  private final AIHelper aiHelper = new AIHelper();
+
+  @Test
+  public void testCountRunouts() {
+    assertEquals(990, aiHelper.countRunouts(
+        cards("2c", "7d", "9h", "Jc", "Ks"), cards("As", "Ah"), cards("?", "?")));
+    assertEquals(46 * 990, aiHelper.countRunouts(
+        cards("2c", "7d", "9h", "Jc", "?"), cards("As", "Ah"), cards("?", "?")));
+    assertEquals(44, aiHelper.countRunouts(
+        cards("2c", "7d", "9h", "Jc", "?"), cards("As", "Ah"), cards("Ks", "Kh")));
+  }
+
+  @Test
+  public void testExactTurnEquity() {
+    // Only the two remaining kings on the river lose
+    double winningChance = aiHelper.getWinningChance(
+        cards("2c", "7d", "9h", "Jc", "?"), cards("As", "Ah"), cards("Ks", "Kh"));
+    assertEquals(42.0 / 44, winningChance, 1e-12);
+  }
+
+  @Test
+  public void testTieCountsAsWin() {
+    // Royal flush on the board, every runout is a tie
+    double winningChance = aiHelper.getWinningChance(
+        cards("10s", "Js", "Qs", "Ks", "As"), cards("2c", "3d"), cards("?", "?"));
+    assertEquals(1.0, winningChance, 1e-12);
+  }
+
+  @Test
+  public void testExactRiverEquityIsDeterministic() {
+    List<Optional<Card>> board = cards("2c", "7d", "9h", "Jc", "Ks");
+    double first = aiHelper.getWinningChance(board, cards("Jh", "10h"), cards("?", "?"));
+    double second = aiHelper.getWinningChance(board, cards("Jh", "10h"), cards("?", "?"));
+    assertEquals(first, second, 0);
+    // The value is a whole number of runouts out of 990
+    assertEquals(Math.rint(first * 990), first * 990, 1e-6);
+  }
+
+  @Test
+  public void testMultiwayRiverSharesPerSeat() {
+    List<Equity> equities = aiHelper.getEquities(cards("2c", "7d", "9h", "Jc", "Ks"),
+        ImmutableList.of(cards("As", "Ah"), cards("Kh", "Kd"), cards("Qh", "Qd")));
+    assertEquals(3, equities.size());
+    assertEquals(1.0, equities.get(1).getWinShare(), 0);
+    assertEquals(1.0, equities.get(0).getLossShare(), 0);
+    assertEquals(1.0, equities.get(2).getLossShare(), 0);
+  }
+
+  @Test
+  public void testMultiwaySharesAddUp() {
+    // Three seats on the turn, one of them unknown: every runout has a winner
+    List<Equity> equities = aiHelper.getEquities(cards("2c", "7d", "9h", "Jc", "?"),
+        ImmutableList.of(cards("As", "Ah"), cards("Ks", "Kh"), cards("?", "?")));
+    double potShares = 0;
+    for (Equity equity : equities) {
+      assertEquals(1.0, equity.getWinShare() + equity.getTieShare() + equity.getLossShare(), 1e-9);
+      potShares += equity.getPotShare();
+    }
+    assertEquals(1.0, potShares, 1e-9);
+    assertEquals(44 * 903, equities.get(0).getRunouts());
+  }
+
+  @Test
+  public void testSplitPotAmongThree() {
+    List<Equity> equities = aiHelper.getEquities(cards("10s", "Js", "Qs", "Ks", "As"),
+        ImmutableList.of(cards("2c", "3d"), cards("4c", "5d"), cards("6c", "7d")));
+    for (Equity equity : equities) {
+      assertEquals(1.0, equity.getTieShare(), 0);
+      assertEquals(1.0 / 3, equity.getPotShare(), 1e-12);
+    }
+  }
+
+  private final double[] thresholds = {0.5, 0.75};
+
+  private AIHelper samplingHelper() {
+    return new AIHelper(0, new EquityCache(), new Random(42));
+  }
+
+  @Test
+  public void testEstimateIsExactWhenEnumerated() {
+    EquityEstimate estimate = aiHelper.estimateWinningChance(cards("2c", "7d", "9h", "Jc", "?"),
+        ImmutableList.of(cards("As", "Ah"), cards("Ks", "Kh")), thresholds);
+    assertTrue(estimate.isExact());
+    assertEquals(42.0 / 44, estimate.getEstimate(), 1e-12);
+    assertEquals(0, estimate.getStandardError(), 0);
+    assertEquals(44, estimate.getTrials());
+  }
+
+  @Test
+  public void testClearSpotStopsAfterOneBatch() {
+    // Top set against seven-deuce almost never loses
+    EquityEstimate estimate = samplingHelper().estimateWinningChance(cards("Ad", "9c", "4h", "?", "?"),
+        ImmutableList.of(cards("As", "Ah"), cards("7c", "2d")), thresholds);
+    assertFalse(estimate.isExact());
+    assertEquals(AIHelper.BATCH_TRIALS, estimate.getTrials());
+    assertTrue(estimate.getEstimate() - AIHelper.CONFIDENCE_Z * estimate.getStandardError() > 0.75);
+  }
+
+  @Test
+  public void testTrialBudget() {
+    // A coin flip keeps the interval around 0.5, so the budget is used up
+    EquityEstimate estimate = samplingHelper().estimateWinningChance(cards("?", "?", "?", "?", "?"),
+        ImmutableList.of(cards("?", "?"), cards("?", "?")), new double[] {0.5, 0.6}, 250, 60000);
+    assertTrue(estimate.getTrials() <= 250);
+    assertTrue(estimate.getTrials() >= AIHelper.BATCH_TRIALS);
+  }
+
+  @Test
+  public void testAllWinsSampleKeepsSampling() {
+    // A royal flush wins every runout, but 100 of them alone do not show
+    // that the chance is above 0.99
+    EquityEstimate estimate = samplingHelper().estimateWinningChance(cards("10s", "Js", "Qs", "Ks", "?"),
+        ImmutableList.of(cards("As", "2c"), cards("?", "?")), new double[] {0.99}, 5000, 60000);
+    assertEquals(1.0, estimate.getEstimate(), 0);
+    assertTrue(estimate.getStandardError() > 0);
+    assertTrue(estimate.getTrials() > AIHelper.BATCH_TRIALS);
+    assertTrue(estimate.isClearOf(new double[] {0.99}));
+  }
+
+  @Test
+  public void testStandardErrorIsNeverZero() {
+    assertTrue(AIHelper.standardError(0, AIHelper.BATCH_TRIALS) > 0);
+    assertTrue(AIHelper.standardError(1, AIHelper.BATCH_TRIALS) > 0);
+  }
+}
@@ -0,0 +1,45 @@
+package org.poker.client;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.game_api.GameApi.Operation;
+import org.game_api.GameApi.Set;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+
+@RunWith(JUnit4.class)
+public class AILogicTest extends AbstractPokerLogicBase {
+
+  private final List<String> playerIds = ImmutableList.of("42", "43");
+
+  @Test
+  public void testRaiseWithNothingToCallIsAtLeastTwiceTheBet() {
+    // Preflop, P0 called a raise to 400 and P1, the AI, holds aces with nothing to call
+    ImmutableList.Builder<Optional<Card>> cards = ImmutableList.builder();
+    for (int i = 0; i < Card.NUMBER_OF_CARDS; i++) {
+      cards.add(i == 2 ? Optional.of(Card.fromShortName("As"))
+          : i == 3 ? Optional.of(Card.fromShortName("Ad")) : Optional.<Card>absent());
+    }
+    PokerState state = new PokerState(PokerMove.CALL, false, 2, Player.P1, Player.P1,
+        BettingRound.PRE_FLOP, cards.build(), ImmutableList.of(4, 5, 6, 7, 8),
+        ImmutableList.of(Player.P0, Player.P1),
+        ImmutableList.of(ImmutableList.of(0, 1), ImmutableList.of(2, 3)),
+        ImmutableList.of(400, 400), ImmutableList.of(9600, 9600),
+        ImmutableList.of(new Pot(800, 400, ImmutableList.of(Player.P0, Player.P1),
+            ImmutableList.of(400, 400))));
+    // A raise to three big blinds would only add 200, less than the 400 bet
+    List<Operation> move = new AILogic().decideMove(state, null, playerIds);
+    assertEquals(new Set(PREVIOUS_MOVE, PokerMove.RAISE.name()), move.get(1));
+    for (Operation operation : move) {
+      if (operation instanceof Set && ((Set) operation).getKey().equals(PLAYER_BETS)) {
+        assertEquals(ImmutableList.of(400, 1200), ((Set) operation).getValue());
+      }
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package org.poker.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.poker.client.Card.Rank;
+import org.poker.client.Card.Suit;
+
+@RunWith(JUnit4.class)
+public class CardTest {
+
+  @Test
+  public void testIndexMatchesDealtCardValues() {
+    assertEquals("2c", Card.fromIndex(0).getShortName());
+    assertEquals("2d", Card.fromIndex(1).getShortName());
+    assertEquals("10h", Card.fromIndex(34).getShortName());
+    assertEquals("As", Card.fromIndex(51).getShortName());
+  }
+
+  @Test
+  public void testShortNameRoundTrip() {
+    for (int i = 0; i < Card.NUMBER_OF_CARDS; i++) {
+      Card card = Card.fromIndex(i);
+      assertEquals(i, card.getIndex());
+      assertSame(card, Card.fromShortName(card.getShortName()));
+      assertSame(card, Card.valueOf(card.getSuit(), card.getRank()));
+    }
+  }
+
+  @Test
+  public void testNewCardEqualsSharedInstance() {
+    Card card = new Card(Suit.HEARTS, Rank.QUEEN);
+    assertEquals(Card.fromShortName("Qh"), card);
+    assertEquals(Card.fromShortName("Qh").hashCode(), card.hashCode());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidShortName() {
+    Card.fromShortName("1h");
+  }
+}
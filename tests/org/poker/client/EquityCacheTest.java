@@ -0,0 +1,110 @@
+package org.poker.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.poker.client.TestCards.cards;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+
+@RunWith(JUnit4.class)
+public class EquityCacheTest {
+
+  private long key(List<Optional<Card>> board, List<Optional<Card>> holeCards) {
+    return EquityCache.key(board, ImmutableList.of(holeCards, cards("?", "?")));
+  }
+
+  @Test
+  public void testSuitIsomorphicSpotsShareKey() {
+    long key = key(cards("2c", "7d", "9s", "?", "?"), cards("As", "Kh"));
+    assertEquals(key, key(cards("2h", "7s", "9d", "?", "?"), cards("Ad", "Kc")));
+    // Card order within the board and the hand does not matter either
+    assertEquals(key, key(cards("9d", "2h", "7s", "?", "?"), cards("Kc", "Ad")));
+    // Suited and offsuit hole cards are different spots
+    assertFalse(key == key(cards("2c", "7d", "9s", "?", "?"), cards("As", "Ks")));
+  }
+
+  @Test
+  public void testOnlyFlopAndTurnAreCached() {
+    assertEquals(EquityCache.NO_KEY, key(cards("?", "?", "?", "?", "?"), cards("As", "Kh")));
+    assertEquals(EquityCache.NO_KEY, key(cards("2c", "7d", "9s", "Jc", "Qd"), cards("As", "Kh")));
+    assertEquals(EquityCache.NO_KEY, EquityCache.key(cards("2c", "7d", "9s", "?", "?"),
+        ImmutableList.of(cards("As", "Kh"), cards("Qs", "?"))));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedIsEvicted() {
+    EquityCache cache = new EquityCache(2);
+    EquityEstimate estimate = new EquityEstimate(0.5, 0, 1, true);
+    cache.put(1, estimate);
+    cache.put(2, estimate);
+    cache.get(1);
+    cache.put(3, estimate);
+    assertEquals(2, cache.size());
+    assertSame(estimate, cache.get(1));
+    assertNull(cache.get(2));
+    assertEquals(2, cache.getHits());
+    assertEquals(1, cache.getMisses());
+  }
+
+  @Test
+  public void testSampledEstimateIsOnlyReturnedIfPreciseEnough() {
+    EquityCache cache = new EquityCache(2);
+    EquityEstimate sampled = new EquityEstimate(0.6, 0.02, 400, false);
+    cache.put(1, sampled);
+    assertNull(cache.get(1));
+    assertSame(sampled, cache.get(1, new double[] {0.5}, 5000));
+    assertNull(cache.get(1, new double[] {0.5, 0.62}, 5000));
+    assertSame(sampled, cache.get(1, new double[] {0.5, 0.62}, 400));
+    assertNull(cache.get(1, null, 1000));
+    assertSame(sampled, cache.get(1, null, 200));
+    assertEquals(3, cache.getHits());
+    assertEquals(3, cache.getMisses());
+  }
+
+  @Test
+  public void testMorePreciseEstimateIsKept() {
+    EquityCache cache = new EquityCache(2);
+    EquityEstimate small = new EquityEstimate(0.6, 0.03, 200, false);
+    EquityEstimate large = new EquityEstimate(0.61, 0.01, 2000, false);
+    EquityEstimate exact = new EquityEstimate(0.605, 0, 990, true);
+    cache.put(1, large);
+    cache.put(1, small);
+    assertSame(large, cache.get(1, null, 0));
+    cache.put(1, exact);
+    cache.put(1, large);
+    assertSame(exact, cache.get(1));
+  }
+
+  @Test
+  public void testAIHelperDoesNotReuseUnsettledSample() {
+    AIHelper aiHelper = new AIHelper();
+    List<Optional<Card>> board = cards("2c", "7d", "9s", "?", "?");
+    List<List<Optional<Card>>> hands = ImmutableList.of(cards("As", "Kh"), cards("?", "?"));
+    double chance = aiHelper.getWinningChance(board, hands.get(0), hands.get(1));
+    // The 200-trial sample straddles a threshold at its own estimate
+    aiHelper.estimateWinningChance(board, hands, new double[] {chance}, 5000, 1000);
+    assertEquals(0, aiHelper.getCache().getHits());
+    assertEquals(2, aiHelper.getCache().getMisses());
+  }
+
+  @Test
+  public void testAIHelperReusesIsomorphicResult() {
+    AIHelper aiHelper = new AIHelper();
+    double first = aiHelper.getWinningChance(
+        cards("2c", "7d", "9s", "?", "?"), cards("As", "Kh"), cards("?", "?"));
+    double second = aiHelper.getWinningChance(
+        cards("2h", "7s", "9d", "?", "?"), cards("Ad", "Kc"), cards("?", "?"));
+    assertEquals(first, second, 0);
+    assertEquals(1, aiHelper.getCache().getHits());
+    assertEquals(1, aiHelper.getCache().getMisses());
+  }
+}
@@ -1,5 +1,9 @@
 package org.poker.client;
 
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
 import org.game_api.GameApi.AttemptChangeTokens;
 import org.game_api.GameApi.EndGame;
 import org.game_api.GameApi.Operation;
@@ -11,8 +15,10 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
+import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 
 @RunWith(JUnit4.class)
 public class PokerLogicTest extends AbstractPokerLogicTestBase {
@@ -152,4 +158,24 @@ public class PokerLogicTest extends AbstractPokerLogicTestBase {
         flopFourPlayerWrongCardsOpened, playersInfo_4_players, startingChips_4_player);
     assertHacker(verifyMove);
   } 
+  
+  @Test
+  public void testRiverRaiseNobodyCanAnswerEndsHand() {
+    // P1 and P2 are all-in, so P0's raise ends the hand instead of passing the turn
+    ImmutableMap<String, Object> state = ImmutableMap.<String, Object>builder().
+        putAll(Maps.filterKeys(riverThreePlayerDealersTurnState, Predicates.not(Predicates.in(
+            ImmutableList.of(PLAYER_CHIPS, PLAYER_BETS, POTS))))).
+        put(PLAYER_BETS, ImmutableList.of(0, 1000, 1000)).
+        put(PLAYER_CHIPS, ImmutableList.of(2000, 0, 0)).
+        put(POTS, ImmutableList.of(ImmutableMap.<String, Object>of(
+            CHIPS, 5000,
+            CURRENT_POT_BET, 1000,
+            PLAYERS_IN_POT, ImmutableList.of(P[1], P[2]),
+            PLAYER_BETS, ImmutableList.of(0, 1000, 1000)))).
+        build();
+    PokerState pokerState = PokerLogicHelper.getInstance().gameApiStateToPokerState(state);
+    List<Operation> raise = pokerLogic.doRaiseMove(pokerState, playersIds_3_players, 2000);
+    assertEquals(BettingRound.SHOWDOWN.name(), pokerLogic.getSetOperationVal(CURRENT_ROUND, raise));
+    assertEquals(new SetTurn(p0_id), raise.get(0));
+  }
 }
@@ -0,0 +1,71 @@
+package org.poker.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+import java.util.Map;
+
+import org.game_api.GameApi.Operation;
+import org.game_api.GameApi.Set;
+import org.game_api.GameApi.SetVisibility;
+import org.game_api.GameApi.Shuffle;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+@RunWith(JUnit4.class)
+public class PokerOperationsTest extends AbstractPokerLogicBase {
+
+  private final PokerLogic pokerLogic = new PokerLogic();
+  private final List<String> playerIds = ImmutableList.of("42", "43", "44");
+  private final Map<String, Integer> startingChips =
+      ImmutableMap.of("42", 10000, "43", 10000, "44", 10000);
+
+  @Test
+  public void testCanonicalOperationsEqualFreshOnes() {
+    List<String> cardKeys = Lists.newArrayList();
+    for (int i = 0; i < Card.NUMBER_OF_CARDS; i++) {
+      cardKeys.add(C + i);
+      assertEquals(C + i, PokerOperations.cardKey(i));
+      assertEquals(new Set(C + i, Card.fromIndex(i).getShortName()), PokerOperations.card(i));
+      assertEquals(new SetVisibility(C + i), PokerOperations.openCard(i));
+      assertEquals(new SetVisibility(C + i, ImmutableList.<String>of()),
+          PokerOperations.hideCard(i));
+    }
+    assertEquals(new Shuffle(cardKeys), PokerOperations.shuffleAllCards());
+    for (PokerMove move : PokerMove.values()) {
+      assertEquals(new Set(PREVIOUS_MOVE, move.name()), PokerOperations.previousMove(move));
+    }
+    assertEquals(new Set(PREVIOUS_MOVE_ALL_IN, true), PokerOperations.previousMoveAllIn(true));
+    assertEquals(new Set(PREVIOUS_MOVE_ALL_IN, false), PokerOperations.previousMoveAllIn(false));
+    for (int i = 0; i < P.length; i++) {
+      assertEquals(new Set(WHOSE_MOVE, P[i]), PokerOperations.whoseMove(i));
+      assertEquals(new Set(CURRENT_BETTER, P[i]), PokerOperations.currentBetter(i));
+    }
+    for (BettingRound round : BettingRound.values()) {
+      assertEquals(new Set(CURRENT_ROUND, round.name()), PokerOperations.currentRound(round));
+    }
+  }
+
+  @Test
+  public void testInitialMovesShareOperations() {
+    List<Operation> first = pokerLogic.getInitialMove(playerIds, startingChips);
+    List<Operation> second = pokerLogic.getInitialMove(playerIds, startingChips);
+    assertEquals(first, second);
+    for (int i = 1; i < first.size(); i++) {
+      Operation operation = first.get(i);
+      boolean isConstant = operation instanceof Shuffle
+          || (operation instanceof SetVisibility
+              && ((SetVisibility) operation).getVisibleToPlayerIds().equals(ImmutableList.of()))
+          || (operation instanceof Set && ((Set) operation).getKey().startsWith(C));
+      if (isConstant) {
+        assertSame(operation, second.get(i));
+      }
+    }
+  }
+}
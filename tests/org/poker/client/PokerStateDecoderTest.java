@@ -0,0 +1,95 @@
+package org.poker.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+import java.util.Map;
+
+import org.game_api.GameApi.GameState;
+import org.game_api.GameApi.Operation;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+@RunWith(JUnit4.class)
+public class PokerStateDecoderTest {
+
+  private final PokerLogic pokerLogic = new PokerLogic();
+  private final PokerLogicHelper helper = PokerLogicHelper.getInstance();
+  private final List<String> playerIds = ImmutableList.of("42", "43", "44");
+  private final Map<String, Integer> startingChips =
+      ImmutableMap.of("42", 600, "43", 10000, "44", 3000);
+
+  private void assertSameState(PokerState expected, PokerState actual) {
+    assertEquals(expected.getPreviousMove(), actual.getPreviousMove());
+    assertEquals(expected.isPreviousMoveAllIn(), actual.isPreviousMoveAllIn());
+    assertEquals(expected.getNumberOfPlayers(), actual.getNumberOfPlayers());
+    assertEquals(expected.getWhoseMove(), actual.getWhoseMove());
+    assertEquals(expected.getCurrentBetter(), actual.getCurrentBetter());
+    assertEquals(expected.getCurrentRound(), actual.getCurrentRound());
+    assertEquals(expected.getCards(), actual.getCards());
+    assertEquals(expected.getBoard(), actual.getBoard());
+    assertEquals(expected.getPlayersInHand(), actual.getPlayersInHand());
+    assertEquals(expected.getHoleCards(), actual.getHoleCards());
+    assertEquals(expected.getPlayerBets(), actual.getPlayerBets());
+    assertEquals(expected.getPlayerChips(), actual.getPlayerChips());
+    assertEquals(expected.getPots(), actual.getPots());
+  }
+
+  @Test
+  public void testMatchesFullDecodeThroughWholeHands() {
+    AILogic ai = new AILogic();
+    for (int hand = 0; hand < 10; hand++) {
+      GameState gameState = new GameState();
+      gameState.makeMove(pokerLogic.getInitialMove(playerIds, startingChips));
+      // One decoder per player, as every player's presenter has its own
+      Map<String, PokerStateDecoder> decoders = Maps.newHashMap();
+      for (String playerId : playerIds) {
+        decoders.put(playerId, new PokerStateDecoder());
+      }
+      PokerStateDecoder withoutHints = new PokerStateDecoder();
+      List<Operation> lastMove = null;
+      while (true) {
+        PokerState toMove = null;
+        for (String playerId : playerIds) {
+          Map<String, Object> apiState = gameState.getStateForPlayerId(playerId);
+          PokerState decoded = decoders.get(playerId).decode(apiState, lastMove);
+          assertSameState(helper.gameApiStateToPokerState(apiState), decoded);
+          if (decoded.getWhoseMove().ordinal() == playerIds.indexOf(playerId)) {
+            toMove = decoded;
+          }
+        }
+        Map<String, Object> viewerState = gameState.getStateForPlayerId("-1");
+        assertSameState(helper.gameApiStateToPokerState(viewerState),
+            withoutHints.decode(viewerState, null));
+        if (toMove.getCurrentRound() == BettingRound.END_GAME) {
+          break;
+        }
+        lastMove = toMove.getCurrentRound() == BettingRound.SHOWDOWN
+            ? pokerLogic.doEndGameMove(toMove, playerIds)
+            : ai.decideMove(toMove, null, playerIds);
+        gameState.makeMove(lastMove);
+      }
+    }
+  }
+
+  @Test
+  public void testReusesUnchangedParts() {
+    GameState gameState = new GameState();
+    gameState.makeMove(pokerLogic.getInitialMove(playerIds, startingChips));
+    PokerStateDecoder decoder = new PokerStateDecoder();
+    PokerState first = decoder.decode(gameState.getStateForPlayerId("42"), null);
+    List<Operation> fold = pokerLogic.doFoldMove(first, playerIds);
+    gameState.makeMove(fold);
+    PokerState second = decoder.decode(gameState.getStateForPlayerId("42"), fold);
+    assertSame(first.getCards(), second.getCards());
+    assertSame(first.getHoleCards(), second.getHoleCards());
+    assertSame(first.getPlayerChips(), second.getPlayerChips());
+    assertEquals(ImmutableList.of(Player.P1, Player.P2), second.getPlayersInHand());
+  }
+}
@@ -0,0 +1,50 @@
+package org.poker.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class PreflopEquityTest {
+
+  @Test
+  public void testHandClasses() {
+    assertEquals(12 * 13 + 12, PreflopEquity.getHandClass(Card.fromShortName("As"), Card.fromShortName("Ah")));
+    assertEquals(12 * 13 + 11, PreflopEquity.getHandClass(Card.fromShortName("Kd"), Card.fromShortName("Ad")));
+    assertEquals(11 * 13 + 12, PreflopEquity.getHandClass(Card.fromShortName("Ac"), Card.fromShortName("Kd")));
+    assertEquals(5, PreflopEquity.getHandClass(Card.fromShortName("2h"), Card.fromShortName("7c")));
+  }
+
+  @Test
+  public void testKnownEquities() {
+    Card ace = Card.fromShortName("As");
+    // Aces win or tie about 85% heads-up, seven-deuce offsuit about 37%
+    assertEquals(0.85, PreflopEquity.getWinningChance(ace, Card.fromShortName("Ad"), 1), 0.01);
+    assertEquals(0.37, PreflopEquity.getWinningChance(Card.fromShortName("7c"), Card.fromShortName("2d"), 1), 0.02);
+    // More opponents, lower equity
+    for (int opponents = 2; opponents <= PreflopEquity.MAX_OPPONENTS; opponents++) {
+      assertTrue(PreflopEquity.getWinningChance(ace, Card.fromShortName("Ad"), opponents)
+          < PreflopEquity.getWinningChance(ace, Card.fromShortName("Ad"), opponents - 1));
+    }
+  }
+
+  @Test
+  public void testEncodingRoundTrip() {
+    double[] values = new double[PreflopEquity.NUMBER_OF_CLASSES * PreflopEquity.MAX_OPPONENTS];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = i * 1.0 / values.length;
+    }
+    double[] decoded = PreflopEquity.decode(PreflopEquity.encode(values));
+    for (int i = 0; i < values.length; i++) {
+      assertEquals(values[i], decoded[i], 0.5 / PreflopEquity.SCALE);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooManyOpponents() {
+    PreflopEquity.getWinningChance(0, PreflopEquity.MAX_OPPONENTS + 1);
+  }
+}
@@ -0,0 +1,87 @@
+package org.poker.client;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+
+@RunWith(JUnit4.class)
+public class ShowdownTest {
+
+  /**
+   * 3 players on the river, card ids 0-5 are the hole cards and 6-10 the board.
+   */
+  private PokerState state(ImmutableList<Pot> pots, String... cardNames) {
+    ImmutableList.Builder<Optional<Card>> cards = ImmutableList.builder();
+    for (int i = 0; i < Card.NUMBER_OF_CARDS; i++) {
+      cards.add(i < cardNames.length
+          ? Optional.of(Card.fromShortName(cardNames[i])) : Optional.<Card>absent());
+    }
+    return new PokerState(PokerMove.CALL, false, 3, Player.P0, Player.P1, BettingRound.SHOWDOWN,
+        cards.build(), ImmutableList.of(6, 7, 8, 9, 10),
+        ImmutableList.of(Player.P0, Player.P1, Player.P2),
+        ImmutableList.of(ImmutableList.of(0, 1), ImmutableList.of(2, 3), ImmutableList.of(4, 5)),
+        ImmutableList.of(0, 0, 0), ImmutableList.of(0, 0, 0), pots);
+  }
+
+  private Pot pot(int chips, Player... players) {
+    return new Pot(chips, 0, ImmutableList.copyOf(players), ImmutableList.of(0, 0, 0));
+  }
+
+  @Test
+  public void testSidePotsAndOddChips() {
+    // P2 is all-in for the main pot with the best hand, P0 and P1 split the side pot
+    PokerState state = state(
+        ImmutableList.of(pot(300, Player.P0, Player.P1, Player.P2), pot(201, Player.P0, Player.P1)),
+        "Ah", "2c", "Ad", "3c", "Ks", "Kd",
+        "As", "Kc", "7h", "8d", "Jc");
+    Showdown showdown = Showdown.resolve(state);
+    List<ImmutableList<Player>> winners = showdown.getPotWinners();
+    assertEquals(ImmutableList.of(Player.P2), winners.get(0));
+    assertEquals(ImmutableList.of(Player.P0, Player.P1), winners.get(1));
+    assertEquals(100, showdown.getChipsWon(Player.P0));
+    assertEquals(101, showdown.getChipsWon(Player.P1));
+    assertEquals(300, showdown.getChipsWon(Player.P2));
+    assertEquals(ImmutableList.of(Player.P0, Player.P1), showdown.getLastPotWinners());
+  }
+
+  @Test
+  public void testFoldedPlayerCannotWin() {
+    PokerState state = state(ImmutableList.of(pot(400, Player.P0, Player.P1)),
+        "2h", "3c", "Ad", "Ac", "Ks", "Kd",
+        "As", "Kc", "7h", "8d", "Jc");
+    PokerState withoutP1 = new PokerState(state.getPreviousMove(), false, 3, Player.P0, Player.P0,
+        BettingRound.SHOWDOWN, state.getCards(), state.getBoard(),
+        ImmutableList.of(Player.P0, Player.P2), state.getHoleCards(),
+        state.getPlayerBets(), state.getPlayerChips(),
+        ImmutableList.of(pot(400, Player.P0, Player.P2)));
+    assertEquals(400, Showdown.resolve(state).getChipsWon(Player.P1));
+    assertEquals(400, Showdown.resolve(withoutP1).getChipsWon(Player.P2));
+    assertEquals(0, Showdown.resolve(withoutP1).getChipsWon(Player.P1));
+  }
+
+  @Test
+  public void testPotOfOnlyFoldedPlayersHasNoWinners() {
+    // P1 folded but is still listed in a side pot nobody else is in
+    PokerState state = state(
+        ImmutableList.of(pot(400, Player.P0, Player.P1, Player.P2), pot(100, Player.P1)),
+        "2h", "3c", "Ad", "Ac", "Ks", "Kd",
+        "As", "Kc", "7h", "8d", "Jc");
+    PokerState withoutP1 = new PokerState(state.getPreviousMove(), false, 3, Player.P0, Player.P0,
+        BettingRound.SHOWDOWN, state.getCards(), state.getBoard(),
+        ImmutableList.of(Player.P0, Player.P2), state.getHoleCards(),
+        state.getPlayerBets(), state.getPlayerChips(), state.getPots());
+    Showdown showdown = Showdown.resolve(withoutP1);
+    assertEquals(ImmutableList.of(Player.P2), showdown.getPotWinners().get(0));
+    assertEquals(ImmutableList.of(), showdown.getPotWinners().get(1));
+    assertEquals(0, showdown.getChipsWon(Player.P1));
+    assertEquals(400, showdown.getChipsWon(Player.P2));
+    assertEquals(ImmutableList.of(Player.P2), showdown.getLastPotWinners());
+  }
+}
@@ -0,0 +1,142 @@
+package org.poker.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.game_api.GameApi.Operation;
+import org.game_api.GameApi.Set;
+import org.game_api.GameApi.SetTurn;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.poker.server.MutablePokerState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+@RunWith(JUnit4.class)
+public class StreamingMoveVerifierTest extends AbstractPokerLogicBase {
+
+  private final PokerLogic pokerLogic = new PokerLogic();
+  private final StreamingMoveVerifier verifier = new StreamingMoveVerifier(pokerLogic);
+  private final List<String> playerIds = ImmutableList.of("42", "43", "44", "45");
+  private final Map<String, Integer> startingChips =
+      ImmutableMap.of("42", 700, "43", 10000, "44", 2500, "45", 10000);
+
+  /**
+   * The decision of comparing with the expected operations, for the moves
+   * the streaming verifier handles.
+   */
+  private boolean isExpected(PokerState lastState, List<Operation> lastMove) {
+    try {
+      Object move = ((Set) lastMove.get(1)).getValue();
+      List<Operation> expected;
+      if (PokerMove.FOLD.name().equals(move)) {
+        expected = pokerLogic.doFoldMove(lastState, playerIds);
+      }
+      else if (PokerMove.CHECK.name().equals(move)) {
+        expected = pokerLogic.doCheckMove(lastState, playerIds);
+      }
+      else {
+        int playerIndex = lastState.getWhoseMove().ordinal();
+        @SuppressWarnings("unchecked")
+        List<Integer> playerChips =
+            (List<Integer>) pokerLogic.getSetOperationVal(PLAYER_CHIPS, lastMove);
+        int additionalAmount =
+            lastState.getPlayerChips().get(playerIndex) - playerChips.get(playerIndex);
+        expected = pokerLogic.doCallMove(lastState, playerIds, additionalAmount);
+      }
+      return expected.equals(lastMove);
+    } catch (RuntimeException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Variants of a legal move, each changed in one place.
+   */
+  private List<List<Operation>> tamperedMoves(List<Operation> move) {
+    List<List<Operation>> moves = Lists.newArrayList();
+    moves.add(move.subList(0, move.size() - 1));
+    List<Operation> longer = Lists.newArrayList(move);
+    longer.add(new Set(PREVIOUS_MOVE_ALL_IN, Boolean.FALSE));
+    moves.add(longer);
+    for (int i = 0; i < move.size(); i++) {
+      Operation operation = move.get(i);
+      List<Operation> tampered = Lists.newArrayList(move);
+      if (operation instanceof SetTurn) {
+        tampered.set(i, new SetTurn(((SetTurn) operation).getPlayerId(), 30));
+      }
+      else {
+        Set set = (Set) operation;
+        Object value = set.getValue();
+        if (value instanceof List && !((List<?>) value).isEmpty()
+            && ((List<?>) value).get(0) instanceof Integer) {
+          List<Object> changed = Lists.<Object>newArrayList((List<?>) value);
+          changed.set(0, (Integer) changed.get(0) + 10);
+          tampered.set(i, new Set(set.getKey(), changed));
+        }
+        else if (value instanceof List && !((List<?>) value).isEmpty()
+            && ((List<?>) value).get(0) instanceof Map) {
+          List<Object> changed = Lists.<Object>newArrayList((List<?>) value);
+          Map<?, ?> pot = (Map<?, ?>) changed.get(0);
+          changed.set(0, ImmutableMap.of(
+              CHIPS, (Integer) pot.get(CHIPS) - 10,
+              CURRENT_POT_BET, pot.get(CURRENT_POT_BET),
+              PLAYERS_IN_POT, pot.get(PLAYERS_IN_POT),
+              PLAYER_BETS, pot.get(PLAYER_BETS)));
+          tampered.set(i, new Set(set.getKey(), changed));
+        }
+        else {
+          tampered.set(i, new Set(set.getKey(), value, playerIds.subList(0, 1)));
+        }
+      }
+      moves.add(tampered);
+    }
+    return moves;
+  }
+
+  @Test
+  public void testSameDecisionsAsExpectedOperations() {
+    AILogic ai = new AILogic();
+    int accepted = 0;
+    int tamperedCompared = 0;
+    for (int hand = 0; hand < 20; hand++) {
+      // Seeded, so every run deals the same hands
+      MutablePokerState gameState = new MutablePokerState(playerIds, new Random(hand));
+      gameState.makeMove(pokerLogic.getInitialMove(playerIds, startingChips));
+      while (true) {
+        PokerState viewerState = gameState.toPokerState(-1);
+        if (viewerState.getCurrentRound() == BettingRound.END_GAME) {
+          break;
+        }
+        PokerState state = gameState.toPokerState(gameState.getTurn());
+        List<Operation> move = state.getCurrentRound() == BettingRound.SHOWDOWN
+            ? pokerLogic.doEndGameMove(state, playerIds)
+            : ai.decideMove(state, null, playerIds);
+        StreamingMoveVerifier.Result result = verifier.verify(viewerState, move, playerIds);
+        if (result != StreamingMoveVerifier.Result.UNSUPPORTED) {
+          assertEquals(StreamingMoveVerifier.Result.ACCEPT, result);
+          accepted++;
+          for (List<Operation> tampered : tamperedMoves(move)) {
+            StreamingMoveVerifier.Result tamperedResult =
+                verifier.verify(viewerState, tampered, playerIds);
+            if (tamperedResult != StreamingMoveVerifier.Result.UNSUPPORTED) {
+              assertEquals(isExpected(viewerState, tampered),
+                  tamperedResult == StreamingMoveVerifier.Result.ACCEPT);
+              tamperedCompared++;
+            }
+          }
+        }
+        gameState.makeMove(move);
+      }
+    }
+    assertTrue(accepted > 0);
+    assertTrue(tamperedCompared > 0);
+  }
+}
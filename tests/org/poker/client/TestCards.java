@@ -0,0 +1,26 @@
+package org.poker.client;
+
+import java.util.List;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
+
+/**
+ * Card helpers shared by the equity tests.
+ */
+public final class TestCards {
+
+  private TestCards() {
+  }
+
+  /**
+   * Returns cards for the given card values; "?" is an unknown card.
+   */
+  public static List<Optional<Card>> cards(String... cards) {
+    List<Optional<Card>> list = Lists.newArrayList();
+    for (String card : cards) {
+      list.add(card.equals("?") ? Optional.<Card>absent() : Optional.of(Card.fromShortName(card)));
+    }
+    return list;
+  }
+}
@@ -0,0 +1,62 @@
+package org.poker.client.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.poker.client.Card;
+
+@RunWith(JUnit4.class)
+public class DeckSamplerTest {
+
+  @Test
+  public void testDrawsEveryLiveCardOnce() {
+    long dead = (1L << 0) | (1L << 17) | (1L << 51);
+    DeckSampler sampler = new DeckSampler(new Random(1));
+    sampler.setDeadCards(dead);
+    assertEquals(49, sampler.getLiveCount());
+    long drawn = 0;
+    for (int i = 0; i < 49; i++) {
+      long bit = 1L << sampler.draw();
+      assertEquals(0, drawn & bit);
+      drawn |= bit;
+    }
+    assertEquals(((1L << Card.NUMBER_OF_CARDS) - 1) & ~dead, drawn);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testDeckRunsOut() {
+    DeckSampler sampler = new DeckSampler(new Random(1));
+    sampler.setDeadCards((1L << Card.NUMBER_OF_CARDS) - 2);
+    sampler.draw();
+    sampler.draw();
+  }
+
+  @Test
+  public void testResetRestoresDeckOrder() {
+    // Always picks the last undrawn card, so the cards drawn depend only on the deck order
+    Random last = new Random() {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      public int nextInt(int n) {
+        return n - 1;
+      }
+    };
+    DeckSampler sampler = new DeckSampler(last);
+    sampler.setDeadCards(1L << 51);
+    int[] first = new int[7];
+    for (int i = 0; i < first.length; i++) {
+      first[i] = sampler.draw();
+    }
+    sampler.reset();
+    for (int i = 0; i < first.length; i++) {
+      assertEquals(first[i], sampler.draw());
+    }
+    assertTrue(first[0] != 51);
+  }
+}
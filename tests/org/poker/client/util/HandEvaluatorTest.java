@@ -0,0 +1,90 @@
+package org.poker.client.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.poker.client.Card;
+import org.poker.client.Card.Rank;
+import org.poker.client.Card.Suit;
+
+import com.google.common.collect.Lists;
+
+@RunWith(JUnit4.class)
+public class HandEvaluatorTest {
+
+  private Card card(String card) {
+    String rank = card.substring(0, card.length() - 1);
+    String suit = card.substring(card.length() - 1);
+    return new Card(Suit.fromFirstLetterLowerCase(suit), Rank.fromFirstLetter(rank));
+  }
+
+  private List<Card> cards(String... cards) {
+    List<Card> list = Lists.newArrayList();
+    for (String card : cards) {
+      list.add(card(card));
+    }
+    return list;
+  }
+
+  private int category(String... cards) {
+    return HandEvaluator.getCategory(HandEvaluator.evaluate(cards(cards)));
+  }
+
+  @Test
+  public void testCategories() {
+    assertEquals(HandEvaluator.STRAIGHT_FLUSH, category("As", "2s", "3s", "4s", "5s", "Kd", "Kh"));
+    assertEquals(HandEvaluator.FOUR_OF_A_KIND, category("9s", "9h", "9d", "9c", "5d", "5h", "5s"));
+    assertEquals(HandEvaluator.FULL_HOUSE, category("9s", "9h", "9d", "5c", "5d", "2h", "3s"));
+    assertEquals(HandEvaluator.FLUSH, category("2h", "7h", "9h", "Jh", "Kh", "Kd", "Ks"));
+    assertEquals(HandEvaluator.STRAIGHT, category("10s", "Jh", "Qd", "Kc", "Ad", "2h", "2s"));
+    assertEquals(HandEvaluator.THREE_OF_A_KIND, category("9s", "9h", "9d", "5c", "4d"));
+    assertEquals(HandEvaluator.TWO_PAIR, category("Ks", "Kh", "9d", "9c", "5d", "5h", "Ac"));
+    assertEquals(HandEvaluator.PAIR, category("Ks", "Kh", "9d", "8c", "5d", "4h", "2c"));
+    assertEquals(HandEvaluator.HIGH_CARD, category("Ks", "Jh", "9d", "8c", "5d", "4h", "2c"));
+  }
+
+  @Test
+  public void testWheelLosesToSixHighStraight() {
+    int wheel = HandEvaluator.evaluate(cards("As", "2h", "3d", "4c", "5s"));
+    int sixHigh = HandEvaluator.evaluate(cards("6s", "2h", "3d", "4c", "5s"));
+    assertTrue(sixHigh > wheel);
+  }
+
+  @Test
+  public void testFullHouseComparesPairPart() {
+    int overFives = HandEvaluator.evaluate(cards("9s", "9h", "9d", "5c", "5d", "2h", "3s"));
+    int overKings = HandEvaluator.evaluate(cards("9s", "9h", "9d", "Kc", "Kd", "2h", "3s"));
+    assertTrue(overKings > overFives);
+  }
+
+  @Test
+  public void testAgreesWithBestHandFinder() {
+    Random random = new Random(42);
+    List<Card> deck = Lists.newArrayList();
+    for (Suit suit : Suit.values()) {
+      for (Rank rank : Rank.values()) {
+        deck.add(new Card(suit, rank));
+      }
+    }
+    BestHandFinder finder = new BestHandFinder();
+    for (int i = 0; i < 2000; i++) {
+      Collections.shuffle(deck, random);
+      finder.reset(deck.subList(0, 5), deck.subList(5, 7));
+      PokerHand hand1 = finder.find();
+      int strength1 = HandEvaluator.evaluate(deck.subList(0, 7));
+      finder.reset(deck.subList(7, 12), deck.subList(12, 14));
+      PokerHand hand2 = finder.find();
+      int strength2 = HandEvaluator.evaluate(deck.subList(7, 14));
+      assertEquals(hand1.getRanking().get(0).intValue(), HandEvaluator.getCategory(strength1));
+      assertEquals(Integer.signum(hand1.compareRanking(hand2)),
+          Integer.signum(Integer.compare(strength1, strength2)));
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package org.poker.client.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.poker.client.Card;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+@RunWith(JUnit4.class)
+public class PokerHandTest {
+
+  private PokerHand hand(String... cards) {
+    List<Card> list = Lists.newArrayList();
+    for (String card : cards) {
+      list.add(Card.fromShortName(card));
+    }
+    return new PokerHand(list);
+  }
+
+  @Test
+  public void testRankingLists() {
+    assertEquals(ImmutableList.of(8, 5), hand("As", "2s", "3s", "4s", "5s").getRanking());
+    assertEquals(ImmutableList.of(7, 9, 5), hand("9s", "9h", "9d", "9c", "5d").getRanking());
+    assertEquals(ImmutableList.of(6, 9, 5), hand("9s", "9h", "9d", "5c", "5d").getRanking());
+    assertEquals(ImmutableList.of(3, 9, 5, 4), hand("9s", "9h", "9d", "5c", "4d").getRanking());
+    assertEquals(ImmutableList.of(2, 13, 9, 5), hand("Ks", "Kh", "9d", "9c", "5d").getRanking());
+    assertEquals(ImmutableList.of(0, 13, 11, 9, 8, 5),
+        hand("Ks", "Jh", "9d", "8c", "5d").getRanking());
+  }
+
+  @Test
+  public void testPackedRankingOrdersLikeList() {
+    PokerHand flush = hand("2h", "7h", "9h", "Jh", "Kh");
+    PokerHand straight = hand("10s", "Jh", "Qd", "Kc", "Ad");
+    assertTrue(flush.getPackedRanking() > straight.getPackedRanking());
+    assertEquals(1, flush.compareRanking(straight));
+    assertEquals(-1, straight.compareRanking(flush));
+  }
+
+  @Test
+  public void testEqualityFollowsRanking() {
+    PokerHand hearts = hand("2h", "7h", "9h", "Jh", "Kh");
+    PokerHand spades = hand("2s", "7s", "9s", "Js", "Ks");
+    assertEquals(hearts, spades);
+    assertEquals(hearts.hashCode(), spades.hashCode());
+    assertFalse(hearts.getCardMask() == spades.getCardMask());
+    assertEquals(hearts.getCardMask(), PokerHand.fromCardMask(hearts.getCardMask()).getCardMask());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDuplicateCards() {
+    hand("2h", "2h", "9h", "Jh", "Kh");
+  }
+}
@@ -0,0 +1,114 @@
+package org.poker.server;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.game_api.GameApi.GameState;
+import org.game_api.GameApi.Operation;
+import org.game_api.GameApi.Set;
+import org.game_api.GameApi.SetVisibility;
+import org.game_api.GameApi.Shuffle;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.poker.client.AILogic;
+import org.poker.client.BettingRound;
+import org.poker.client.Card;
+import org.poker.client.PokerLogic;
+import org.poker.client.PokerLogicHelper;
+import org.poker.client.PokerState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+@RunWith(JUnit4.class)
+public class MutablePokerStateTest {
+
+  private final PokerLogic pokerLogic = new PokerLogic();
+  private final PokerLogicHelper helper = PokerLogicHelper.getInstance();
+  private final List<String> playerIds = ImmutableList.of("42", "43", "44", "45");
+
+  private Map<String, Integer> startingChips(int... chips) {
+    ImmutableMap.Builder<String, Integer> builder = ImmutableMap.builder();
+    for (int i = 0; i < chips.length; i++) {
+      builder.put(playerIds.get(i), chips[i]);
+    }
+    return builder.build();
+  }
+
+  /**
+   * The initial move without its Shuffle, so both states deal the same cards.
+   */
+  private List<Operation> unshuffledInitialMove(Map<String, Integer> chips) {
+    List<Operation> operations = Lists.newArrayList();
+    for (Operation operation : pokerLogic.getInitialMove(playerIds, chips)) {
+      if (!(operation instanceof Shuffle)) {
+        operations.add(operation);
+      }
+    }
+    return operations;
+  }
+
+  private void assertSameState(GameState expected, MutablePokerState actual) {
+    for (String playerId : ImmutableList.<String>builder().addAll(playerIds).add("-1").build()) {
+      assertEquals(expected.getStateForPlayerId(playerId), actual.getStateForPlayerId(playerId));
+    }
+  }
+
+  @Test
+  public void testMatchesGameStateThroughWholeHands() {
+    // Short stacks for some players, so the hands include all-ins and side pots
+    Map<String, Integer> chips = startingChips(400, 10000, 1500, 10000);
+    AILogic ai = new AILogic();
+    for (int hand = 0; hand < 20; hand++) {
+      GameState gameState = new GameState();
+      MutablePokerState mutableState = new MutablePokerState(playerIds, new Random(hand));
+      List<Operation> operations = unshuffledInitialMove(chips);
+      for (int move = 0; move < HeadlessTable.MAX_MOVES_PER_HAND; move++) {
+        gameState.makeMove(operations);
+        mutableState.makeMove(operations);
+        assertSameState(gameState, mutableState);
+        if (mutableState.getCurrentRound() == BettingRound.END_GAME) {
+          break;
+        }
+        int seat = mutableState.getTurn();
+        PokerState state = mutableState.toPokerState(seat);
+        assertEquals(
+            helper.gameApiStateToPokerState(gameState.getStateForPlayerId(playerIds.get(seat)))
+                .getCards(),
+            state.getCards());
+        operations = state.getCurrentRound() == BettingRound.SHOWDOWN
+            ? pokerLogic.doEndGameMove(state, playerIds)
+            : ai.decideMove(state, null, playerIds);
+      }
+      assertEquals(BettingRound.END_GAME, mutableState.getCurrentRound());
+    }
+  }
+
+  @Test
+  public void testShuffleKeepsEveryCardOnce() {
+    MutablePokerState state = new MutablePokerState(playerIds, new Random(0));
+    state.makeMove(pokerLogic.getInitialMove(playerIds, startingChips(5000, 5000, 5000, 5000)));
+    assertEquals(null, state.getStateForPlayerId("-1").get("C0"));
+    for (int i = 0; i < Card.NUMBER_OF_CARDS; i++) {
+      state.makeMove(new SetVisibility("C" + i));
+    }
+    Map<String, Object> viewerState = state.getStateForPlayerId("-1");
+    HashSet<Object> cards = Sets.newHashSet();
+    for (int i = 0; i < Card.NUMBER_OF_CARDS; i++) {
+      cards.add(viewerState.get("C" + i));
+    }
+    assertEquals(Card.NUMBER_OF_CARDS, cards.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownKey() {
+    new MutablePokerState(playerIds, new Random()).makeMove(new Set("unknown", 1));
+  }
+}
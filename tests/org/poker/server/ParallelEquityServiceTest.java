@@ -0,0 +1,86 @@
+package org.poker.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+import static org.poker.client.TestCards.cards;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.poker.client.AIHelper;
+import org.poker.client.Card;
+import org.poker.client.Equity;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+
+@RunWith(JUnit4.class)
+public class ParallelEquityServiceTest {
+
+  private final List<Optional<Card>> board = cards("2c", "7d", "9h", "?", "?");
+  private final List<List<Optional<Card>>> hands =
+      ImmutableList.of(cards("Jh", "10h"), cards("?", "?"), cards("?", "?"));
+
+  @Test
+  public void testSameSeedSameResultWhateverTheParallelism() {
+    ForkJoinPool singlePool = new ForkJoinPool(1);
+    ForkJoinPool parallelPool = new ForkJoinPool(4);
+    List<Equity> single;
+    List<Equity> parallel;
+    try {
+      single = new ParallelEquityService(singlePool, 1000).getEquities(board, hands, 10500, 42);
+      parallel = new ParallelEquityService(parallelPool, 1000).getEquities(board, hands, 10500, 42);
+    }
+    finally {
+      singlePool.shutdown();
+      parallelPool.shutdown();
+    }
+    assertEquals(10500, single.get(0).getRunouts());
+    for (int seat = 0; seat < hands.size(); seat++) {
+      assertEquals(single.get(seat).toString(), parallel.get(seat).toString());
+      assertEquals(single.get(seat).getPotShare(), parallel.get(seat).getPotShare(), 0);
+    }
+  }
+
+  @Test
+  public void testAgreesWithExactEnumeration() {
+    List<Optional<Card>> turn = cards("2c", "7d", "9h", "Jc", "?");
+    List<List<Optional<Card>>> headsUp = ImmutableList.of(cards("As", "Ah"), cards("?", "?"));
+    double exact = new AIHelper().getEquities(turn, headsUp).get(0).getWinOrTieShare();
+    ParallelEquityService service = new ParallelEquityService();
+    try {
+      double sampled = service.getEquities(turn, headsUp, 200000, 7).get(0).getWinOrTieShare();
+      assertEquals(exact, sampled, 0.01);
+    }
+    finally {
+      service.close();
+    }
+  }
+
+  @Test
+  public void testCloseOnlyShutsDownOwnPool() {
+    ForkJoinPool pool = new ForkJoinPool(1);
+    try {
+      ParallelEquityService service = new ParallelEquityService(pool, 1000);
+      service.close();
+      assertFalse(pool.isShutdown());
+      assertEquals(100, service.getEquities(board, hands, 100, 1).get(0).getRunouts());
+    }
+    finally {
+      pool.shutdown();
+    }
+    ParallelEquityService owner = new ParallelEquityService();
+    owner.getEquities(board, hands, 100, 1);
+    owner.close();
+    try {
+      owner.getEquities(board, hands, 100, 1);
+      fail();
+    } catch (RejectedExecutionException expected) {
+    }
+  }
+}
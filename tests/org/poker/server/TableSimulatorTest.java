@@ -0,0 +1,45 @@
+package org.poker.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.poker.server.TableSimulator.BotStats;
+import org.poker.server.TableSimulator.Report;
+
+import com.google.common.collect.ImmutableList;
+
+@RunWith(JUnit4.class)
+public class TableSimulatorTest {
+
+  @Test
+  public void testHandsAreZeroSum() {
+    HeadlessTable table = new HeadlessTable(ImmutableList.of("a", "b", "c"), 5000);
+    for (int hand = 0; hand < 20; hand++) {
+      int[] chipsWon = table.playHand();
+      assertEquals(0, chipsWon[0] + chipsWon[1] + chipsWon[2]);
+    }
+    assertEquals(20, table.getHands());
+    assertTrue(table.getMoves() >= 20 * 2);
+  }
+
+  @Test
+  public void testSimulateMergesTables() throws InterruptedException {
+    Report report = new TableSimulator(2, 4, TableSimulator.DEFAULT_STARTING_CHIPS).simulate(3, 10);
+    assertEquals(30, report.getHands());
+    assertEquals(4, report.getBots().size());
+    long netChips = 0;
+    for (BotStats bot : report.getBots()) {
+      assertEquals(30, bot.getHands());
+      netChips += bot.getNetChips();
+    }
+    assertEquals(0, netChips);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooManyBots() throws InterruptedException {
+    new TableSimulator(1, 10, TableSimulator.DEFAULT_STARTING_CHIPS).simulate(1, 1);
+  }
+}